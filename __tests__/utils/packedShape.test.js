@@ -0,0 +1,160 @@
+import {
+  packShape,
+  toBase64,
+  PACKED_SHAPE_VERSION,
+  GeometryType,
+  ValueTag,
+} from '../../javascript/utils/packedShape';
+
+function decode(packed) {
+  return Buffer.from(packed, 'base64');
+}
+
+describe('packedShape', () => {
+  it('should encode base64 like the platform encoder', () => {
+    const bytes = [0, 1, 2, 250, 251, 252, 253];
+    for (let i = 0; i <= bytes.length; i++) {
+      const slice = bytes.slice(0, i);
+      expect(toBase64(slice)).toEqual(Buffer.from(slice).toString('base64'));
+    }
+  });
+
+  it('should write header and flat coordinates', () => {
+    const buffer = decode(
+      packShape({
+        type: 'FeatureCollection',
+        features: [
+          {
+            type: 'Feature',
+            geometry: { type: 'Point', coordinates: [1.5, 2.5] },
+            properties: {},
+          },
+          {
+            type: 'Feature',
+            geometry: {
+              type: 'LineString',
+              coordinates: [
+                [3, 4],
+                [5, 6],
+              ],
+            },
+            properties: {},
+          },
+        ],
+      }),
+    );
+
+    expect(buffer.readUInt32LE(0)).toEqual(PACKED_SHAPE_VERSION);
+    expect(buffer.readUInt32LE(4)).toEqual(2);
+    expect(buffer.readUInt32LE(8)).toEqual(3);
+    expect(
+      [0, 1, 2, 3, 4, 5].map((i) => buffer.readDoubleLE(16 + i * 8)),
+    ).toEqual([1.5, 2.5, 3, 4, 5, 6]);
+
+    const structure = 16 + 3 * 16;
+    expect(buffer.readUInt32LE(structure)).toEqual(GeometryType.Point);
+    expect(buffer.readUInt32LE(structure + 4)).toEqual(1);
+    expect(buffer.readUInt32LE(structure + 8)).toEqual(1);
+    expect(buffer.readUInt32LE(structure + 12)).toEqual(
+      GeometryType.LineString,
+    );
+    expect(buffer.readUInt32LE(structure + 16)).toEqual(1);
+    expect(buffer.readUInt32LE(structure + 20)).toEqual(2);
+  });
+
+  it('should write ids and property table', () => {
+    const buffer = decode(
+      packShape({
+        type: 'Feature',
+        id: 42,
+        geometry: { type: 'Point', coordinates: [0, 0] },
+        properties: { speed: 12.5, name: 'bus', active: true, meta: { a: 1 } },
+      }),
+    );
+
+    let offset = 16 + 16 + 12;
+    const strings = [];
+    const stringCount = buffer.readUInt32LE(offset);
+    offset += 4;
+    for (let i = 0; i < stringCount; i++) {
+      const length = buffer.readUInt32LE(offset);
+      strings.push(buffer.toString('utf8', offset + 4, offset + 4 + length));
+      offset += 4 + length;
+    }
+
+    const keyCount = buffer.readUInt32LE(offset);
+    offset += 4;
+    const keys = [];
+    for (let i = 0; i < keyCount; i++) {
+      keys.push(strings[buffer.readUInt32LE(offset)]);
+      offset += 4;
+    }
+    expect(keys).toEqual(['speed', 'name', 'active', 'meta']);
+
+    expect(buffer.readUInt8(offset)).toEqual(ValueTag.Number);
+    expect(buffer.readDoubleLE(offset + 1)).toEqual(42);
+    offset += 9;
+
+    expect(buffer.readUInt8(offset)).toEqual(ValueTag.Number);
+    expect(buffer.readDoubleLE(offset + 1)).toEqual(12.5);
+    offset += 9;
+    expect(buffer.readUInt8(offset)).toEqual(ValueTag.String);
+    expect(strings[buffer.readUInt32LE(offset + 1)]).toEqual('bus');
+    offset += 5;
+    expect(buffer.readUInt8(offset)).toEqual(ValueTag.True);
+    offset += 1;
+    expect(buffer.readUInt8(offset)).toEqual(ValueTag.JSON);
+    expect(strings[buffer.readUInt32LE(offset + 1)]).toEqual('{"a":1}');
+    expect(offset + 5).toEqual(buffer.length);
+  });
+
+  it('should keep the type of feature ids', () => {
+    const buffer = decode(
+      packShape({
+        type: 'FeatureCollection',
+        features: [
+          {
+            type: 'Feature',
+            id: 'a',
+            geometry: { type: 'Point', coordinates: [0, 0] },
+            properties: {},
+          },
+          {
+            type: 'Feature',
+            id: 7,
+            geometry: { type: 'Point', coordinates: [0, 0] },
+            properties: {},
+          },
+          {
+            type: 'Feature',
+            geometry: { type: 'Point', coordinates: [0, 0] },
+            properties: {},
+          },
+        ],
+      }),
+    );
+
+    // header, 3 positions, 3 point structures, string table with 'a'
+    let offset = 16 + 3 * 16 + 3 * 12;
+    expect(buffer.readUInt32LE(offset)).toEqual(1);
+    offset += 4 + 4 + 1;
+    expect(buffer.readUInt32LE(offset)).toEqual(0);
+    offset += 4;
+
+    expect(buffer.readUInt8(offset)).toEqual(ValueTag.String);
+    expect(buffer.readUInt32LE(offset + 1)).toEqual(0);
+    offset += 5;
+    expect(buffer.readUInt8(offset)).toEqual(ValueTag.Number);
+    expect(buffer.readDoubleLE(offset + 1)).toEqual(7);
+    offset += 9;
+    expect(buffer.readUInt8(offset)).toEqual(ValueTag.Absent);
+    expect(offset + 1).toEqual(buffer.length);
+  });
+
+  it('should return null for unsupported geometries', () => {
+    expect(
+      packShape({ type: 'MultiPolygon', coordinates: [[[[0, 0]]]] }),
+    ).toBeNull();
+    expect(packShape(undefined)).toBeNull();
+  });
+});
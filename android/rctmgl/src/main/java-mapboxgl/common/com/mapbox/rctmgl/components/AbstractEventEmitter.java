@@ -1,5 +1,8 @@
 package com.mapbox.rctmgl.components;
 
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
 import android.view.ViewGroup;
 
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -9,9 +12,16 @@ import com.facebook.react.uimanager.UIManagerModule;
 import com.facebook.react.uimanager.ViewGroupManager;
 import com.facebook.react.uimanager.events.EventDispatcher;
 import com.mapbox.rctmgl.events.IEvent;
+import com.mapbox.rctmgl.events.constants.EventTypes;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Nullable;
 import javax.annotation.Nonnull;
@@ -21,26 +31,88 @@ import javax.annotation.Nonnull;
  */
 
 abstract public class AbstractEventEmitter<T extends ViewGroup> extends ViewGroupManager<T> {
-    private static final double BRIDGE_TIMEOUT_MS = 10;
-    private Map<String, Long> mRateLimitedEvents;
+    // continuous event types where only the latest value matters, these are coalesced per view and
+    // sent over the bridge at most once per frame
+    private static final Set<String> COALESCED_EVENT_TYPES = new HashSet<>(Arrays.asList(
+            EventTypes.REGION_IS_CHANGING,
+            EventTypes.USER_LOCATION_UPDATED,
+            EventTypes.ANNOTATION_DRAG,
+            EventTypes.WILL_START_RENDERING_FRAME,
+            EventTypes.DID_FINISH_RENDERING_FRAME,
+            EventTypes.DID_FINISH_RENDERING_FRAME_FULLY,
+            EventTypes.PROJECTED_POINTS_CHANGE
+    ));
+
     private EventDispatcher mEventDispatcher;
     private ReactApplicationContext mRCTAppContext;
 
+    private final Object mPendingEventsLock = new Object();
+    // guarded by mPendingEventsLock, ordered by the arrival of each slot's latest event
+    private final LinkedHashMap<EventSlot, IEvent> mPendingEvents = new LinkedHashMap<>();
+    // guarded by mPendingEventsLock, events waiting to be dispatched on the main thread, in order
+    private final List<IEvent> mReadyEvents = new ArrayList<>();
+    private boolean mFrameScheduled;
+    private boolean mDispatchPosted;
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            synchronized (mPendingEventsLock) {
+                mFrameScheduled = false;
+                movePendingEvents();
+            }
+            dispatchReadyEvents();
+        }
+    };
+
+    private final Runnable mDispatchCallback = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (mPendingEventsLock) {
+                mDispatchPosted = false;
+            }
+            dispatchReadyEvents();
+        }
+    };
+
+    private final Runnable mPostFrameCallback = new Runnable() {
+        @Override
+        public void run() {
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        }
+    };
+
     public AbstractEventEmitter(ReactApplicationContext reactApplicationContext) {
-        mRateLimitedEvents = new HashMap<>();
         mRCTAppContext = reactApplicationContext;
     }
 
     public void handleEvent(IEvent event) {
-        String eventCacheKey = getEventCacheKey(event);
-
-        // fail safe to protect bridge from being spammed
-        if (shouldDropEvent(eventCacheKey, event)) {
-            return;
+        synchronized (mPendingEventsLock) {
+            if (COALESCED_EVENT_TYPES.contains(event.getType())) {
+                EventSlot slot = new EventSlot(event);
+                // re-inserting moves the slot behind the events that arrived since its last value
+                mPendingEvents.remove(slot);
+                mPendingEvents.put(slot, event);
+                scheduleFrame();
+                return;
+            }
+
+            // keep the order events were emitted in, pending values go out before this event
+            movePendingEvents();
+            mReadyEvents.add(event);
+
+            if (Looper.myLooper() != Looper.getMainLooper()) {
+                if (!mDispatchPosted) {
+                    mDispatchPosted = true;
+                    mMainHandler.post(mDispatchCallback);
+                }
+                return;
+            }
         }
 
-        mRateLimitedEvents.put(eventCacheKey, System.currentTimeMillis());
-        mEventDispatcher.dispatchEvent(new AbstractEvent(event.getID(), event.getKey(), event.canCoalesce(), event.toJSON()));
+        dispatchReadyEvents();
     }
 
     @Override
@@ -69,12 +141,68 @@ abstract public class AbstractEventEmitter<T extends ViewGroup> extends ViewGrou
     @Nullable
     public abstract Map<String, String> customEvents();
 
-    private boolean shouldDropEvent(String cacheKey, IEvent event) {
-        Long lastEventTimestamp = mRateLimitedEvents.get(cacheKey);
-        return lastEventTimestamp != null && (event.getTimestamp() - lastEventTimestamp) <= BRIDGE_TIMEOUT_MS;
+    private void dispatchEvent(IEvent event) {
+        mEventDispatcher.dispatchEvent(new AbstractEvent(event.getID(), event.getKey(), event.canCoalesce(), event.toJSON()));
+    }
+
+    // called with mPendingEventsLock held
+    private void movePendingEvents() {
+        mReadyEvents.addAll(mPendingEvents.values());
+        mPendingEvents.clear();
     }
 
-    private String getEventCacheKey(IEvent event) {
-        return String.format("%s-%s", event.getKey(), event.getType());
+    // main thread only, the events are turned into JSON and dispatched outside of the lock
+    private void dispatchReadyEvents() {
+        List<IEvent> events;
+        synchronized (mPendingEventsLock) {
+            if (mReadyEvents.isEmpty()) {
+                return;
+            }
+            events = new ArrayList<>(mReadyEvents);
+            mReadyEvents.clear();
+        }
+
+        for (IEvent event : events) {
+            dispatchEvent(event);
+        }
+    }
+
+    private void scheduleFrame() {
+        if (mFrameScheduled) {
+            return;
+        }
+        mFrameScheduled = true;
+
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        } else {
+            mMainHandler.post(mPostFrameCallback);
+        }
+    }
+
+    private static class EventSlot {
+        private final int mViewTag;
+        private final String mKey;
+        private final String mType;
+
+        EventSlot(IEvent event) {
+            mViewTag = event.getID();
+            mKey = event.getKey();
+            mType = event.getType();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * mViewTag + mKey.hashCode()) + mType.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof EventSlot)) {
+                return false;
+            }
+            EventSlot other = (EventSlot) obj;
+            return mViewTag == other.mViewTag && mKey.equals(other.mKey) && mType.equals(other.mType);
+        }
     }
 }
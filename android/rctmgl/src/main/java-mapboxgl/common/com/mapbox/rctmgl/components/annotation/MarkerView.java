@@ -1,5 +1,6 @@
 package com.mapbox.rctmgl.components.annotation;
 
+import android.graphics.PointF;
 import android.view.View;
 
 import androidx.annotation.NonNull;
@@ -7,17 +8,48 @@ import androidx.annotation.NonNull;
 import com.mapbox.mapboxsdk.geometry.LatLng;
 
 /**
- * Subclass of MarkerView so we MarkerViewManager can implement remove/restoreViews
+ * View anchored to a coordinate, positioned by MarkerViewManager. The view is only attached to the
+ * map view while the marker is near the viewport.
  */
-public class MarkerView extends com.mapbox.mapboxsdk.plugins.markerview.MarkerView {
-    View view;
+public class MarkerView {
+    public interface OnPositionUpdateListener {
+        PointF onUpdate(PointF pointF);
+    }
+
+    private final View mView;
+    private LatLng mLatLng;
+    private OnPositionUpdateListener mOnPositionUpdateListener;
+
+    // state owned by the manager the marker was added to
+    MarkerViewManager mManager;
+    int mIndex = -1;
+    boolean mAttached;
 
     public MarkerView(@NonNull LatLng latLng, @NonNull View view) {
-        super(latLng, view);
-        this.view = view;
+        mLatLng = latLng;
+        mView = view;
+    }
+
+    public void setLatLng(@NonNull LatLng latLng) {
+        mLatLng = latLng;
+        if (mManager != null) {
+            mManager.updateMarker(this);
+        }
+    }
+
+    public LatLng getLatLng() {
+        return mLatLng;
+    }
+
+    public void setOnPositionUpdateListener(OnPositionUpdateListener onPositionUpdateListener) {
+        mOnPositionUpdateListener = onPositionUpdateListener;
+    }
+
+    OnPositionUpdateListener getOnPositionUpdateListener() {
+        return mOnPositionUpdateListener;
     }
 
     public View getView() {
-        return this.view;
+        return mView;
     }
 }
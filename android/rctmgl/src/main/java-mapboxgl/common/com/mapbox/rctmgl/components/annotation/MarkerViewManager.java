@@ -1,69 +1,129 @@
 package com.mapbox.rctmgl.components.annotation;
 
+import android.graphics.PointF;
+import android.view.View;
+
 import androidx.annotation.NonNull;
 
 import com.mapbox.mapboxsdk.maps.MapView;
 import com.mapbox.mapboxsdk.maps.MapboxMap;
+import com.mapbox.mapboxsdk.maps.Projection;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import java.lang.reflect.InvocationTargetException;
-
 /**
- * Subclass of MarkerViewManager implementing removeViews and restoreViews
+ * Positions marker views on the map. Views of markers outside the viewport plus a margin are
+ * detached from the map view, so they are neither laid out nor drawn, and attached again once the
+ * marker comes close to the viewport.
  */
-public class MarkerViewManager extends com.mapbox.mapboxsdk.plugins.markerview.MarkerViewManager {
-    private final List<MarkerView> markers = new ArrayList<>();
-    private MapView mapView;
-    private java.lang.reflect.Method markerUpdate;
+public class MarkerViewManager {
+    // markers closer than this to the viewport stay attached, so views don't pop in at the edges
+    private static final float VIEWPORT_MARGIN_DP = 64;
+
+    private final MapView mMapView;
+    private final MapboxMap mMap;
+    private final float mViewportMargin;
+
+    private final List<MarkerView> mMarkers = new ArrayList<>();
 
     public MarkerViewManager(MapView mapView, MapboxMap mapboxMap) {
-        super(mapView, mapboxMap);
-        this.mapView = mapView;
-        // this.mapboxMap = mapboxMap;
-
-        try {     
-            markerUpdate = MarkerView.class.getSuperclass().getDeclaredMethod("update");
-            markerUpdate.setAccessible(true);
-        } 
-        catch (NoSuchMethodException e) {System.out.println(e.toString());}
+        mMapView = mapView;
+        mMap = mapboxMap;
+        mViewportMargin = VIEWPORT_MARGIN_DP * mapView.getResources().getDisplayMetrics().density;
     }
 
     public void addMarker(@NonNull MarkerView markerView) {
-        super.addMarker(markerView);
-        markers.add(markerView);
+        if (mMapView.isDestroyed() || markerView.mManager != null) {
+            return;
+        }
+
+        markerView.mManager = this;
+        markerView.mIndex = mMarkers.size();
+        mMarkers.add(markerView);
+        updateMarker(markerView, mMap.getProjection());
     }
 
     public void removeMarker(@NonNull MarkerView markerView) {
-        super.removeMarker(markerView);
-        markers.remove(markerView);
+        if (markerView.mManager != this) {
+            return;
+        }
+
+        // swap with the last marker, so removal doesn't shift the list
+        MarkerView last = mMarkers.remove(mMarkers.size() - 1);
+        if (last != markerView) {
+            mMarkers.set(markerView.mIndex, last);
+            last.mIndex = markerView.mIndex;
+        }
+
+        if (markerView.mAttached && !mMapView.isDestroyed()) {
+            mMapView.removeView(markerView.getView());
+        }
+        markerView.mAttached = false;
+        markerView.mManager = null;
+        markerView.mIndex = -1;
     }
 
     public void removeViews() {
-        for (MarkerView marker: markers) {
-            mapView.removeView(marker.getView());
+        for (MarkerView marker : mMarkers) {
+            if (marker.mAttached) {
+                mMapView.removeView(marker.getView());
+            }
         }
     }
 
     public void restoreViews() {
-        for (MarkerView marker: markers) {
-            mapView.addView(marker.getView());
+        for (MarkerView marker : mMarkers) {
+            if (marker.mAttached) {
+                mMapView.addView(marker.getView());
+            }
         }
     }
 
-    public void updateMarkers(){
-        
-        try {   
-            if (markerUpdate != null) {       
-                for( int i = 0; i < markers.size(); i++ ){    
-                    markerUpdate.invoke(markers.get(i));
-                }
-             }
-         } 
-        catch (IllegalArgumentException e) { System.out.println(e.toString()); }
-        catch (IllegalAccessException e) { System.out.println(e.toString()); }
-        catch (InvocationTargetException e) { System.out.println(e.toString()); }
+    /**
+     * Projects all markers and attaches or detaches their views, called on every camera change.
+     */
+    public void updateMarkers() {
+        if (mMarkers.isEmpty()) {
+            return;
+        }
+
+        Projection projection = mMap.getProjection();
+        for (int i = 0; i < mMarkers.size(); i++) {
+            updateMarker(mMarkers.get(i), projection);
+        }
+    }
+
+    void updateMarker(MarkerView markerView) {
+        updateMarker(markerView, mMap.getProjection());
     }
 
+    private void updateMarker(MarkerView markerView, Projection projection) {
+        PointF point = projection.toScreenLocation(markerView.getLatLng());
+        MarkerView.OnPositionUpdateListener listener = markerView.getOnPositionUpdateListener();
+        if (listener != null) {
+            point = listener.onUpdate(point);
+        }
+
+        View view = markerView.getView();
+        boolean nearViewport = point.x + view.getWidth() >= -mViewportMargin
+                && point.x <= mMapView.getWidth() + mViewportMargin
+                && point.y + view.getHeight() >= -mViewportMargin
+                && point.y <= mMapView.getHeight() + mViewportMargin;
+
+        if (!nearViewport) {
+            if (markerView.mAttached) {
+                mMapView.removeView(view);
+                markerView.mAttached = false;
+            }
+            return;
+        }
+
+        if (!markerView.mAttached) {
+            mMapView.addView(view);
+            markerView.mAttached = true;
+        }
+        view.setX(point.x);
+        view.setY(point.y);
+    }
 }
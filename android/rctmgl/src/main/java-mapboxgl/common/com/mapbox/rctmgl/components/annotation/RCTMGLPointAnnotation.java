@@ -19,7 +19,6 @@ import com.mapbox.rctmgl.events.PointAnnotationClickEvent;
 import com.mapbox.rctmgl.events.PointAnnotationDragEvent;
 import com.mapbox.rctmgl.events.constants.EventTypes;
 import com.mapbox.rctmgl.utils.GeoJSONUtils;
-import com.mapbox.rctmgl.utils.BitmapUtils;
 
 public class RCTMGLPointAnnotation extends AbstractMapFeature implements View.OnLayoutChangeListener {
     private Context mContext;
@@ -76,7 +75,7 @@ public class RCTMGLPointAnnotation extends AbstractMapFeature implements View.On
             mMap.getStyle(new Style.OnStyleLoaded() {
                 @Override
                 public void onStyleLoaded(@NonNull Style style) {
-                    style.removeImage(mChildBitmapId);
+                    releaseBitmap(mChildBitmapId);
                     mChildView = null;
                     mCalloutView = null;
                     mChildBitmap = null;
@@ -100,14 +99,13 @@ public class RCTMGLPointAnnotation extends AbstractMapFeature implements View.On
             if (!mChildView.isAttachedToWindow()) {
                 mMapView.offscreenAnnotationViewContainer().addView(mChildView);
             }
-            addBitmapToStyle(mChildBitmap, mChildBitmapId);
-            updateOptions();
+            refreshBitmap(mChildView);
         }
         if (mCalloutView != null) {
             if (!mCalloutView.isAttachedToWindow()) {
                 mMapView.offscreenAnnotationViewContainer().addView(mCalloutView);
             }
-            addBitmapToStyle(mCalloutBitmap, mCalloutBitmapId);
+            refreshBitmap(mCalloutView);
         }
     }
 
@@ -119,7 +117,11 @@ public class RCTMGLPointAnnotation extends AbstractMapFeature implements View.On
         }
 
         if (mAnnotation != null) {
-            map.getSymbolManager().delete(mAnnotation);
+            map.pointAnnotationMarkerRemoved(this);
+            map.getSymbolBatch().delete(mAnnotation);
+            mAnnotation = null;
+        } else {
+            map.getSymbolBatch().cancel(mPendingMarker);
         }
         if (mChildView != null) {
             map.offscreenAnnotationViewContainer().removeView(mChildView);
@@ -127,6 +129,13 @@ public class RCTMGLPointAnnotation extends AbstractMapFeature implements View.On
         if (mCalloutView != null) {
             map.offscreenAnnotationViewContainer().removeView(mCalloutView);
         }
+
+        map.getAnnotationBitmapCache().release(mChildBitmapId);
+        map.getAnnotationBitmapCache().release(mCalloutBitmapId);
+        mChildBitmap = null;
+        mChildBitmapId = null;
+        mCalloutBitmap = null;
+        mCalloutBitmapId = null;
     }
 
     @Override
@@ -141,18 +150,40 @@ public class RCTMGLPointAnnotation extends AbstractMapFeature implements View.On
     }
 
     private void refreshBitmap(View v, int left, int top, int right, int bottom) {
-        Bitmap bitmap = BitmapUtils.viewToBitmap(v, left, top, right, bottom);
-        String bitmapId = Integer.toString(v.getId());
-        addBitmapToStyle(bitmap, bitmapId);
+        if (mMapView == null) {
+            return;
+        }
+
+        // annotations rendering the same pixels share one style image
+        AnnotationBitmapCache.Entry entry = mMapView.getAnnotationBitmapCache().acquire(v, left, top, right, bottom);
+        if (entry == null) {
+            return;
+        }
+        if (entry.isNew()) {
+            addBitmapToStyle(entry.getBitmap(), entry.getId());
+        }
+
         if (v instanceof RCTMGLCallout) {
-            mCalloutBitmap = bitmap;
-            mCalloutBitmapId = bitmapId;
-        } else {
-            if (bitmap != null) {
-                mChildBitmap = bitmap;
-                mChildBitmapId = bitmapId;
-                updateOptions();
+            String previousBitmapId = mCalloutBitmapId;
+            mCalloutBitmap = entry.getBitmap();
+            mCalloutBitmapId = entry.getId();
+            if (mCalloutSymbol != null) {
+                mCalloutSymbol.setIconImage(mCalloutBitmapId);
+                mMapView.getSymbolBatch().update(mCalloutSymbol);
             }
+            releaseBitmap(previousBitmapId);
+        } else {
+            String previousBitmapId = mChildBitmapId;
+            mChildBitmap = entry.getBitmap();
+            mChildBitmapId = entry.getId();
+            updateOptions();
+            releaseBitmap(previousBitmapId);
+        }
+    }
+
+    private void releaseBitmap(String bitmapId) {
+        if (mMapView != null) {
+            mMapView.getAnnotationBitmapCache().release(bitmapId);
         }
     }
 
@@ -185,11 +216,11 @@ public class RCTMGLPointAnnotation extends AbstractMapFeature implements View.On
 
         if (mAnnotation != null) {
             mAnnotation.setLatLng(GeoJSONUtils.toLatLng(point));
-            mMapView.getSymbolManager().update(mAnnotation);
+            mMapView.getSymbolBatch().update(mAnnotation);
         }
         if (mCalloutSymbol != null) {
             mCalloutSymbol.setLatLng(GeoJSONUtils.toLatLng(point));
-            mMapView.getSymbolManager().update(mCalloutSymbol);
+            mMapView.getSymbolBatch().update(mCalloutSymbol);
         }
     }
 
@@ -198,7 +229,7 @@ public class RCTMGLPointAnnotation extends AbstractMapFeature implements View.On
 
         if (mAnnotation != null) {
             updateAnchor();
-            mMapView.getSymbolManager().update(mAnnotation);
+            mMapView.getSymbolBatch().update(mAnnotation);
         }
     }
 
@@ -206,7 +237,7 @@ public class RCTMGLPointAnnotation extends AbstractMapFeature implements View.On
         mDraggable = draggable;
         if (mAnnotation != null) {
             mAnnotation.setDraggable(draggable);
-            mMapView.getSymbolManager().update(mAnnotation);
+            mMapView.getSymbolBatch().update(mAnnotation);
         }
     }
 
@@ -226,7 +257,8 @@ public class RCTMGLPointAnnotation extends AbstractMapFeature implements View.On
     public void onDeselect() {
         mManager.handleEvent(makeEvent(false));
         if (mCalloutSymbol != null) {
-            mMapView.getSymbolManager().delete(mCalloutSymbol);
+            mMapView.getSymbolBatch().delete(mCalloutSymbol);
+            mCalloutSymbol = null;
         }
     }
 
@@ -249,23 +281,34 @@ public class RCTMGLPointAnnotation extends AbstractMapFeature implements View.On
     }
 
     public void makeMarker() {
-        SymbolOptions options = new SymbolOptions()
-            .withLatLng(GeoJSONUtils.toLatLng(mCoordinate))
-            .withDraggable(mDraggable)
-            .withIconSize(1.0f)
-            .withSymbolSortKey(10.0f);
-        SymbolManager symbolManager = mMapView.getSymbolManager();
-        if (symbolManager != null) {
-            mAnnotation = symbolManager.create(options);
-            updateOptions();
+        if (mMapView.getSymbolManager() != null) {
+            mMapView.getSymbolBatch().create(mPendingMarker);
         }
     }
 
+    private final SymbolBatch.PendingSymbol mPendingMarker = new SymbolBatch.PendingSymbol() {
+        @Override
+        public SymbolOptions getSymbolOptions() {
+            return new SymbolOptions()
+                .withLatLng(GeoJSONUtils.toLatLng(mCoordinate))
+                .withDraggable(mDraggable)
+                .withIconSize(1.0f)
+                .withSymbolSortKey(10.0f);
+        }
+
+        @Override
+        public void onSymbolCreated(Symbol symbol) {
+            mAnnotation = symbol;
+            mMapView.pointAnnotationMarkerAdded(RCTMGLPointAnnotation.this);
+            updateOptions();
+        }
+    };
+
     private void updateOptions() {
         if (mAnnotation != null) {
             updateIconImage();
             updateAnchor();
-            mMapView.getSymbolManager().update(mAnnotation);
+            mMapView.getSymbolBatch().update(mAnnotation);
         }
     }
 
@@ -321,7 +364,9 @@ public class RCTMGLPointAnnotation extends AbstractMapFeature implements View.On
             mMap.getStyle(new Style.OnStyleLoaded() {
                 @Override
                 public void onStyleLoaded(@NonNull Style style) {
-                    style.addImage(bitmapId, bitmap);
+                    if (mMapView != null) {
+                        mMapView.getSymbolBatch().addImage(bitmapId, bitmap);
+                    }
                 }
             });
         }
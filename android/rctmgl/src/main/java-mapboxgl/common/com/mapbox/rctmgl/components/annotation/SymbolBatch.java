@@ -0,0 +1,159 @@
+package com.mapbox.rctmgl.components.annotation;
+
+import android.graphics.Bitmap;
+import android.view.Choreographer;
+
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+import com.mapbox.mapboxsdk.maps.Style;
+import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolManager;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
+import com.mapbox.rctmgl.components.mapview.RCTMGLMapView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Commits symbol changes of point annotations to the symbol manager once per frame.
+ *
+ * Every create, update or delete call of the symbol manager regenerates its whole GeoJSON source,
+ * so mounting or moving many annotations one call at a time gets slower with every annotation.
+ * Within a frame the batch makes at most one delete, one create and one update call.
+ *
+ * Style images of annotations are added with one addImages call per frame too, ahead of the
+ * symbols using them.
+ */
+public class SymbolBatch {
+    /**
+     * A symbol waiting to be created. Its options are read when the batch is committed, so they
+     * reflect changes made to the annotation in the meantime.
+     */
+    public interface PendingSymbol {
+        SymbolOptions getSymbolOptions();
+
+        void onSymbolCreated(Symbol symbol);
+    }
+
+    private final RCTMGLMapView mMapView;
+
+    private final LinkedHashSet<PendingSymbol> mPendingCreates = new LinkedHashSet<>();
+    private final LinkedHashMap<Long, Symbol> mPendingUpdates = new LinkedHashMap<>();
+    private final LinkedHashMap<Long, Symbol> mPendingDeletes = new LinkedHashMap<>();
+    private final HashMap<String, Bitmap> mPendingImages = new HashMap<>();
+
+    private boolean mFrameScheduled;
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mFrameScheduled = false;
+            commit();
+        }
+    };
+
+    public SymbolBatch(RCTMGLMapView mapView) {
+        mMapView = mapView;
+    }
+
+    public void create(PendingSymbol pendingSymbol) {
+        mPendingCreates.add(pendingSymbol);
+        scheduleCommit();
+    }
+
+    public void cancel(PendingSymbol pendingSymbol) {
+        mPendingCreates.remove(pendingSymbol);
+    }
+
+    public void update(Symbol symbol) {
+        if (mPendingDeletes.containsKey(symbol.getId())) {
+            return;
+        }
+        mPendingUpdates.put(symbol.getId(), symbol);
+        scheduleCommit();
+    }
+
+    public void delete(Symbol symbol) {
+        mPendingUpdates.remove(symbol.getId());
+        mPendingDeletes.put(symbol.getId(), symbol);
+        scheduleCommit();
+    }
+
+    public void addImage(String imageId, Bitmap bitmap) {
+        mPendingImages.put(imageId, bitmap);
+        scheduleCommit();
+    }
+
+    /**
+     * Drops an image that wasn't added to the style yet, its bitmap may be reused afterwards.
+     */
+    public void removeImage(String imageId) {
+        mPendingImages.remove(imageId);
+    }
+
+    public void clear() {
+        mPendingImages.clear();
+        mPendingCreates.clear();
+        mPendingUpdates.clear();
+        mPendingDeletes.clear();
+
+        if (mFrameScheduled) {
+            Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+            mFrameScheduled = false;
+        }
+    }
+
+    public void commit() {
+        if (!mPendingImages.isEmpty()) {
+            MapboxMap map = mMapView.getMapboxMap();
+            Style style = map != null ? map.getStyle() : null;
+            if (style != null) {
+                style.addImages(new HashMap<>(mPendingImages));
+                mPendingImages.clear();
+            }
+        }
+
+        SymbolManager symbolManager = mMapView.getSymbolManager();
+        if (symbolManager == null) {
+            return;
+        }
+
+        if (!mPendingDeletes.isEmpty()) {
+            List<Symbol> symbols = new ArrayList<>(mPendingDeletes.values());
+            mPendingDeletes.clear();
+            symbolManager.delete(symbols);
+        }
+
+        if (!mPendingCreates.isEmpty()) {
+            List<PendingSymbol> pendingSymbols = new ArrayList<>(mPendingCreates);
+            mPendingCreates.clear();
+
+            List<SymbolOptions> options = new ArrayList<>(pendingSymbols.size());
+            for (PendingSymbol pendingSymbol : pendingSymbols) {
+                options.add(pendingSymbol.getSymbolOptions());
+            }
+
+            // created symbols usually get their icon through an update, which is committed below
+            List<Symbol> symbols = symbolManager.create(options);
+            for (int i = 0; i < symbols.size(); i++) {
+                pendingSymbols.get(i).onSymbolCreated(symbols.get(i));
+            }
+        }
+
+        if (!mPendingUpdates.isEmpty()) {
+            List<Symbol> symbols = new ArrayList<>(mPendingUpdates.values());
+            mPendingUpdates.clear();
+            symbolManager.update(symbols);
+        }
+    }
+
+    private void scheduleCommit() {
+        if (mFrameScheduled) {
+            return;
+        }
+        mFrameScheduled = true;
+        Choreographer.getInstance().postFrameCallback(mFrameCallback);
+    }
+}
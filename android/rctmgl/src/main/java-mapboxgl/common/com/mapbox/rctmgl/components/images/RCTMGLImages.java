@@ -15,20 +15,35 @@ import com.mapbox.rctmgl.R;
 import com.mapbox.rctmgl.components.AbstractMapFeature;
 import com.mapbox.rctmgl.components.mapview.RCTMGLMapView;
 import com.mapbox.rctmgl.events.ImageMissingEvent;
-import com.mapbox.rctmgl.utils.DownloadMapImageTask;
 import com.mapbox.rctmgl.utils.ImageEntry;
+import com.mapbox.rctmgl.utils.MapImageLoader;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 public class RCTMGLImages extends AbstractMapFeature {
+    /**
+     * Images to load ahead of the renderer asking for them, once the map is zoomed in to minZoom.
+     */
+    public static class PrefetchHint {
+        final double minZoom;
+        final List<String> images;
+
+        public PrefetchHint(double minZoom, List<String> images) {
+            this.minZoom = minZoom;
+            this.images = images;
+        }
+    }
+
     private static Bitmap mImagePlaceholder;
     Set<String> mCurrentImages;
     private Map<String, ImageEntry> mImages;
@@ -37,6 +52,13 @@ public class RCTMGLImages extends AbstractMapFeature {
     private boolean mSendMissingImageEvents = false;
     private MapboxMap mMap;
 
+    // in lazy mode images are only loaded once the renderer asks for them, or a prefetch hint
+    // applies, and the least recently requested ones are removed from the style beyond maxImages
+    private boolean mLazy = false;
+    private int mMaxImages = 0;
+    private List<PrefetchHint> mPrefetchHints = new ArrayList<>();
+    private final LinkedHashMap<String, ImageEntry> mLazyImages = new LinkedHashMap<>(16, 0.75f, true);
+
     protected String mID;
 
     public String getID() {
@@ -68,7 +90,7 @@ public class RCTMGLImages extends AbstractMapFeature {
                 newImages.put(key, value);
             }
         }
-        if (mMap != null && mMap.getStyle() != null) {
+        if (!mLazy && mMap != null && mMap.getStyle() != null) {
             addImagesToStyle(newImages, mMap);
         }
     }
@@ -92,6 +114,31 @@ public class RCTMGLImages extends AbstractMapFeature {
         mSendMissingImageEvents = value;
     }
 
+    public void setLazy(boolean lazy) {
+        if (mLazy == lazy) {
+            return;
+        }
+        mLazy = lazy;
+        mLazyImages.clear();
+        if (!mLazy && mMap != null && mMap.getStyle() != null) {
+            addImagesToStyle(mImages, mMap);
+        }
+    }
+
+    public void setMaxImages(int maxImages) {
+        mMaxImages = maxImages;
+        if (mMap != null && mMap.getStyle() != null) {
+            evictLazyImages(mMap.getStyle());
+        }
+    }
+
+    public void setPrefetchHints(List<PrefetchHint> prefetchHints) {
+        mPrefetchHints = prefetchHints;
+        if (mMap != null) {
+            prefetchImages(mMap.getCameraPosition().zoom);
+        }
+    }
+
     @Override
     public void removeFromMap(RCTMGLMapView mapView) {
         removeImages(mapView);
@@ -99,6 +146,7 @@ public class RCTMGLImages extends AbstractMapFeature {
         mNativeImages = new HashMap<>();
         mImages = new HashMap<>();
         mCurrentImages = new HashSet<>();
+        mLazyImages.clear();
     }
 
     private void removeImages(RCTMGLMapView mapView) {
@@ -143,7 +191,11 @@ public class RCTMGLImages extends AbstractMapFeature {
         if (mImages != null) {
             ImageEntry entry = mImages.get(id);
             if (entry != null) {
-                addRemoteImages(RCTMGLImages.entry(id, entry), map);
+                if (mLazy) {
+                    addLazyImages(RCTMGLImages.entry(id, entry), map);
+                } else {
+                    addRemoteImages(RCTMGLImages.entry(id, entry), map);
+                }
                 return true;
             }
         }
@@ -163,6 +215,32 @@ public class RCTMGLImages extends AbstractMapFeature {
         }
     }
 
+    /**
+     * Loads the images of the prefetch hints applying at the zoom level, called when the camera
+     * comes to rest.
+     */
+    public void prefetchImages(double zoom) {
+        if (!mLazy || mMap == null || mPrefetchHints.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<String, ImageEntry>> images = new ArrayList<>();
+        for (PrefetchHint hint : mPrefetchHints) {
+            if (zoom < hint.minZoom) {
+                continue;
+            }
+            for (String id : hint.images) {
+                ImageEntry entry = mImages.get(id);
+                if (entry != null && !mLazyImages.containsKey(id)) {
+                    images.add(new AbstractMap.SimpleEntry<>(id, entry));
+                }
+            }
+        }
+        if (!images.isEmpty()) {
+            addLazyImages(images, mMap);
+        }
+    }
+
     public void sendImageMissingEvent(@NonNull String id, @NonNull MapboxMap map) {
         if (mSendMissingImageEvents) {
             mManager.handleEvent(ImageMissingEvent.makeImageMissingEvent(this, id));
@@ -185,7 +263,11 @@ public class RCTMGLImages extends AbstractMapFeature {
                 MapboxMap map = mapView.getMapboxMap();
                 mMap = map;
                 addNativeImagesToStyle(mNativeImages, map);
-                addImagesToStyle(mImages, map);
+                if (mLazy) {
+                    prefetchImages(map.getCameraPosition().zoom);
+                } else {
+                    addImagesToStyle(mImages, map);
+                }
                 // super.addToMap(mapView);
             }
         });
@@ -195,12 +277,21 @@ public class RCTMGLImages extends AbstractMapFeature {
         Style style = map.getStyle();
         if (style == null || imageEntries == null) return;
 
+        HashMap<String, Bitmap> bitmaps = new HashMap<>();
         for (Map.Entry<String, BitmapDrawable> imageEntry : imageEntries) {
             if (!hasImage(imageEntry.getKey(), map)) {
-                style.addImage(imageEntry.getKey(), imageEntry.getValue());
+                bitmaps.put(imageEntry.getKey(), imageEntry.getValue().getBitmap());
                 mCurrentImages.add(imageEntry.getKey());
             }
         }
+        addImages(style, bitmaps);
+    }
+
+    // one addImages call for all images of a batch, instead of one style change per image
+    private static void addImages(@NonNull Style style, HashMap<String, Bitmap> bitmaps) {
+        if (!bitmaps.isEmpty()) {
+            style.addImages(bitmaps);
+        }
     }
 
     private void addRemoteImages(@Nullable List<Map.Entry<String, ImageEntry>> imageEntries, @NonNull MapboxMap map) {
@@ -216,19 +307,65 @@ public class RCTMGLImages extends AbstractMapFeature {
         // them in a similar way.
         //
         // See also: https://github.com/mapbox/mapbox-gl-native/pull/14253#issuecomment-478827792
+        HashMap<String, Bitmap> placeholders = new HashMap<>();
+        for (Map.Entry<String, ImageEntry> imageEntry : imageEntries) {
+            if (!hasImage(imageEntry.getKey(), map)) {
+                placeholders.put(imageEntry.getKey(), mImagePlaceholder);
+                missingImages.add(imageEntry);
+                mCurrentImages.add(imageEntry.getKey());
+            }
+        }
+        addImages(style, placeholders);
+
+        if (missingImages.size() > 0) {
+            MapImageLoader.load(getContext(), map, missingImages, null);
+        }
+    }
+
+    private void addLazyImages(List<Map.Entry<String, ImageEntry>> imageEntries, @NonNull final MapboxMap map) {
+        Style style = map.getStyle();
+        if (style == null) return;
+
+        final List<Map.Entry<String, ImageEntry>> missingImages = new ArrayList<>();
+        HashMap<String, Bitmap> placeholders = new HashMap<>();
         for (Map.Entry<String, ImageEntry> imageEntry : imageEntries) {
+            // put marks the image as the most recently requested one
+            mLazyImages.put(imageEntry.getKey(), imageEntry.getValue());
             if (!hasImage(imageEntry.getKey(), map)) {
-                style.addImage(imageEntry.getKey(), mImagePlaceholder);
+                placeholders.put(imageEntry.getKey(), mImagePlaceholder);
                 missingImages.add(imageEntry);
                 mCurrentImages.add(imageEntry.getKey());
             }
         }
+        addImages(style, placeholders);
+        evictLazyImages(style);
 
         if (missingImages.size() > 0) {
-            DownloadMapImageTask task = new DownloadMapImageTask(getContext(), map, null);
-            Map.Entry[] params = missingImages.toArray(new Map.Entry[missingImages.size()]);
-            //noinspection unchecked
-            task.execute(params);
+            MapImageLoader.load(getContext(), map, missingImages, new MapImageLoader.OnAllImagesLoaded() {
+                @Override
+                public void onAllImagesLoaded() {
+                    // images evicted while they were loading got added nonetheless
+                    Style style = map.getStyle();
+                    if (!mLazy || style == null) return;
+                    for (Map.Entry<String, ImageEntry> imageEntry : missingImages) {
+                        if (!mLazyImages.containsKey(imageEntry.getKey())) {
+                            style.removeImage(imageEntry.getKey());
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    private void evictLazyImages(@NonNull Style style) {
+        if (!mLazy || mMaxImages <= 0) return;
+
+        Iterator<String> ids = mLazyImages.keySet().iterator();
+        while (mLazyImages.size() > mMaxImages && ids.hasNext()) {
+            String id = ids.next();
+            ids.remove();
+            style.removeImage(id);
+            mCurrentImages.remove(id);
         }
     }
 }
@@ -11,7 +11,9 @@ import androidx.annotation.NonNull;
 import androidx.annotation.UiThread;
 
 import android.util.DisplayMetrics;
+import android.util.LongSparseArray;
 import android.util.Pair;
+import android.view.Choreographer;
 import android.view.Gravity;
 import android.view.MotionEvent;
 import android.view.View;
@@ -23,6 +25,7 @@ import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.WritableNativeArray;
@@ -33,12 +36,14 @@ import com.mapbox.geojson.FeatureCollection;
 import com.mapbox.mapboxsdk.camera.CameraPosition;
 import com.mapbox.mapboxsdk.camera.CameraUpdate;
 import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
 import com.mapbox.mapboxsdk.geometry.VisibleRegion;
 import com.mapbox.mapboxsdk.maps.AttributionDialogManager;
 import com.mapbox.mapboxsdk.maps.MapView;
 import com.mapbox.mapboxsdk.maps.MapboxMap;
 import com.mapbox.mapboxsdk.maps.MapboxMapOptions;
 import com.mapbox.mapboxsdk.maps.OnMapReadyCallback;
+import com.mapbox.mapboxsdk.maps.Projection;
 import com.mapbox.mapboxsdk.maps.Style;
 import com.mapbox.mapboxsdk.maps.UiSettings;
 import com.mapbox.mapboxsdk.plugins.localization.LocalizationPlugin;
@@ -51,7 +56,9 @@ import com.mapbox.mapboxsdk.style.layers.Layer;
 import com.mapbox.mapboxsdk.style.layers.Property;
 import com.mapbox.rctmgl.R;
 import com.mapbox.rctmgl.components.AbstractMapFeature;
+import com.mapbox.rctmgl.components.annotation.AnnotationBitmapCache;
 import com.mapbox.rctmgl.components.annotation.RCTMGLPointAnnotation;
+import com.mapbox.rctmgl.components.annotation.SymbolBatch;
 import com.mapbox.rctmgl.components.annotation.RCTMGLMarkerView;
 import com.mapbox.rctmgl.components.annotation.MarkerView;
 import com.mapbox.rctmgl.components.annotation.MarkerViewManager;
@@ -60,6 +67,7 @@ import com.mapbox.rctmgl.components.images.RCTMGLImages;
 import com.mapbox.rctmgl.components.location.LocationComponentManager;
 import com.mapbox.rctmgl.components.location.RCTMGLNativeUserLocation;
 import com.mapbox.rctmgl.components.mapview.helpers.CameraChangeTracker;
+import com.mapbox.rctmgl.components.mapview.helpers.MapChangeEventPolicy;
 import com.mapbox.rctmgl.components.styles.layers.RCTLayer;
 import com.mapbox.rctmgl.components.styles.light.RCTMGLLight;
 import com.mapbox.rctmgl.components.styles.sources.RCTMGLShapeSource;
@@ -68,15 +76,20 @@ import com.mapbox.rctmgl.events.AndroidCallbackEvent;
 import com.mapbox.rctmgl.events.IEvent;
 import com.mapbox.rctmgl.events.MapChangeEvent;
 import com.mapbox.rctmgl.events.MapClickEvent;
+import com.mapbox.rctmgl.events.RegionChangeEvent;
 import com.mapbox.rctmgl.events.constants.EventTypes;
 import com.mapbox.rctmgl.utils.BitmapUtils;
+import com.mapbox.rctmgl.utils.ConvertUtils;
 import com.mapbox.rctmgl.utils.GeoJSONUtils;
 import com.mapbox.rctmgl.utils.GeoViewport;
+import com.mapbox.rctmgl.utils.ReadableStructure;
 
 import com.mapbox.rctmgl.impl.SymbolClickListenerImpl;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -112,6 +125,8 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
     private List<AbstractMapFeature> mFeatures;
     private List<AbstractMapFeature> mQueuedFeatures;
     private Map<String, RCTMGLPointAnnotation> mPointAnnotations;
+    // point annotations by the id of their symbol, for resolving taps and drags on symbols
+    private LongSparseArray<RCTMGLPointAnnotation> mPointAnnotationsByMarkerID = new LongSparseArray<>();
     private Map<String, RCTSource> mSources;
     private List<RCTMGLImages> mImages;
 
@@ -141,6 +156,17 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
     private Boolean mZoomEnabled;
 
     private SymbolManager symbolManager;
+    private SymbolBatch mSymbolBatch = new SymbolBatch(this);
+    private AnnotationBitmapCache mAnnotationBitmapCache = new AnnotationBitmapCache(new AnnotationBitmapCache.OnImageEvictedListener() {
+        @Override
+        public void onImageEvicted(String imageId) {
+            mSymbolBatch.removeImage(imageId);
+            Style style = mMap != null ? mMap.getStyle() : null;
+            if (style != null) {
+                style.removeImage(imageId);
+            }
+        }
+    });
 
     private long mActiveMarkerID = -1;
 
@@ -148,9 +174,32 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
 
     private HashSet<String> mHandledMapChangedEvents = null;
 
+    private @Nullable ReadableMap mMapChangeEventPolicyConfig;
+    private Map<String, MapChangeEventPolicy> mMapChangeEventPolicies = new HashMap<>();
+    private final MapChangeEventPolicy.Emitter mMapChangeEventEmitter = new MapChangeEventPolicy.Emitter() {
+        @Override
+        public void emit(String eventType) {
+            emitMapChangedEvent(eventType);
+        }
+    };
+
+    // coordinates re-projected after camera changes, packed as lng0, lat0, lng1, lat1, ...
+    private @Nullable double[] mProjectedCoordinates = null;
+    private boolean mProjectionScheduled = false;
+    private final Choreographer.FrameCallback mProjectionFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mProjectionScheduled = false;
+            sendProjectedPointsChangeEvent();
+        }
+    };
+
     private MarkerViewManager markerViewManager = null;
     private ViewGroup mOffscreenAnnotationViewContainer = null;
 
+    // index of each style layer, top most layer highest, rebuilt lazily once layers changed
+    private @Nullable Map<String, Integer> mLayerOrder = null;
+
     private boolean mAnnotationClicked = false;
 
     private LocationComponentManager mLocationComponentManager = null;
@@ -310,6 +359,11 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
             layerWaiters.clear();
         }
 
+        setReactMapChangeEventPolicies(null);
+        setReactProjectedCoordinates(null);
+        mSymbolBatch.clear();
+        mAnnotationBitmapCache.clear();
+
         ReactContext reactContext = (ReactContext) mContext;
         reactContext.removeLifecycleEventListener(mLifeCycleListener);
 
@@ -362,29 +416,37 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
             return null;
         }
 
-        for (String key : mPointAnnotations.keySet()) {
-            RCTMGLPointAnnotation annotation = mPointAnnotations.get(key);
-
-            if (annotation != null && annotationID.equals(annotation.getID())) {
-                return annotation;
-            }
+        RCTMGLPointAnnotation annotation = mPointAnnotations.get(annotationID);
+        if (annotation != null && annotationID.equals(annotation.getID())) {
+            return annotation;
         }
 
         return null;
     }
 
     public RCTMGLPointAnnotation getPointAnnotationByMarkerID(long markerID) {
-        for (String key : mPointAnnotations.keySet()) {
-            RCTMGLPointAnnotation annotation = mPointAnnotations.get(key);
-
-            if (annotation != null && markerID == annotation.getMapboxID()) {
-                return annotation;
-            }
+        RCTMGLPointAnnotation annotation = mPointAnnotationsByMarkerID.get(markerID);
+        if (annotation != null && markerID == annotation.getMapboxID()) {
+            return annotation;
         }
 
         return null;
     }
 
+    public void pointAnnotationMarkerAdded(RCTMGLPointAnnotation annotation) {
+        long markerID = annotation.getMapboxID();
+        if (markerID != -1) {
+            mPointAnnotationsByMarkerID.put(markerID, annotation);
+        }
+    }
+
+    public void pointAnnotationMarkerRemoved(RCTMGLPointAnnotation annotation) {
+        long markerID = annotation.getMapboxID();
+        if (mPointAnnotationsByMarkerID.get(markerID) == annotation) {
+            mPointAnnotationsByMarkerID.remove(markerID);
+        }
+    }
+
     public MapboxMap getMapboxMap() {
         return mMap;
     }
@@ -393,6 +455,20 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
         return symbolManager;
     }
 
+    /**
+     * Symbol changes of point annotations, committed to the symbol manager once per frame.
+     */
+    public SymbolBatch getSymbolBatch() {
+        return mSymbolBatch;
+    }
+
+    /**
+     * Style images of rendered point annotation views, shared between annotations by content.
+     */
+    public AnnotationBitmapCache getAnnotationBitmapCache() {
+        return mAnnotationBitmapCache;
+    }
+
     public interface FoundLayerCallback {
         public void found(Layer layer);
     }
@@ -400,6 +476,7 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
     private Map<String, List<FoundLayerCallback>> layerWaiters = new HashMap<String, List<FoundLayerCallback>>();
 
     public void layerAdded(Layer layer) {
+        invalidateLayerOrder();
         String layerId = layer.getId();
 
         List<FoundLayerCallback> callbacks = layerWaiters.get(layerId);
@@ -411,6 +488,10 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
         layerWaiters.remove(layerId);
     }
 
+    public void layerRemoved(Layer layer) {
+        invalidateLayerOrder();
+    }
+
     public void waitForLayer(String layerID, FoundLayerCallback callback) {
         Layer layer = mMap.getStyle().getLayer(layerID);
         if (layer != null) {
@@ -451,6 +532,7 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
         mMap.getStyle(new Style.OnStyleLoaded() {
             @Override
             public void onStyleLoaded(@NonNull Style style) {
+                invalidateLayerOrder();
                 createSymbolManager(style);
                 setUpImage(style);
                 addQueuedFeatures();
@@ -461,10 +543,19 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
         updatePreferredFramesPerSecond();
         updateInsets();
         updateUISettings();
+        scheduleProjectedPointsUpdate();
 
         mMap.addOnCameraIdleListener(new MapboxMap.OnCameraIdleListener() {
             @Override
             public void onCameraIdle() {
+                if (markerViewManager != null) {
+                    markerViewManager.updateMarkers();
+                }
+                double zoom = mMap.getCameraPosition().zoom;
+                for (RCTMGLImages images : mImages) {
+                    images.prefetchImages(zoom);
+                }
+                scheduleProjectedPointsUpdate();
                 sendRegionDidChangeEvent();
             }
         });
@@ -483,6 +574,7 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
                 if (markerViewManager != null) {
                     markerViewManager.updateMarkers();
                 }
+                scheduleProjectedPointsUpdate();
             }
         });
 
@@ -517,6 +609,7 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
 
     public void createSymbolManager(Style style) {
         symbolManager = new SymbolManager(this, mMap, style);
+        mPointAnnotationsByMarkerID.clear();
         symbolManager.setIconAllowOverlap(true);
         symbolManager.addClickListener(
             SymbolClickListenerImpl.annotationClickListener(new SymbolClickListenerImpl.Listener() {
@@ -603,6 +696,13 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
             super.onLayout(changed, left, top, right, bottom);
             if (markerViewManager != null) {
                 markerViewManager.restoreViews();
+                if (changed) {
+                    // the viewport changed, markers may have come into or gone out of it
+                    markerViewManager.updateMarkers();
+                }
+            }
+            if (changed) {
+                scheduleProjectedPointsUpdate();
             }
         }
     }
@@ -615,39 +715,58 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
         }
 
         PointF screenPoint = mMap.getProjection().toScreenLocation(point);
-        List<RCTSource> touchableSources = getAllTouchableSources();
-
-        Map<String, List<Feature>> hits = new HashMap<>();
-        List<RCTSource> hitTouchableSources = new ArrayList<>();
+        List<RCTSource> touchableSources = getTouchableSourcesByZIndex();
+
+        // a single query over all touchable layers with the largest hitbox tells whether any
+        // source was hit at all, which is the common case for taps on the map
+        List<String> touchableLayerIDs = new ArrayList<>();
+        float maxWidth = 0;
+        float maxHeight = 0;
+        boolean sameHitboxes = true;
         for (RCTSource touchableSource : touchableSources) {
             Map<String, Double> hitbox = touchableSource.getTouchHitbox();
-            if (hitbox == null) {
-                continue;
-            }
-
-            float halfWidth = hitbox.get("width").floatValue() / 2.0f;
-            float halfHeight = hitbox.get("height").floatValue() / 2.0f;
-
-            RectF hitboxF = new RectF();
-            hitboxF.set(screenPoint.x - halfWidth, screenPoint.y - halfHeight, screenPoint.x + halfWidth,
-                    screenPoint.y + halfHeight);
-
-            List<Feature> features = mMap.queryRenderedFeatures(hitboxF, touchableSource.getLayerIDs());
-            if (features.size() > 0) {
-                hits.put(touchableSource.getID(), features);
-                hitTouchableSources.add(touchableSource);
+            float width = hitbox.get("width").floatValue();
+            float height = hitbox.get("height").floatValue();
+            if (touchableSource != touchableSources.get(0) && (width != maxWidth || height != maxHeight)) {
+                sameHitboxes = false;
             }
-        }
+            maxWidth = Math.max(maxWidth, width);
+            maxHeight = Math.max(maxHeight, height);
+            touchableLayerIDs.addAll(Arrays.asList(touchableSource.getLayerIDs()));
+        }
+
+        List<Feature> anyFeatures = touchableLayerIDs.isEmpty() ? Collections.<Feature>emptyList() :
+                mMap.queryRenderedFeatures(getHitbox(screenPoint, maxWidth, maxHeight),
+                        touchableLayerIDs.toArray(new String[touchableLayerIDs.size()]));
+
+        if (anyFeatures.size() > 0) {
+            // features carry neither their layer nor their source here, so sources are queried top
+            // most first until one is hit. With a single hitbox for all sources, once every source
+            // above the last one missed, the union query holds exactly the features of the last one
+            for (int i = 0, size = touchableSources.size(); i < size; i++) {
+                RCTSource touchableSource = touchableSources.get(i);
+
+                List<Feature> features;
+                if (i == size - 1 && sameHitboxes) {
+                    features = anyFeatures;
+                } else {
+                    Map<String, Double> hitbox = touchableSource.getTouchHitbox();
+                    features = mMap.queryRenderedFeatures(
+                            getHitbox(screenPoint, hitbox.get("width").floatValue(), hitbox.get("height").floatValue()),
+                            touchableSource.getLayerIDs());
+                }
 
-        if (hits.size() > 0) {
-            RCTSource source = getTouchableSourceWithHighestZIndex(hitTouchableSources);
-            if (source != null && source.hasPressListener()) {
-                source.onPress(new RCTSource.OnPressEvent(
-                        hits.get(source.getID()),
-                        point,
-                        screenPoint
-                        ));
-                return true;
+                if (features.size() > 0) {
+                    if (touchableSource.hasPressListener()) {
+                        touchableSource.onPress(new RCTSource.OnPressEvent(
+                                features,
+                                point,
+                                screenPoint
+                                ));
+                        return true;
+                    }
+                    break;
+                }
             }
         }
 
@@ -672,18 +791,10 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
         mAnnotationClicked = true;
         final long selectedMarkerID = symbol.getId();
 
-        RCTMGLPointAnnotation activeAnnotation = null;
+        RCTMGLPointAnnotation activeAnnotation = getPointAnnotationByMarkerID(mActiveMarkerID);
         RCTMGLPointAnnotation nextActiveAnnotation = null;
-
-        for (String key : mPointAnnotations.keySet()) {
-            RCTMGLPointAnnotation annotation = mPointAnnotations.get(key);
-            final long curMarkerID = annotation.getMapboxID();
-            if (mActiveMarkerID == curMarkerID) {
-                activeAnnotation = annotation;
-            }
-            if (selectedMarkerID == curMarkerID && mActiveMarkerID != curMarkerID) {
-                nextActiveAnnotation = annotation;
-            }
+        if (selectedMarkerID != mActiveMarkerID) {
+            nextActiveAnnotation = getPointAnnotationByMarkerID(selectedMarkerID);
         }
 
         if (activeAnnotation != null) {
@@ -792,6 +903,8 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
                 mMap.setStyle(new Style.Builder().fromJson(mStyleURL), new Style.OnStyleLoaded() {
                     @Override
                     public void onStyleLoaded(@NonNull Style style) {
+                        invalidateLayerOrder();
+                        mAnnotationBitmapCache.clear();
                         addAllSourcesToMap();
                     }
                 });
@@ -799,6 +912,8 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
                 mMap.setStyle(styleURL, new Style.OnStyleLoaded() {
                     @Override
                     public void onStyleLoaded(@NonNull Style style) {
+                        invalidateLayerOrder();
+                        mAnnotationBitmapCache.clear();
                         addAllSourcesToMap();
                     }
                 });
@@ -811,6 +926,42 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
         updatePreferredFramesPerSecond();
     }
 
+    public void setReactMapChangeEventPolicies(@Nullable ReadableMap policies) {
+        // JS sends a new object on every render, keep the throttling state if nothing changed
+        if (policies != null && mMapChangeEventPolicyConfig != null
+                && ReadableStructure.equal(policies, mMapChangeEventPolicyConfig)) {
+            return;
+        }
+        mMapChangeEventPolicyConfig = policies;
+
+        for (MapChangeEventPolicy policy : mMapChangeEventPolicies.values()) {
+            policy.cancel();
+        }
+        mMapChangeEventPolicies.clear();
+
+        if (policies == null) {
+            return;
+        }
+
+        ReadableMapKeySetIterator iterator = policies.keySetIterator();
+        while (iterator.hasNextKey()) {
+            String eventType = iterator.nextKey();
+            ReadableMap config = policies.getMap(eventType);
+            if (config != null) {
+                mMapChangeEventPolicies.put(eventType, new MapChangeEventPolicy(eventType, config, mMapChangeEventEmitter));
+            }
+        }
+    }
+
+    public void setReactProjectedCoordinates(@Nullable ReadableArray coordinates) {
+        mProjectedCoordinates = coordinates != null ? ConvertUtils.toDoubleArray(coordinates) : null;
+        if (mProjectedCoordinates == null && mProjectionScheduled) {
+            Choreographer.getInstance().removeFrameCallback(mProjectionFrameCallback);
+            mProjectionScheduled = false;
+        }
+        scheduleProjectedPointsUpdate();
+    }
+
     public void setReactContentInset(ReadableArray array) {
         mInsets = array;
         updateInsets();
@@ -1011,6 +1162,81 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
         mManager.handleEvent(event);
     }
 
+    /**
+     * Converts coordinates packed as lng0, lat0, lng1, lat1, ... to points in the view, packed as
+     * x0, y0, x1, y1, ..., in one call.
+     */
+    public void getPointsInView(String callbackID, double[] coordinates) {
+        WritableMap payload = new WritableNativeMap();
+        payload.putArray("pointsInView", projectCoordinates(coordinates));
+
+        AndroidCallbackEvent event = new AndroidCallbackEvent(this, callbackID, payload);
+        mManager.handleEvent(event);
+    }
+
+    /**
+     * Converts points in the view packed as x0, y0, x1, y1, ... to coordinates, packed as
+     * lng0, lat0, lng1, lat1, ..., in one call.
+     */
+    public void getCoordinatesFromView(String callbackID, double[] points) {
+        Projection projection = mMap.getProjection();
+        float density = getDisplayDensity();
+        PointF pointInView = new PointF();
+
+        WritableArray array = new WritableNativeArray();
+        for (int i = 0; i + 1 < points.length; i += 2) {
+            pointInView.set((float) (points[i] * density), (float) (points[i + 1] * density));
+            LatLng mapCoordinate = projection.fromScreenLocation(pointInView);
+            array.pushDouble(mapCoordinate.getLongitude());
+            array.pushDouble(mapCoordinate.getLatitude());
+        }
+
+        WritableMap payload = new WritableNativeMap();
+        payload.putArray("coordinatesFromView", array);
+
+        AndroidCallbackEvent event = new AndroidCallbackEvent(this, callbackID, payload);
+        mManager.handleEvent(event);
+    }
+
+    private WritableArray projectCoordinates(double[] coordinates) {
+        Projection projection = mMap.getProjection();
+        float density = getDisplayDensity();
+        LatLng mapCoordinate = new LatLng();
+
+        WritableArray array = new WritableNativeArray();
+        for (int i = 0; i + 1 < coordinates.length; i += 2) {
+            mapCoordinate.setLongitude(coordinates[i]);
+            mapCoordinate.setLatitude(coordinates[i + 1]);
+            PointF pointInView = projection.toScreenLocation(mapCoordinate);
+            array.pushDouble(pointInView.x / density);
+            array.pushDouble(pointInView.y / density);
+        }
+        return array;
+    }
+
+    /**
+     * Re-projects the subscribed coordinates once per frame, however many camera changes there
+     * were since the last one.
+     */
+    private void scheduleProjectedPointsUpdate() {
+        if (mProjectionScheduled || mProjectedCoordinates == null || mMap == null
+                || !canHandleEvent(EventTypes.PROJECTED_POINTS_CHANGE)) {
+            return;
+        }
+        mProjectionScheduled = true;
+        Choreographer.getInstance().postFrameCallback(mProjectionFrameCallback);
+    }
+
+    private void sendProjectedPointsChangeEvent() {
+        if (mDestroyed || mMap == null || mProjectedCoordinates == null) {
+            return;
+        }
+
+        WritableMap payload = new WritableNativeMap();
+        payload.putArray("points", projectCoordinates(mProjectedCoordinates));
+        mManager.handleEvent(new MapChangeEvent(this, EventTypes.PROJECTED_POINTS_CHANGE, payload));
+    }
+
     public void takeSnap(final String callbackID, final boolean writeToDisk) {
 
         if (mMap == null) {
@@ -1287,35 +1513,43 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
         reactContext.addLifecycleEventListener(mLifeCycleListener);
     }
 
-    private WritableMap makeRegionPayload(Boolean isAnimated) {
+    private IEvent makeRegionEvent(String eventType, @Nullable Boolean isAnimated) {
         CameraPosition position = mMap.getCameraPosition();
         if(position == null || position.target == null) {
-            return new WritableNativeMap();
-        }
-        LatLng latLng = new LatLng(position.target.getLatitude(), position.target.getLongitude());
-
-        WritableMap properties = new WritableNativeMap();
-
-        properties.putDouble("zoomLevel", position.zoom);
-        properties.putDouble("heading", position.bearing);
-        properties.putDouble("pitch", position.tilt);
-        properties.putBoolean("animated",
-                (null == isAnimated) ? mCameraChangeTracker.isAnimated() : isAnimated.booleanValue());
-        properties.putBoolean("isUserInteraction", mCameraChangeTracker.isUserInteraction());
-
-        try {
-            VisibleRegion visibleRegion = mMap.getProjection().getVisibleRegion();
-            properties.putArray("visibleBounds", GeoJSONUtils.fromLatLngBounds(visibleRegion.latLngBounds));
-        } catch(Exception ex) {
-            Logger.e(LOG_TAG, String.format("An error occurred while attempting to make the region: %s", ex.getMessage()));
+            return new MapChangeEvent(this, eventType, new WritableNativeMap());
+        }
+
+        // the payload, visible bounds included, is only built if the event is actually sent
+        return new RegionChangeEvent(this, eventType,
+                position.target.getLatitude(), position.target.getLongitude(),
+                position.zoom, position.bearing, position.tilt,
+                (null == isAnimated) ? mCameraChangeTracker.isAnimated() : isAnimated.booleanValue(),
+                mCameraChangeTracker.isUserInteraction(), mVisibleBoundsResolver);
+    }
+
+    // bounds of the camera of a region event, not of the current one, coalesced events are sent a
+    // frame later. The projection only knows the bounds of the current camera, the ones of an
+    // older camera are computed from its center and zoom
+    private final RegionChangeEvent.VisibleBoundsResolver mVisibleBoundsResolver = new RegionChangeEvent.VisibleBoundsResolver() {
+        @Override
+        public LatLngBounds getVisibleBounds(double latitude, double longitude, double zoomLevel, double heading, double pitch) {
+            try {
+                CameraPosition position = mMap.getCameraPosition();
+                if (position != null && position.target != null
+                        && position.target.getLatitude() == latitude && position.target.getLongitude() == longitude
+                        && position.zoom == zoomLevel && position.bearing == heading && position.tilt == pitch) {
+                    return mMap.getProjection().getVisibleRegion().latLngBounds;
+                }
+                return getVisibleRegion(new LatLng(latitude, longitude), zoomLevel).latLngBounds;
+            } catch(Exception ex) {
+                Logger.e(LOG_TAG, String.format("An error occurred while attempting to make the region: %s", ex.getMessage()));
+                return null;
+            }
         }
-
-        return GeoJSONUtils.toPointFeature(latLng, properties);
-    }
+    };
 
     public void sendRegionChangeEvent(boolean isAnimated) {
-        IEvent event = new MapChangeEvent(this, EventTypes.REGION_DID_CHANGE,
-                makeRegionPayload(new Boolean(isAnimated)));
+        IEvent event = makeRegionEvent(EventTypes.REGION_DID_CHANGE, isAnimated);
 
                 mManager.handleEvent(event);
         mCameraChangeTracker.setReason(CameraChangeTracker.EMPTY);
@@ -1368,35 +1602,79 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
         return shapeSources;
     }
 
-    private RCTSource getTouchableSourceWithHighestZIndex(List<RCTSource> sources) {
-        if (sources == null || sources.size() == 0) {
-            return null;
+    /**
+     * Touchable sources with a hitbox, the source with the top most layer first.
+     */
+    private List<RCTSource> getTouchableSourcesByZIndex() {
+        final Map<String, Integer> topLayerIndex = new HashMap<>();
+        List<RCTSource> sources = new ArrayList<>();
+
+        for (RCTSource source : getAllTouchableSources()) {
+            if (source.getTouchHitbox() == null) {
+                continue;
+            }
+            topLayerIndex.put(source.getID(), getTopLayerIndex(source));
+            sources.add(source);
         }
 
-        if (sources.size() == 1) {
-            return sources.get(0);
+        if (sources.size() > 1) {
+            Collections.sort(sources, new Comparator<RCTSource>() {
+                @Override
+                public int compare(RCTSource a, RCTSource b) {
+                    return Integer.compare(topLayerIndex.get(b.getID()), topLayerIndex.get(a.getID()));
+                }
+            });
         }
 
-        Map<String, RCTSource> layerToSourceMap = new HashMap<>();
-        for (RCTSource source : sources) {
-            String[] layerIDs = source.getLayerIDs();
+        return sources;
+    }
 
-            for (String layerID : layerIDs) {
-                layerToSourceMap.put(layerID, source);
+    private int getTopLayerIndex(RCTSource source) {
+        Map<String, Integer> layerOrder = getLayerOrder();
+        int topIndex = -1;
+
+        for (String layerID : source.getLayerIDs()) {
+            Integer index = layerOrder.get(layerID);
+            if (index != null && index > topIndex) {
+                topIndex = index;
             }
         }
 
-        List<Layer> mapboxLayers = mMap.getStyle().getLayers();
-        for (int i = mapboxLayers.size() - 1; i >= 0; i--) {
-            Layer mapboxLayer = mapboxLayers.get(i);
+        return topIndex;
+    }
+
+    private Map<String, Integer> getLayerOrder() {
+        if (mLayerOrder != null) {
+            return mLayerOrder;
+        }
+
+        Style style = mMap.getStyle();
+        if (style == null) {
+            return Collections.emptyMap();
+        }
 
-            String layerID = mapboxLayer.getId();
-            if (layerToSourceMap.containsKey(layerID)) {
-                return layerToSourceMap.get(layerID);
-            }
+        List<Layer> mapboxLayers = style.getLayers();
+        Map<String, Integer> layerOrder = new HashMap<>(mapboxLayers.size() * 2);
+        for (int i = 0; i < mapboxLayers.size(); i++) {
+            layerOrder.put(mapboxLayers.get(i).getId(), i);
         }
 
-        return null;
+        mLayerOrder = layerOrder;
+        return layerOrder;
+    }
+
+    private void invalidateLayerOrder() {
+        mLayerOrder = null;
+    }
+
+    private static RectF getHitbox(PointF screenPoint, float width, float height) {
+        float halfWidth = width / 2.0f;
+        float halfHeight = height / 2.0f;
+
+        RectF hitboxF = new RectF();
+        hitboxF.set(screenPoint.x - halfWidth, screenPoint.y - halfHeight, screenPoint.x + halfWidth,
+                screenPoint.y + halfHeight);
+        return hitboxF;
     }
 
     private boolean hasSetCenterCoordinate() {
@@ -1420,13 +1698,28 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
         if (!canHandleEvent(eventType))
             return;
 
+        MapChangeEventPolicy policy = mMapChangeEventPolicies.get(eventType);
+        if (policy == null) {
+            emitMapChangedEvent(eventType);
+            return;
+        }
+
+        CameraPosition position = policy.hasCameraThresholds() && mMap != null ? mMap.getCameraPosition() : null;
+        if (position != null && position.target != null) {
+            policy.onEvent(position.target.getLatitude(), position.target.getLongitude(), position.zoom);
+        } else {
+            policy.onEvent(0, 0, 0);
+        }
+    }
+
+    private void emitMapChangedEvent(String eventType) {
         IEvent event;
 
         switch (eventType) {
             case EventTypes.REGION_WILL_CHANGE:
             case EventTypes.REGION_DID_CHANGE:
             case EventTypes.REGION_IS_CHANGING:
-                event = new MapChangeEvent(this, eventType, makeRegionPayload(null));
+                event = makeRegionEvent(eventType, null);
                 break;
             default:
                 event = new MapChangeEvent(this, eventType);
@@ -1441,6 +1734,7 @@ public class RCTMGLMapView extends MapView implements OnMapReadyCallback, Mapbox
 
     public void setHandledMapChangedEvents(ArrayList<String> eventsWhiteList) {
         this.mHandledMapChangedEvents = new HashSet<>(eventsWhiteList);
+        scheduleProjectedPointsUpdate();
     }
 
     private void sendUserLocationUpdateEvent(Location location) {
@@ -125,6 +125,16 @@ public class RCTMGLMapViewManager extends AbstractEventEmitter<RCTMGLMapView> {
         mapView.setReactPreferredFramesPerSecond(preferredFramesPerSecond);
     }
 
+    @ReactProp(name="mapChangeEventPolicies")
+    public void setMapChangeEventPolicies(RCTMGLMapView mapView, @Nullable ReadableMap policies) {
+        mapView.setReactMapChangeEventPolicies(policies);
+    }
+
+    @ReactProp(name="projectedCoordinates")
+    public void setProjectedCoordinates(RCTMGLMapView mapView, @Nullable ReadableArray coordinates) {
+        mapView.setReactProjectedCoordinates(coordinates);
+    }
+
     @ReactProp(name="localizeLabels")
     public void setLocalizeLabels(RCTMGLMapView mapView, boolean localizeLabels) {
         mapView.setLocalizeLabels(localizeLabels);
@@ -225,6 +235,8 @@ public class RCTMGLMapViewManager extends AbstractEventEmitter<RCTMGLMapView> {
     public static final int METHOD_SET_HANDLED_MAP_EVENTS = 10;
     public static final int METHOD_SHOW_ATTRIBUTION = 11;
     public static final int METHOD_SET_SOURCE_VISIBILITY = 12;
+    public static final int METHOD_GET_POINTS_IN_VIEW = 13;
+    public static final int METHOD_GET_COORDINATES_FROM_VIEW = 14;
 
     @Nullable
     @Override
@@ -241,6 +253,8 @@ public class RCTMGLMapViewManager extends AbstractEventEmitter<RCTMGLMapView> {
                 .put( "setHandledMapChangedEvents", METHOD_SET_HANDLED_MAP_EVENTS)
                 .put("showAttribution", METHOD_SHOW_ATTRIBUTION)
                 .put("setSourceVisibility", METHOD_SET_SOURCE_VISIBILITY)
+                .put("getPointsInView", METHOD_GET_POINTS_IN_VIEW)
+                .put("getCoordinatesFromView", METHOD_GET_COORDINATES_FROM_VIEW)
                 .build();
     }
 
@@ -278,6 +292,12 @@ public class RCTMGLMapViewManager extends AbstractEventEmitter<RCTMGLMapView> {
             case METHOD_GET_COORDINATE_FROM_VIEW:
                 mapView.getCoordinateFromView(callbackID, ConvertUtils.toPointF(args.getArray(1)));
                 break;
+            case METHOD_GET_POINTS_IN_VIEW:
+                mapView.getPointsInView(callbackID, ConvertUtils.toDoubleArray(args.getArray(1)));
+                break;
+            case METHOD_GET_COORDINATES_FROM_VIEW:
+                mapView.getCoordinatesFromView(callbackID, ConvertUtils.toDoubleArray(args.getArray(1)));
+                break;
             case METHOD_TAKE_SNAP:
                 mapView.takeSnap(callbackID, args.getBoolean(1));
                 break;
@@ -0,0 +1,145 @@
+package com.mapbox.rctmgl.components.mapview.helpers;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * Throttling policy of a single map change event type, configured from JS. It is consulted before
+ * the event's payload is built, so suppressed events cost nothing but the check.
+ *
+ * maxRate limits the event to that many per second and sends the latest state once the interval
+ * is over, trailingOnly only sends an event once a burst of them is over. minDistance (meters)
+ * and minZoomDelta make region events wait until the center or zoom changed enough since the
+ * last sent event, either of the configured thresholds being reached is enough. The camera of the
+ * last event a threshold held back is still sent once a burst of them is over, so the map's resting
+ * state isn't lost.
+ */
+public class MapChangeEventPolicy {
+    public interface Emitter {
+        void emit(String eventType);
+    }
+
+    private static final long DEFAULT_TRAILING_DELAY_MS = 100;
+    private static final double EARTH_RADIUS_METERS = 6378137;
+
+    private final String mEventType;
+    private final Emitter mEmitter;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private final long mMinIntervalMs;
+    private final boolean mTrailingOnly;
+    private final double mMinDistance;
+    private final double mMinZoomDelta;
+
+    private long mLastEmitTime = -1;
+    private boolean mHasLastCamera;
+    private double mLastLatitude;
+    private double mLastLongitude;
+    private double mLastZoom;
+
+    private boolean mTrailingPending;
+    private double mPendingLatitude;
+    private double mPendingLongitude;
+    private double mPendingZoom;
+
+    private final Runnable mTrailingEmit = new Runnable() {
+        @Override
+        public void run() {
+            mTrailingPending = false;
+            emit(SystemClock.uptimeMillis(), mPendingLatitude, mPendingLongitude, mPendingZoom);
+        }
+    };
+
+    public MapChangeEventPolicy(String eventType, ReadableMap config, Emitter emitter) {
+        mEventType = eventType;
+        mEmitter = emitter;
+
+        double maxRate = getDouble(config, "maxRate");
+        mMinIntervalMs = maxRate > 0 ? (long) (1000 / maxRate) : 0;
+        mTrailingOnly = config.hasKey("trailingOnly") && config.getBoolean("trailingOnly");
+        mMinDistance = getDouble(config, "minDistance");
+        mMinZoomDelta = getDouble(config, "minZoomDelta");
+    }
+
+    public boolean hasCameraThresholds() {
+        return mMinDistance > 0 || mMinZoomDelta > 0;
+    }
+
+    /**
+     * Handles an occurrence of the event, sending it now or later through the emitter or dropping
+     * it. The camera is only used when the policy has camera thresholds.
+     */
+    public void onEvent(double latitude, double longitude, double zoom) {
+        if (mTrailingOnly || (hasCameraThresholds() && mHasLastCamera && !hasMovedEnough(latitude, longitude, zoom))) {
+            scheduleTrailingEmit(mMinIntervalMs > 0 ? mMinIntervalMs : DEFAULT_TRAILING_DELAY_MS, latitude, longitude, zoom);
+            return;
+        }
+
+        long now = SystemClock.uptimeMillis();
+        long sinceLastEmit = now - mLastEmitTime;
+        if (mMinIntervalMs == 0 || mLastEmitTime < 0 || sinceLastEmit >= mMinIntervalMs) {
+            cancel();
+            emit(now, latitude, longitude, zoom);
+        } else if (mTrailingPending) {
+            setPendingCamera(latitude, longitude, zoom);
+        } else {
+            scheduleTrailingEmit(mMinIntervalMs - sinceLastEmit, latitude, longitude, zoom);
+        }
+    }
+
+    boolean hasTrailingEmit() {
+        return mTrailingPending;
+    }
+
+    public void cancel() {
+        if (mTrailingPending) {
+            mHandler.removeCallbacks(mTrailingEmit);
+            mTrailingPending = false;
+        }
+    }
+
+    private void scheduleTrailingEmit(long delay, double latitude, double longitude, double zoom) {
+        cancel();
+        setPendingCamera(latitude, longitude, zoom);
+        mTrailingPending = true;
+        mHandler.postDelayed(mTrailingEmit, delay);
+    }
+
+    private void setPendingCamera(double latitude, double longitude, double zoom) {
+        mPendingLatitude = latitude;
+        mPendingLongitude = longitude;
+        mPendingZoom = zoom;
+    }
+
+    private void emit(long now, double latitude, double longitude, double zoom) {
+        mLastEmitTime = now;
+        mHasLastCamera = true;
+        mLastLatitude = latitude;
+        mLastLongitude = longitude;
+        mLastZoom = zoom;
+        mEmitter.emit(mEventType);
+    }
+
+    private boolean hasMovedEnough(double latitude, double longitude, double zoom) {
+        if (mMinZoomDelta > 0 && Math.abs(zoom - mLastZoom) >= mMinZoomDelta) {
+            return true;
+        }
+        return mMinDistance > 0 && distance(mLastLatitude, mLastLongitude, latitude, longitude) >= mMinDistance;
+    }
+
+    // haversine distance in meters
+    private static double distance(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private static double getDouble(ReadableMap config, String key) {
+        return config.hasKey(key) && !config.isNull(key) ? config.getDouble(key) : 0;
+    }
+}
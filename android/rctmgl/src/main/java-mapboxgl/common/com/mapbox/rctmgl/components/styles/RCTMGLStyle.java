@@ -2,17 +2,21 @@ package com.mapbox.rctmgl.components.styles;
 
 import android.content.Context;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.mapbox.mapboxsdk.maps.MapboxMap;
-import com.mapbox.rctmgl.utils.DownloadMapImageTask;
 import com.mapbox.rctmgl.utils.ImageEntry;
+import com.mapbox.rctmgl.utils.MapImageLoader;
+import com.mapbox.rctmgl.utils.ReadableStructure;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Created by nickitaliano on 9/12/17.
@@ -21,11 +25,34 @@ import java.util.Map;
 public class RCTMGLStyle {
     private Context mContext;
     private ReadableMap mReactStyle;
+    private ReadableMap mPreviousReactStyle;
+    private Map<String, RCTMGLStyleValue> mStyleValues;
+    // keys that hasChanged found to differ from previousReactStyle, the values kept for them were
+    // decoded from the previous value, so they are decoded again without comparing a second time
+    private final Set<String> mReplacedKeys = new HashSet<>();
     private MapboxMap mMap;
 
     public RCTMGLStyle(@NonNull Context context, @NonNull ReadableMap reactStyle, @NonNull MapboxMap map) {
+        this(context, reactStyle, null, map);
+    }
+
+    /**
+     * Style limited to the keys whose value differs from previousReactStyle, the style that was
+     * last applied, so unchanged properties aren't set on the native layer again.
+     */
+    public RCTMGLStyle(@NonNull Context context, @NonNull ReadableMap reactStyle, @Nullable ReadableMap previousReactStyle, @NonNull MapboxMap map) {
+        this(context, reactStyle, previousReactStyle, null, map);
+    }
+
+    /**
+     * Style that keeps the values it decodes in styleValues by key, and reuses them as long as the
+     * value of the key doesn't change.
+     */
+    public RCTMGLStyle(@NonNull Context context, @NonNull ReadableMap reactStyle, @Nullable ReadableMap previousReactStyle, @Nullable Map<String, RCTMGLStyleValue> styleValues, @NonNull MapboxMap map) {
         mContext = context;
         mReactStyle = reactStyle;
+        mPreviousReactStyle = previousReactStyle;
+        mStyleValues = styleValues;
         mMap = map;
     }
 
@@ -40,7 +67,7 @@ public class RCTMGLStyle {
         while (it.hasNextKey()) {
             String key = it.nextKey();
 
-            if (!key.equals("__MAPBOX_STYLESHEET__")) {
+            if (!key.equals("__MAPBOX_STYLESHEET__") && hasChanged(key)) {
                 keys.add(key);
             }
         }
@@ -48,6 +75,23 @@ public class RCTMGLStyle {
         return keys;
     }
 
+    private boolean hasChanged(String key) {
+        if (mPreviousReactStyle == null || !mPreviousReactStyle.hasKey(key)) {
+            return true;
+        }
+
+        ReadableMap value = mReactStyle.getMap(key);
+        ReadableMap previousValue = mPreviousReactStyle.getMap(key);
+        if (value == null || previousValue == null) {
+            return value != previousValue;
+        }
+        if (ReadableStructure.equal(value, previousValue)) {
+            return false;
+        }
+        mReplacedKeys.add(key);
+        return true;
+    }
+
     public RCTMGLStyleValue getStyleValueForKey(String styleKey) {
         ReadableMap styleValueConfig = mReactStyle.getMap(styleKey);
 
@@ -56,7 +100,14 @@ public class RCTMGLStyle {
             return null;
         }
 
-        return new RCTMGLStyleValue(styleValueConfig);
+        RCTMGLStyleValue styleValue = mStyleValues != null && !mReplacedKeys.contains(styleKey) ? mStyleValues.get(styleKey) : null;
+        if (styleValue == null || !styleValue.isDecodedFrom(styleValueConfig)) {
+            styleValue = new RCTMGLStyleValue(styleValueConfig);
+            if (mStyleValues != null) {
+                mStyleValues.put(styleKey, styleValue);
+            }
+        }
+        return styleValue;
     }
 
     public void addImage(RCTMGLStyleValue styleValue) {
@@ -67,7 +118,7 @@ public class RCTMGLStyle {
         return new ImageEntry(styleValue.getImageURI(), styleValue.getImageScale());
     }
 
-    public void addImage(RCTMGLStyleValue styleValue, DownloadMapImageTask.OnAllImagesLoaded callback) {
+    public void addImage(RCTMGLStyleValue styleValue, MapImageLoader.OnAllImagesLoaded callback) {
         if (!styleValue.shouldAddImage()) {
             if (callback != null) {
                 callback.onAllImagesLoaded();
@@ -76,8 +127,8 @@ public class RCTMGLStyle {
         }
 
         String uriStr = styleValue.getImageURI();
-        Map.Entry[] images = new Map.Entry[]{ new AbstractMap.SimpleEntry(uriStr, imageEntry(styleValue)) };
-        DownloadMapImageTask task = new DownloadMapImageTask(mContext, mMap, callback);
-        task.execute(images);
+        List<Map.Entry<String, ImageEntry>> images = new ArrayList<>();
+        images.add(new AbstractMap.SimpleEntry<>(uriStr, imageEntry(styleValue)));
+        MapImageLoader.load(mContext, mMap, images, callback);
     }
 }
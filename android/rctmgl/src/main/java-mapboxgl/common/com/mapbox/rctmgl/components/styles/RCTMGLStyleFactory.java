@@ -17,7 +17,7 @@ import com.mapbox.mapboxsdk.style.layers.HillshadeLayer;
 import com.mapbox.mapboxsdk.style.layers.TransitionOptions;
 import com.mapbox.mapboxsdk.style.light.Light;
 import com.mapbox.mapboxsdk.style.light.Position;
-import com.mapbox.rctmgl.utils.DownloadMapImageTask;
+import com.mapbox.rctmgl.utils.MapImageLoader;
 
 import java.util.List;
 
@@ -73,7 +73,7 @@ public class RCTMGLStyleFactory {
               RCTMGLStyleFactory.setFillTranslateAnchor(layer, styleValue);
               break;
             case "fillPattern":
-              style.addImage(styleValue, new DownloadMapImageTask.OnAllImagesLoaded() {
+              style.addImage(styleValue, new MapImageLoader.OnAllImagesLoaded() {
                   @Override
                   public void onAllImagesLoaded() {
                       RCTMGLStyleFactory.setFillPattern(layer, styleValue);
@@ -167,7 +167,7 @@ public class RCTMGLStyleFactory {
               RCTMGLStyleFactory.setLineDasharrayTransition(layer, styleValue);
               break;
             case "linePattern":
-              style.addImage(styleValue, new DownloadMapImageTask.OnAllImagesLoaded() {
+              style.addImage(styleValue, new MapImageLoader.OnAllImagesLoaded() {
                   @Override
                   public void onAllImagesLoaded() {
                       RCTMGLStyleFactory.setLinePattern(layer, styleValue);
@@ -231,7 +231,7 @@ public class RCTMGLStyleFactory {
               RCTMGLStyleFactory.setIconTextFitPadding(layer, styleValue);
               break;
             case "iconImage":
-              style.addImage(styleValue, new DownloadMapImageTask.OnAllImagesLoaded() {
+              style.addImage(styleValue, new MapImageLoader.OnAllImagesLoaded() {
                   @Override
                   public void onAllImagesLoaded() {
                       RCTMGLStyleFactory.setIconImage(layer, styleValue);
@@ -557,7 +557,7 @@ public class RCTMGLStyleFactory {
               RCTMGLStyleFactory.setFillExtrusionTranslateAnchor(layer, styleValue);
               break;
             case "fillExtrusionPattern":
-              style.addImage(styleValue, new DownloadMapImageTask.OnAllImagesLoaded() {
+              style.addImage(styleValue, new MapImageLoader.OnAllImagesLoaded() {
                   @Override
                   public void onAllImagesLoaded() {
                       RCTMGLStyleFactory.setFillExtrusionPattern(layer, styleValue);
@@ -712,7 +712,7 @@ public class RCTMGLStyleFactory {
               RCTMGLStyleFactory.setBackgroundColorTransition(layer, styleValue);
               break;
             case "backgroundPattern":
-              style.addImage(styleValue, new DownloadMapImageTask.OnAllImagesLoaded() {
+              style.addImage(styleValue, new MapImageLoader.OnAllImagesLoaded() {
                   @Override
                   public void onAllImagesLoaded() {
                       RCTMGLStyleFactory.setBackgroundPattern(layer, styleValue);
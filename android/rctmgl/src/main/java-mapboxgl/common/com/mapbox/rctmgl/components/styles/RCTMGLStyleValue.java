@@ -13,6 +13,7 @@ import com.mapbox.mapboxsdk.style.layers.TransitionOptions;
 import com.mapbox.rctmgl.utils.ConvertUtils;
 import com.mapbox.rctmgl.utils.ExpressionParser;
 import com.mapbox.rctmgl.utils.ImageEntry;
+import com.mapbox.rctmgl.utils.ReadableStructure;
 
 /**
  * Created by nickitaliano on 9/12/17.
@@ -20,11 +21,25 @@ import com.mapbox.rctmgl.utils.ImageEntry;
 
 public class RCTMGLStyleValue {
 
+    private ReadableMap mConfig;
     private String mType;
     private boolean isExpression;
     private Expression mExpression;
     private ReadableMap mPayload;
 
+    // the payload's value decoded once, so setters don't go back to the bridge map on every read
+    private String mValueType;
+    private ReadableType mValueKind;
+    private double mNumberValue;
+    private boolean mBooleanValue;
+    private String mStringValue;
+    private ReadableArray mArrayValue;
+
+    private String mEnumName;
+    private Float[] mFloatArray;
+    private String[] mStringArray;
+    private TransitionOptions mTransition;
+
     private String imageURI = "";
     private boolean isAddImage;
     private Double imageScale = ImageEntry.defaultScale;
@@ -35,19 +50,21 @@ public class RCTMGLStyleValue {
     public static final int InterpolationModeIdentity = 103;
 
     public RCTMGLStyleValue(@NonNull ReadableMap config) {
+        mConfig = config;
         mType = config.getString("styletype");
         mPayload = config.getMap("stylevalue");
+        decodeValue();
 
         if ("image".equals(mType)) {
             imageScale = ImageEntry.defaultScale;
-            if ("hashmap".equals(mPayload.getString("type"))) {
+            if ("hashmap".equals(mValueType)) {
                 ReadableMap map = getMap();
                 imageURI = map.getMap("uri").getString("value");
                 if (map.getMap("scale") != null) {
                     imageScale = map.getMap("scale").getDouble("value");
                 }
-            } else if ("string".equals(mPayload.getString("type"))) {
-                String value = mPayload.getString("value");
+            } else if ("string".equals(mValueType)) {
+                String value = mStringValue;
                 if (value.contains("://")) {
                     imageURI = value;
                 } else {
@@ -62,19 +79,49 @@ public class RCTMGLStyleValue {
             if (isAddImage) { return; }
         }
 
-        Dynamic dynamic = mPayload.getDynamic("value");
-        if (dynamic.getType().equals(ReadableType.Array)) {
-            ReadableArray array = dynamic.asArray();
-            if (array.size() > 0 && mPayload.getString("type").equals("array")) {
-                ReadableMap map = array.getMap(0);
-                if (map != null && map.getString("type").equals("string")) {
-                    isExpression = true;
-                    mExpression = ExpressionParser.fromTyped(mPayload);
-                }
+        if (mArrayValue != null && mArrayValue.size() > 0 && "array".equals(mValueType)) {
+            ReadableMap map = mArrayValue.getMap(0);
+            if (map != null && "string".equals(map.getString("type"))) {
+                isExpression = true;
+                mExpression = ExpressionParser.fromTyped(mPayload);
             }
         }
     }
 
+    /**
+     * Whether this value was decoded from config, so it can be used again instead of decoding it.
+     */
+    public boolean isDecodedFrom(ReadableMap config) {
+        return config == mConfig || ReadableStructure.equal(config, mConfig);
+    }
+
+    private void decodeValue() {
+        mValueType = mPayload.getString("type");
+
+        Dynamic dynamic = mPayload.getDynamic(RCTMGLStyleFactory.VALUE_KEY);
+        mValueKind = dynamic.getType();
+        switch (mValueKind) {
+            case Number:
+                mNumberValue = dynamic.asDouble();
+                break;
+            case Boolean:
+                mBooleanValue = dynamic.asBoolean();
+                break;
+            case String:
+                mStringValue = dynamic.asString();
+                break;
+            case Array:
+                mArrayValue = dynamic.asArray();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private boolean isDecoded(String key, ReadableType kind) {
+        return mValueKind == kind && RCTMGLStyleFactory.VALUE_KEY.equals(key);
+    }
+
     private boolean isTokenizedValue(String value) {
         return (value.startsWith("{") && value.endsWith("}"));
     }
@@ -88,23 +135,38 @@ public class RCTMGLStyleValue {
     }
 
     public int getInt(String key) {
+        if (isDecoded(key, ReadableType.Number)) {
+            return (int) mNumberValue;
+        }
         return mPayload.getInt(key);
     }
 
     public String getString(String key) {
+        if (isDecoded(key, ReadableType.String)) {
+            return mStringValue;
+        }
         return mPayload.getString(key);
     }
 
     public String getEnumName() {
-        return mPayload.getString("value").toUpperCase().replaceAll("-","_");
+        if (mEnumName == null) {
+            mEnumName = getString(RCTMGLStyleFactory.VALUE_KEY).toUpperCase().replace('-', '_');
+        }
+        return mEnumName;
     }
 
     public Double getDouble(String key) {
+        if (isDecoded(key, ReadableType.Number)) {
+            return mNumberValue;
+        }
         return mPayload.getDouble(key);
     }
 
     public Float getFloat(String key) {
-        return getDouble(key).floatValue();
+        if (isDecoded(key, ReadableType.Number)) {
+            return (float) mNumberValue;
+        }
+        return (float) mPayload.getDouble(key);
     }
 
     public Dynamic getDynamic(String key) {
@@ -112,16 +174,30 @@ public class RCTMGLStyleValue {
     }
 
     public ReadableArray getArray(String key) {
+        if (isDecoded(key, ReadableType.Array)) {
+            return mArrayValue;
+        }
         return mPayload.getArray(key);
     }
 
     public Boolean getBoolean(String key) {
+        if (isDecoded(key, ReadableType.Boolean)) {
+            return mBooleanValue;
+        }
         return mPayload.getBoolean(key);
     }
 
     public Float[] getFloatArray(String key) {
-        ReadableArray arr = getArray(key);
+        if (isDecoded(key, ReadableType.Array)) {
+            if (mFloatArray == null) {
+                mFloatArray = toFloatArray(mArrayValue);
+            }
+            return mFloatArray;
+        }
+        return toFloatArray(getArray(key));
+    }
 
+    private static Float[] toFloatArray(ReadableArray arr) {
         Float[] floatArr = new Float[arr.size()];
         for (int i = 0; i < arr.size(); i++) {
             ReadableMap item = arr.getMap(i);
@@ -132,8 +208,16 @@ public class RCTMGLStyleValue {
     }
 
     public String[] getStringArray(String key) {
-        ReadableArray arr = getArray(key);
+        if (isDecoded(key, ReadableType.Array)) {
+            if (mStringArray == null) {
+                mStringArray = toStringArray(mArrayValue);
+            }
+            return mStringArray;
+        }
+        return toStringArray(getArray(key));
+    }
 
+    private static String[] toStringArray(ReadableArray arr) {
         String[] stringArr = new String[arr.size()];
         for (int i = 0; i < arr.size(); i++) {
             ReadableMap item = arr.getMap(i);
@@ -144,8 +228,8 @@ public class RCTMGLStyleValue {
     }
 
     public ReadableMap getMap() {
-        if ("hashmap".equals(mPayload.getString("type"))) {
-            ReadableArray keyValues = mPayload.getArray("value");
+        if ("hashmap".equals(mValueType)) {
+            ReadableArray keyValues = mArrayValue;
             WritableNativeMap result = new WritableNativeMap();
             for (int i = 0; i < keyValues.size(); i++) {
                 ReadableArray keyValue = keyValues.getArray(i);
@@ -177,11 +261,11 @@ public class RCTMGLStyleValue {
     }
 
     public Boolean isImageStringValue() {
-        return "string".equals(mPayload.getString("type"));
+        return "string".equals(mValueType);
     }
 
     public String getImageStringValue() {
-        return mPayload.getString("value");
+        return mStringValue;
     }
 
     public String getImageURI() {
@@ -196,21 +280,38 @@ public class RCTMGLStyleValue {
         if (!mType.equals("transition")) {
             return null;
         }
-        ReadableMap config = getMap(RCTMGLStyleFactory.VALUE_KEY);
+        if (mTransition != null) {
+            return mTransition;
+        }
 
         boolean enablePlacementTransitions = true;
-        if (config.hasKey("enablePlacementTransitions")) {
-            enablePlacementTransitions = config.getMap("enablePlacementTransitions").getBoolean("value");
-        }
         int duration = 300;
         int delay = 0;
-        if (config.hasKey("duration") && ReadableType.Map.equals(config.getType("duration"))) {
-            duration = config.getMap("duration").getInt("value");
-        }
-        if (config.hasKey("delay") && ReadableType.Map.equals(config.getType("delay"))) {
-            delay = config.getMap("delay").getInt("value");
+
+        // read the key/value pairs directly instead of copying them into a map first
+        ReadableArray keyValues = "hashmap".equals(mValueType) ? mArrayValue : null;
+        for (int i = 0; keyValues != null && i < keyValues.size(); i++) {
+            ReadableArray keyValue = keyValues.getArray(i);
+            String name = keyValue.getMap(0).getString("value");
+            ReadableMap value = keyValue.getMap(1);
+            if (value == null) {
+                continue;
+            }
+
+            switch (name) {
+                case "enablePlacementTransitions":
+                    enablePlacementTransitions = value.getBoolean("value");
+                    break;
+                case "duration":
+                    duration = value.getInt("value");
+                    break;
+                case "delay":
+                    delay = value.getInt("value");
+                    break;
+            }
         }
 
-        return new TransitionOptions(duration, delay, enablePlacementTransitions);
+        mTransition = new TransitionOptions(duration, delay, enablePlacementTransitions);
+        return mTransition;
     }
 }
@@ -14,10 +14,14 @@ import com.mapbox.mapboxsdk.style.layers.Property;
 import com.mapbox.mapboxsdk.style.layers.PropertyFactory;
 import com.mapbox.rctmgl.components.AbstractMapFeature;
 import com.mapbox.rctmgl.components.mapview.RCTMGLMapView;
+import com.mapbox.rctmgl.components.styles.RCTMGLStyle;
+import com.mapbox.rctmgl.components.styles.RCTMGLStyleValue;
 import com.mapbox.rctmgl.utils.ExpressionParser;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -39,6 +43,11 @@ public abstract class RCTLayer<T extends Layer> extends AbstractMapFeature {
     protected ReadableMap mReactStyle;
     protected Expression mFilter;
 
+    // style last applied to mLayer, unchanged properties are not set again
+    private ReadableMap mAppliedReactStyle;
+    // values decoded from it by style key, kept across applies so unchanged ones aren't decoded again
+    private final Map<String, RCTMGLStyleValue> mStyleValues = new HashMap<>();
+
     protected MapboxMap mMap;
     protected T mLayer;
 
@@ -130,7 +139,7 @@ public abstract class RCTLayer<T extends Layer> extends AbstractMapFeature {
         mReactStyle = reactStyle;
 
         if (mLayer != null) {
-            addStyles();
+            applyStyles();
         }
     }
 
@@ -257,7 +266,8 @@ public abstract class RCTLayer<T extends Layer> extends AbstractMapFeature {
             insertLayer();
         }
 
-        addStyles();
+        mAppliedReactStyle = null;
+        applyStyles();
         if (mFilter != null) {
             mHadFilter = true;
             updateFilter(mFilter);
@@ -268,6 +278,7 @@ public abstract class RCTLayer<T extends Layer> extends AbstractMapFeature {
     public void removeFromMap(RCTMGLMapView mapView) {
         if (getStyle() != null) {
             getStyle().removeLayer(mLayer);
+            mapView.layerRemoved(mLayer);
         }
     }
 
@@ -278,6 +289,19 @@ public abstract class RCTLayer<T extends Layer> extends AbstractMapFeature {
         return mMap.getStyle();
     }
 
+    /**
+     * Style for addStyles, limited to the properties that changed since styles were last applied
+     * to the layer.
+     */
+    protected RCTMGLStyle getChangedStyle() {
+        return new RCTMGLStyle(getContext(), mReactStyle, mAppliedReactStyle, mStyleValues, mMap);
+    }
+
+    private void applyStyles() {
+        addStyles();
+        mAppliedReactStyle = mReactStyle;
+    }
+
     public abstract T makeLayer();
     public abstract void addStyles();
 
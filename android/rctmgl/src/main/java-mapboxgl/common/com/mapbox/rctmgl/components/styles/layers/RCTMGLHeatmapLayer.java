@@ -5,7 +5,6 @@ import android.content.Context;
 import com.mapbox.mapboxsdk.style.expressions.Expression;
 import com.mapbox.mapboxsdk.style.layers.HeatmapLayer;
 import com.mapbox.rctmgl.components.mapview.RCTMGLMapView;
-import com.mapbox.rctmgl.components.styles.RCTMGLStyle;
 import com.mapbox.rctmgl.components.styles.RCTMGLStyleFactory;
 
 /**
@@ -42,7 +41,7 @@ public class RCTMGLHeatmapLayer extends RCTLayer<HeatmapLayer> {
 
     @Override
     public void addStyles() {
-        RCTMGLStyleFactory.setHeatmapLayerStyle(mLayer, new RCTMGLStyle(getContext(), mReactStyle, mMap));
+        RCTMGLStyleFactory.setHeatmapLayerStyle(mLayer, getChangedStyle());
     }
 
     public void setSourceLayerID(String sourceLayerID) {
@@ -3,7 +3,6 @@ package com.mapbox.rctmgl.components.styles.layers;
 import android.content.Context;
 
 import com.mapbox.mapboxsdk.style.layers.RasterLayer;
-import com.mapbox.rctmgl.components.styles.RCTMGLStyle;
 import com.mapbox.rctmgl.components.styles.RCTMGLStyleFactory;
 
 /**
@@ -22,6 +21,6 @@ public class RCTMGLRasterLayer extends RCTLayer<RasterLayer> {
 
     @Override
     public void addStyles() {
-        RCTMGLStyleFactory.setRasterLayerStyle(mLayer, new RCTMGLStyle(getContext(), mReactStyle, mMap));
+        RCTMGLStyleFactory.setRasterLayerStyle(mLayer, getChangedStyle());
     }
 }
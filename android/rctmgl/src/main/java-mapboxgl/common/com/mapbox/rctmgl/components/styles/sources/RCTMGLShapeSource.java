@@ -3,11 +3,13 @@ package com.mapbox.rctmgl.components.styles.sources;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.drawable.BitmapDrawable;
+import android.view.Choreographer;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.Size;
 import androidx.core.content.res.ResourcesCompat;
 
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.WritableNativeMap;
 import com.mapbox.geojson.Feature;
@@ -22,15 +24,19 @@ import com.mapbox.rctmgl.R;
 import com.mapbox.rctmgl.components.mapview.RCTMGLMapView;
 import com.mapbox.rctmgl.events.AndroidCallbackEvent;
 import com.mapbox.rctmgl.events.FeatureClickEvent;
+import com.mapbox.rctmgl.utils.ClusterIndex;
 import com.mapbox.rctmgl.utils.ClusterPropertyEntry;
-import com.mapbox.rctmgl.utils.DownloadMapImageTask;
+import com.mapbox.rctmgl.utils.GeoJSONParseQueue;
+import com.mapbox.rctmgl.utils.GeoJSONUtils;
 import com.mapbox.rctmgl.utils.ImageEntry;
+import com.mapbox.rctmgl.utils.PackedShapeDecoder;
 
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * Created by nickitaliano on 9/19/17.
@@ -41,12 +47,26 @@ public class RCTMGLShapeSource extends RCTSource<GeoJsonSource> {
     private RCTMGLShapeSourceManager mManager;
 
     private String mShape;
+    private FeatureCollection mFeatureCollection;
+    // set while a packed shape is decoded in the background, the previous data stays until then
+    private boolean mDecodingPackedShape;
+
+    private FeatureStore mFeatureStore;
+    private boolean mFeatureStorePublishScheduled;
+    // patches that arrived while the shape was parsed, applied in order once it landed
+    private List<FeaturePatch> mPendingPatches;
 
     private Boolean mCluster;
     private Integer mClusterRadius;
     private Integer mClusterMaxZoom;
     private List<Map.Entry<String, ClusterPropertyEntry>> mClusterProperties;
 
+    private boolean mNativeClusterIndex;
+    private ClusterIndex mClusterIndex;
+    // owner of background index builds, so they don't replace parses of the shape
+    private final Object mClusterIndexJob = new Object();
+    private boolean mClusterIndexScheduled;
+
     private Integer mMaxZoom;
     private Integer mBuffer;
     private Double mTolerance;
@@ -78,12 +98,27 @@ public class RCTMGLShapeSource extends RCTSource<GeoJsonSource> {
         GeoJsonOptions options = getOptions();
 
         if (mShape != null) {
+            // the renderer parses the string itself, on its own thread
             return new GeoJsonSource(mID, mShape, options);
         }
 
+        if (mFeatureCollection != null) {
+            return new GeoJsonSource(mID, mFeatureCollection, options);
+        }
+
         return new GeoJsonSource(mID, mURL, options);
     }
 
+    @Override
+    public void removeFromMap(RCTMGLMapView mapView) {
+        GeoJSONParseQueue.cancel(this);
+        GeoJSONParseQueue.cancel(mClusterIndexJob);
+        mDecodingPackedShape = false;
+        mClusterIndexScheduled = false;
+        rejectPendingPatches("Source was removed from the map");
+        super.removeFromMap(mapView);
+    }
+
     public void setURL(URL url) {
         mURL = url;
 
@@ -93,31 +128,356 @@ public class RCTMGLShapeSource extends RCTSource<GeoJsonSource> {
     }
 
     public void setShape(String geoJSONStr) {
+        if (geoJSONStr == null) {
+            // shape was cleared, eg. because the source switched to the packed transport
+            return;
+        }
+
+        // patches were meant for the previous data
+        GeoJSONParseQueue.cancel(this);
+        mDecodingPackedShape = false;
+        rejectPendingPatches("Shape was replaced before the features could be changed");
+
         mShape = geoJSONStr;
+        mFeatureCollection = null;
+        mFeatureStore = null;
+        mClusterIndex = null;
 
         if (mSource != null && mMapView != null && !mMapView.isDestroyed() ) {
             mSource.setGeoJson(mShape);
         }
     }
 
+    /**
+     * Parses the shape into features in the background, for patches that have to work on them.
+     * The renderer got the string already and parses it on its own.
+     */
+    private void parseShape() {
+        GeoJSONParseQueue.parse(this, mShape, new GeoJSONParseQueue.Parser<FeatureCollection>() {
+            @Override
+            public FeatureCollection parse(String json) {
+                return GeoJSONUtils.toFeatureCollection(json);
+            }
+        }, new GeoJSONParseQueue.Callback<FeatureCollection>() {
+            @Override
+            public void onParsed(FeatureCollection featureCollection) {
+                mFeatureCollection = featureCollection;
+                applyPendingPatches();
+            }
+        }, new GeoJSONParseQueue.ErrorCallback() {
+            @Override
+            public void onError(Exception error) {
+                rejectPendingPatches("Could not parse shape: " + error.getLocalizedMessage());
+            }
+        });
+    }
+
+    /**
+     * Decodes the packed shape in the background and applies it once ready, like parsed shapes.
+     */
+    public void setPackedShape(String packedShape) {
+        GeoJSONParseQueue.cancel(this);
+        rejectPendingPatches("Shape was replaced before the features could be changed");
+        mDecodingPackedShape = true;
+
+        GeoJSONParseQueue.parse(this, packedShape, new GeoJSONParseQueue.Parser<FeatureCollection>() {
+            @Override
+            public FeatureCollection parse(String packed) {
+                return PackedShapeDecoder.decode(packed);
+            }
+        }, new GeoJSONParseQueue.Callback<FeatureCollection>() {
+            @Override
+            public void onParsed(FeatureCollection featureCollection) {
+                mDecodingPackedShape = false;
+                mFeatureCollection = featureCollection;
+                mShape = null;
+                mFeatureStore = null;
+                mClusterIndex = null;
+
+                if (mSource != null && mMapView != null && !mMapView.isDestroyed() ) {
+                    mSource.setGeoJson(mFeatureCollection);
+                }
+                applyPendingPatches();
+            }
+        }, new GeoJSONParseQueue.ErrorCallback() {
+            @Override
+            public void onError(Exception error) {
+                mDecodingPackedShape = false;
+                rejectPendingPatches("Could not decode packed shape: " + error.getLocalizedMessage());
+            }
+        });
+    }
+
+    private abstract class FeaturePatch {
+        private final String mCallbackID;
+
+        FeaturePatch(String callbackID) {
+            mCallbackID = callbackID;
+        }
+
+        abstract void apply(FeatureStore store);
+
+        void reject(String error) {
+            WritableMap payload = new WritableNativeMap();
+            payload.putString("error", error);
+            mManager.handleEvent(new AndroidCallbackEvent(RCTMGLShapeSource.this, mCallbackID, payload));
+        }
+    }
+
+    /**
+     * Runs the patch against the features of the source. While the shape is still parsed in the
+     * background, patches are queued in order and applied once it landed. Replacing the shape
+     * meanwhile rejects them.
+     */
+    private void withFeatureStore(FeaturePatch patch) {
+        if (mDecodingPackedShape || (mFeatureStore == null && mFeatureCollection == null && mShape != null)) {
+            if (mPendingPatches == null) {
+                // the first queued patch starts the one parse all of them wait for, packed shapes
+                // are decoded into features anyway
+                mPendingPatches = new ArrayList<>();
+                if (!mDecodingPackedShape) {
+                    parseShape();
+                }
+            }
+            mPendingPatches.add(patch);
+            return;
+        }
+
+        if (mFeatureStore == null) {
+            mFeatureStore = new FeatureStore(mFeatureCollection);
+        }
+        patch.apply(mFeatureStore);
+    }
+
+    private void applyPendingPatches() {
+        if (mPendingPatches == null) {
+            return;
+        }
+        List<FeaturePatch> patches = mPendingPatches;
+        mPendingPatches = null;
+
+        mFeatureStore = new FeatureStore(mFeatureCollection);
+        for (FeaturePatch patch : patches) {
+            patch.apply(mFeatureStore);
+        }
+    }
+
+    private void rejectPendingPatches(String error) {
+        if (mPendingPatches == null) {
+            return;
+        }
+        List<FeaturePatch> patches = mPendingPatches;
+        mPendingPatches = null;
+
+        for (FeaturePatch patch : patches) {
+            patch.reject(error);
+        }
+    }
+
+    private void scheduleFeatureStorePublish() {
+        if (mFeatureStorePublishScheduled) {
+            return;
+        }
+
+        mFeatureStorePublishScheduled = true;
+        Choreographer.getInstance().postFrameCallback(new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                mFeatureStorePublishScheduled = false;
+                if (mFeatureStore == null) {
+                    return;
+                }
+
+                // keep the published collection so the source is recreated with the patched data
+                mFeatureCollection = mFeatureStore.toFeatureCollection();
+                mShape = null;
+                mClusterIndex = null;
+
+                if (mSource != null && mMapView != null && !mMapView.isDestroyed() ) {
+                    mSource.setGeoJson(mFeatureCollection);
+                }
+            }
+        });
+    }
+
+    public void addFeatures(final String callbackID, String featuresJSON) {
+        final List<Feature> features = FeatureCollection.fromJson(featuresJSON).features();
+        withFeatureStore(new FeaturePatch(callbackID) {
+            @Override
+            void apply(FeatureStore store) {
+                for (Feature feature : features) {
+                    store.add(feature);
+                }
+                scheduleFeatureStorePublish();
+
+                WritableMap payload = new WritableNativeMap();
+                payload.putInt("data", features.size());
+                mManager.handleEvent(new AndroidCallbackEvent(RCTMGLShapeSource.this, callbackID, payload));
+            }
+        });
+    }
+
+    public void updateFeatures(final String callbackID, String featuresJSON) {
+        final List<Feature> features = FeatureCollection.fromJson(featuresJSON).features();
+        withFeatureStore(new FeaturePatch(callbackID) {
+            @Override
+            void apply(FeatureStore store) {
+                int updated = 0;
+                for (Feature feature : features) {
+                    if (store.update(feature)) {
+                        updated++;
+                    }
+                }
+                if (updated > 0) {
+                    scheduleFeatureStorePublish();
+                }
+
+                WritableMap payload = new WritableNativeMap();
+                payload.putInt("data", updated);
+                mManager.handleEvent(new AndroidCallbackEvent(RCTMGLShapeSource.this, callbackID, payload));
+            }
+        });
+    }
+
+    public void removeFeatures(final String callbackID, ReadableArray ids) {
+        final List<String> featureIds = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            featureIds.add(ids.getString(i));
+        }
+        withFeatureStore(new FeaturePatch(callbackID) {
+            @Override
+            void apply(FeatureStore store) {
+                int removed = 0;
+                for (String id : featureIds) {
+                    if (store.remove(id)) {
+                        removed++;
+                    }
+                }
+                if (removed > 0) {
+                    scheduleFeatureStorePublish();
+                }
+
+                WritableMap payload = new WritableNativeMap();
+                payload.putInt("data", removed);
+                mManager.handleEvent(new AndroidCallbackEvent(RCTMGLShapeSource.this, callbackID, payload));
+            }
+        });
+    }
+
     public void setCluster(boolean cluster) {
         mCluster = cluster;
+        mClusterIndex = null;
     }
 
     public void setClusterRadius(int clusterRadius) {
         mClusterRadius = clusterRadius;
+        mClusterIndex = null;
     }
 
     public void setClusterMaxZoom(int clusterMaxZoom) {
         mClusterMaxZoom = clusterMaxZoom;
+        mClusterIndex = null;
     }
 
     public void setClusterProperties(List<Map.Entry<String, ClusterPropertyEntry>> clusterProperties) {
         mClusterProperties = clusterProperties;
+        mClusterIndex = null;
+    }
+
+    public void setNativeClusterIndex(boolean nativeClusterIndex) {
+        mNativeClusterIndex = nativeClusterIndex;
+        mClusterIndex = null;
+    }
+
+    private boolean isClusterIndexEnabled() {
+        // aggregated cluster properties are computed by the renderer only, so leave those to it
+        return mNativeClusterIndex && mCluster != null && mCluster && mClusterProperties == null;
+    }
+
+    private int getClusterRadius() {
+        return mClusterRadius != null ? mClusterRadius : ClusterIndex.DEFAULT_RADIUS;
+    }
+
+    private int getClusterMaxZoom() {
+        return ClusterIndex.getMaxZoom(mClusterMaxZoom, mMaxZoom);
+    }
+
+    private static ClusterIndex makeClusterIndex(FeatureCollection featureCollection, int radius, int maxZoom) {
+        List<Feature> features = featureCollection.features();
+        return new ClusterIndex(features != null ? features : Collections.<Feature>emptyList(), radius, maxZoom);
+    }
+
+    /**
+     * Returns the in-process cluster index for the current data, or null when cluster queries
+     * should go to the renderer. Data without an index yet, eg. packed or patched data, is indexed
+     * in the background, queries go to the renderer meanwhile.
+     */
+    @Nullable
+    private ClusterIndex getClusterIndex() {
+        if (!isClusterIndexEnabled()) {
+            return null;
+        }
+
+        if (mClusterIndex == null) {
+            scheduleClusterIndex();
+        }
+        return mClusterIndex;
+    }
+
+    private void scheduleClusterIndex() {
+        final FeatureCollection featureCollection = mFeatureCollection;
+        final String shape = mShape;
+        if (mClusterIndexScheduled || (featureCollection == null && shape == null)) {
+            return;
+        }
+        mClusterIndexScheduled = true;
+
+        final int clusterRadius = getClusterRadius();
+        final int clusterMaxZoom = getClusterMaxZoom();
+        GeoJSONParseQueue.run(mClusterIndexJob, new Callable<ClusterIndex>() {
+            @Override
+            public ClusterIndex call() {
+                FeatureCollection features = featureCollection != null ? featureCollection : GeoJSONUtils.toFeatureCollection(shape);
+                return makeClusterIndex(features, clusterRadius, clusterMaxZoom);
+            }
+        }, new GeoJSONParseQueue.Callback<ClusterIndex>() {
+            @Override
+            public void onParsed(ClusterIndex clusterIndex) {
+                mClusterIndexScheduled = false;
+                // drop indices of data or options that changed while it was built
+                if (shape == mShape && (featureCollection == null || featureCollection == mFeatureCollection)
+                        && isClusterIndexEnabled() && clusterRadius == getClusterRadius() && clusterMaxZoom == getClusterMaxZoom()) {
+                    mClusterIndex = clusterIndex;
+                }
+            }
+        }, new GeoJSONParseQueue.ErrorCallback() {
+            @Override
+            public void onError(Exception error) {
+                // queries stay with the renderer, the next one schedules again
+                mClusterIndexScheduled = false;
+            }
+        });
+    }
+
+    private void sendClusterFeatures(String callbackID, List<Feature> features) {
+        WritableMap payload = new WritableNativeMap();
+        payload.putString("data", FeatureCollection.fromFeatures(features).toJson());
+
+        AndroidCallbackEvent event = new AndroidCallbackEvent(this, callbackID, payload);
+        mManager.handleEvent(event);
+    }
+
+    private void sendClusterExpansionZoom(String callbackID, int zoom) {
+        WritableMap payload = new WritableNativeMap();
+        payload.putInt("data", zoom);
+
+        AndroidCallbackEvent event = new AndroidCallbackEvent(this, callbackID, payload);
+        mManager.handleEvent(event);
     }
 
     public void setMaxZoom(int maxZoom) {
         mMaxZoom = maxZoom;
+        mClusterIndex = null;
     }
 
     public void setBuffer(int buffer) {
@@ -196,6 +556,15 @@ public class RCTMGLShapeSource extends RCTSource<GeoJsonSource> {
     }
 
     public void getClusterExpansionZoom(String callbackID, String featureJSON) {
+        ClusterIndex clusterIndex = getClusterIndex();
+        if (clusterIndex != null) {
+            int zoom = clusterIndex.getExpansionZoom(ClusterIndex.getClusterId(Feature.fromJson(featureJSON)));
+            if (zoom != -1) {
+                sendClusterExpansionZoom(callbackID, zoom);
+                return;
+            }
+        }
+
         if (mSource == null) {
             WritableMap payload = new WritableNativeMap();
             payload.putString("error", "source is not yet loaded");
@@ -215,6 +584,15 @@ public class RCTMGLShapeSource extends RCTSource<GeoJsonSource> {
     }
 
     public void getClusterLeaves(String callbackID, String featureJSON, int number, int offset) {
+        ClusterIndex clusterIndex = getClusterIndex();
+        if (clusterIndex != null) {
+            List<Feature> leaves = clusterIndex.getLeaves(ClusterIndex.getClusterId(Feature.fromJson(featureJSON)), number, offset);
+            if (leaves != null) {
+                sendClusterFeatures(callbackID, leaves);
+                return;
+            }
+        }
+
         if (mSource == null) {
             WritableMap payload = new WritableNativeMap();
             payload.putString("error", "source is not yet loaded");
@@ -232,6 +610,15 @@ public class RCTMGLShapeSource extends RCTSource<GeoJsonSource> {
     }
 
     public void getClusterChildren(String callbackID, String featureJSON) {
+        ClusterIndex clusterIndex = getClusterIndex();
+        if (clusterIndex != null) {
+            List<Feature> children = clusterIndex.getChildren(ClusterIndex.getClusterId(Feature.fromJson(featureJSON)));
+            if (children != null) {
+                sendClusterFeatures(callbackID, children);
+                return;
+            }
+        }
+
         if (mSource == null) {
             WritableMap payload = new WritableNativeMap();
             payload.putString("error", "source is not yet loaded");
@@ -250,6 +637,15 @@ public class RCTMGLShapeSource extends RCTSource<GeoJsonSource> {
 
     // Deprecated. Will be removed in 9+ ver.
     public void getClusterExpansionZoomById(String callbackID, int clusterId) {
+        ClusterIndex clusterIndex = getClusterIndex();
+        if (clusterIndex != null) {
+            int zoom = clusterIndex.getExpansionZoom(clusterId);
+            if (zoom != -1) {
+                sendClusterExpansionZoom(callbackID, zoom);
+                return;
+            }
+        }
+
         if (mSource == null) {
             WritableMap payload = new WritableNativeMap();
             payload.putString("error", "source is not yet loaded");
@@ -280,6 +676,15 @@ public class RCTMGLShapeSource extends RCTSource<GeoJsonSource> {
 
     // Deprecated. Will be removed in 9+ ver.
     public void getClusterLeavesById(String callbackID, int clusterId, int number, int offset) {
+        ClusterIndex clusterIndex = getClusterIndex();
+        if (clusterIndex != null) {
+            List<Feature> leaves = clusterIndex.getLeaves(clusterId, number, offset);
+            if (leaves != null) {
+                sendClusterFeatures(callbackID, leaves);
+                return;
+            }
+        }
+
         if (mSource == null) {
             WritableMap payload = new WritableNativeMap();
             payload.putString("error", "source is not yet loaded");
@@ -298,6 +703,15 @@ public class RCTMGLShapeSource extends RCTSource<GeoJsonSource> {
 
     // Deprecated. Will be removed in 9+ ver.
     public void getClusterChildrenById(String callbackID, int clusterId) {
+        ClusterIndex clusterIndex = getClusterIndex();
+        if (clusterIndex != null) {
+            List<Feature> children = clusterIndex.getChildren(clusterId);
+            if (children != null) {
+                sendClusterFeatures(callbackID, children);
+                return;
+            }
+        }
+
         if (mSource == null) {
             WritableMap payload = new WritableNativeMap();
             payload.putString("error", "source is not yet loaded");
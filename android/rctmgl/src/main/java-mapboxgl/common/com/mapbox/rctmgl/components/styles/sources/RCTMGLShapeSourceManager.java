@@ -100,6 +100,14 @@ public class RCTMGLShapeSourceManager extends AbstractEventEmitter<RCTMGLShapeSo
         source.setShape(geoJSONStr);
     }
 
+    @ReactProp(name = "packedShape")
+    public void setPackedShape(RCTMGLShapeSource source, String packedShape) {
+        if (packedShape == null) {
+            return;
+        }
+        source.setPackedShape(packedShape);
+    }
+
     @ReactProp(name = "cluster")
     public void setCluster(RCTMGLShapeSource source, int cluster) {
         source.setCluster(cluster == 1);
@@ -139,6 +147,11 @@ public class RCTMGLShapeSourceManager extends AbstractEventEmitter<RCTMGLShapeSo
         source.setClusterProperties(properties);
     }
 
+    @ReactProp(name = "nativeClusterIndex")
+    public void setNativeClusterIndex(RCTMGLShapeSource source, boolean nativeClusterIndex) {
+        source.setNativeClusterIndex(nativeClusterIndex);
+    }
+
     @ReactProp(name = "maxZoomLevel")
     public void setMaxZoomLevel(RCTMGLShapeSource source, int maxZoom) {
         source.setMaxZoom(maxZoom);
@@ -182,6 +195,9 @@ public class RCTMGLShapeSourceManager extends AbstractEventEmitter<RCTMGLShapeSo
     public static final int METHOD_GET_CLUSTER_EXPANSION_ZOOM = 104;
     public static final int METHOD_GET_CLUSTER_LEAVES = 105;
     public static final int METHOD_GET_CLUSTER_CHILDREN = 106;
+    public static final int METHOD_ADD_FEATURES = 110;
+    public static final int METHOD_UPDATE_FEATURES = 111;
+    public static final int METHOD_REMOVE_FEATURES = 112;
 
     // Deprecated. Will be removed in 9+ ver.
     public static final int METHOD_GET_CLUSTER_EXPANSION_ZOOM_BY_ID = 107;
@@ -196,6 +212,9 @@ public class RCTMGLShapeSourceManager extends AbstractEventEmitter<RCTMGLShapeSo
                 .put("getClusterExpansionZoom", METHOD_GET_CLUSTER_EXPANSION_ZOOM)
                 .put("getClusterLeaves", METHOD_GET_CLUSTER_LEAVES)
                 .put("getClusterChildren", METHOD_GET_CLUSTER_CHILDREN)
+                .put("addFeatures", METHOD_ADD_FEATURES)
+                .put("updateFeatures", METHOD_UPDATE_FEATURES)
+                .put("removeFeatures", METHOD_REMOVE_FEATURES)
 
                 // Deprecated. Will be removed in 9+ ver.
                 .put("getClusterExpansionZoomById", METHOD_GET_CLUSTER_EXPANSION_ZOOM_BY_ID)
@@ -231,6 +250,15 @@ public class RCTMGLShapeSourceManager extends AbstractEventEmitter<RCTMGLShapeSo
                         args.getString(1)
                 );
                 break;
+            case METHOD_ADD_FEATURES:
+                source.addFeatures(args.getString(0), args.getString(1));
+                break;
+            case METHOD_UPDATE_FEATURES:
+                source.updateFeatures(args.getString(0), args.getString(1));
+                break;
+            case METHOD_REMOVE_FEATURES:
+                source.removeFeatures(args.getString(0), args.getArray(1));
+                break;
             case METHOD_GET_CLUSTER_EXPANSION_ZOOM_BY_ID:
                 source.getClusterExpansionZoomById(args.getString(0), args.getInt(1));
                 break;
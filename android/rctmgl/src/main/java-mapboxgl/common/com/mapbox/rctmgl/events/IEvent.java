@@ -13,6 +13,7 @@ public interface IEvent {
     long getTimestamp();
     boolean equals(IEvent event);
     boolean canCoalesce();
+    // the returned map is owned by the caller, events only hand out their payload once
     WritableMap getPayload();
     WritableMap toJSON();
 }
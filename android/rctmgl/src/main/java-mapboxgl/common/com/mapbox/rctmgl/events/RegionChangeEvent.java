@@ -0,0 +1,76 @@
+package com.mapbox.rctmgl.events;
+
+import android.view.View;
+
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.bridge.WritableNativeMap;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import com.mapbox.rctmgl.events.constants.EventKeys;
+import com.mapbox.rctmgl.utils.GeoJSONUtils;
+
+import javax.annotation.Nullable;
+
+/**
+ * Map change event of the region events, keeps a snapshot of the camera and only builds its
+ * payload when the event is sent over the bridge, so coalesced or throttled events stay cheap.
+ * That includes the visible bounds, they are resolved from the camera by the map view then.
+ */
+public class RegionChangeEvent extends AbstractEvent {
+    public interface VisibleBoundsResolver {
+        @Nullable
+        LatLngBounds getVisibleBounds(double latitude, double longitude, double zoomLevel, double heading, double pitch);
+    }
+
+    private final double mLatitude;
+    private final double mLongitude;
+    private final double mZoomLevel;
+    private final double mHeading;
+    private final double mPitch;
+    private final boolean mAnimated;
+    private final boolean mUserInteraction;
+    private final @Nullable VisibleBoundsResolver mVisibleBoundsResolver;
+
+    public RegionChangeEvent(View view, String eventType, double latitude, double longitude,
+                             double zoomLevel, double heading, double pitch, boolean animated,
+                             boolean userInteraction, @Nullable VisibleBoundsResolver visibleBoundsResolver) {
+        super(view, eventType);
+        mLatitude = latitude;
+        mLongitude = longitude;
+        mZoomLevel = zoomLevel;
+        mHeading = heading;
+        mPitch = pitch;
+        mAnimated = animated;
+        mUserInteraction = userInteraction;
+        mVisibleBoundsResolver = visibleBoundsResolver;
+    }
+
+    @Override
+    public String getKey() {
+        return EventKeys.MAP_ONCHANGE;
+    }
+
+    @Override
+    public WritableMap getPayload() {
+        WritableMap properties = new WritableNativeMap();
+        properties.putDouble("zoomLevel", mZoomLevel);
+        properties.putDouble("heading", mHeading);
+        properties.putDouble("pitch", mPitch);
+        properties.putBoolean("animated", mAnimated);
+        properties.putBoolean("isUserInteraction", mUserInteraction);
+        LatLngBounds visibleBounds = mVisibleBoundsResolver != null
+                ? mVisibleBoundsResolver.getVisibleBounds(mLatitude, mLongitude, mZoomLevel, mHeading, mPitch)
+                : null;
+        if (visibleBounds != null) {
+            properties.putArray("visibleBounds", GeoJSONUtils.fromLatLngBounds(visibleBounds));
+        }
+
+        return GeoJSONUtils.toPointFeature(new LatLng(mLatitude, mLongitude), properties);
+    }
+
+    @Override
+    public boolean canCoalesce() {
+        // same as MapChangeEvent, all map change events share EventKeys.MAP_ONCHANGE
+        return false;
+    }
+}
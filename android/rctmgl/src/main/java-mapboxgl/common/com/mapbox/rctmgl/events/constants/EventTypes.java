@@ -29,6 +29,8 @@ public class EventTypes {
 
     public static final String DID_FINISH_LOADING_STYLE = "didfinishloadingstyle";
 
+    public static final String PROJECTED_POINTS_CHANGE = "projectedpointschange";
+
     // point annotation event types
     public static final String ANNOTATION_SELECTED = "annotationselected";
     public static final String ANNOTATION_DESELECTED = "annotationdeselected";
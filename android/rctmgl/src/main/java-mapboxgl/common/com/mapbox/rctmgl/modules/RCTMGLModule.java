@@ -21,6 +21,7 @@ import com.mapbox.rctmgl.events.constants.EventTypes;
 import com.mapbox.rctmgl.http.CustomHeadersInterceptor;
 import com.mapbox.rctmgl.location.UserLocationVerticalAlignment;
 import com.mapbox.rctmgl.location.UserTrackingMode;
+import com.mapbox.rctmgl.utils.BitmapCache;
 import com.mapbox.mapboxsdk.maps.Style;
 
 import okhttp3.Dispatcher;
@@ -88,6 +89,7 @@ public class RCTMGLModule extends ReactContextBaseJavaModule {
         eventTypes.put("DidFinishRenderingMap", EventTypes.DID_FINISH_RENDERING_MAP);
         eventTypes.put("DidFinishRenderingMapFully", EventTypes.DID_FINISH_RENDERING_MAP_FULLY);
         eventTypes.put("DidFinishLoadingStyle", EventTypes.DID_FINISH_LOADING_STYLE);
+        eventTypes.put("ProjectedPointsChange", EventTypes.PROJECTED_POINTS_CHANGE);
 
         // user tracking modes
         Map<String, Integer> userTrackingModes = new HashMap<>();
@@ -336,6 +338,11 @@ public class RCTMGLModule extends ReactContextBaseJavaModule {
         });
     }
 
+    @ReactMethod
+    public void getImageCacheStats(Promise promise) {
+        promise.resolve(BitmapCache.getInstance(mReactContext).getStats());
+    }
+
     @ReactMethod
     public void getAccessToken(Promise promise) {
         String token = InstanceManagerImpl.getAccessToken();
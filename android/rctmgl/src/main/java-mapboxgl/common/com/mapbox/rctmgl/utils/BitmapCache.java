@@ -0,0 +1,133 @@
+package com.mapbox.rctmgl.utils;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.bridge.WritableNativeMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * Decoded images shared by all maps of the process, keyed by uri, scale and density, so images
+ * used by several styles or map screens are decoded once.
+ *
+ * Only images decoded by us are kept here, native images and resources bundled in release builds.
+ * Images loaded through Fresco, remote, file, asset and data uris, are served from Fresco's memory
+ * cache instead, their lookups there are recorded here so the stats cover all images.
+ *
+ * The cache takes an eighth of the memory class of the app and is trimmed when the system runs
+ * low on memory. Styles copy the pixels of images added to them, so cached bitmaps are never
+ * recycled, evicting them only drops the reference of the cache.
+ */
+public class BitmapCache implements ComponentCallbacks2 {
+    private static final int MEMORY_CLASS_FRACTION = 8;
+
+    private static BitmapCache sInstance;
+
+    private final LruCache<String, Bitmap> mCache;
+
+    private int mFrescoHits;
+    private int mFrescoMisses;
+
+    public static synchronized BitmapCache getInstance(Context context) {
+        if (sInstance == null) {
+            Context appContext = context.getApplicationContext();
+            ActivityManager activityManager = (ActivityManager) appContext.getSystemService(Context.ACTIVITY_SERVICE);
+            int maxSize = activityManager.getMemoryClass() * 1024 * 1024 / MEMORY_CLASS_FRACTION;
+
+            sInstance = new BitmapCache(maxSize);
+            appContext.registerComponentCallbacks(sInstance);
+        }
+        return sInstance;
+    }
+
+    /**
+     * The cache, or null if it wasn't created yet, for callers without a context.
+     */
+    public static synchronized @Nullable BitmapCache peekInstance() {
+        return sInstance;
+    }
+
+    public static String key(String uri, double scale, int densityDpi) {
+        return uri + "@" + scale + "/" + densityDpi;
+    }
+
+    private BitmapCache(int maxSize) {
+        mCache = new LruCache<String, Bitmap>(maxSize) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getByteCount();
+            }
+        };
+    }
+
+    public @Nullable Bitmap get(String key) {
+        return mCache.get(key);
+    }
+
+    public void put(String key, Bitmap bitmap) {
+        mCache.put(key, bitmap);
+    }
+
+    /**
+     * Records a lookup of an image loaded through Fresco in its memory cache.
+     */
+    public synchronized void recordFrescoLookup(boolean hit) {
+        if (hit) {
+            mFrescoHits++;
+        } else {
+            mFrescoMisses++;
+        }
+    }
+
+    public void clear() {
+        mCache.evictAll();
+    }
+
+    /**
+     * Hits, misses and the resulting hit rate since the cache was created, including the ones of
+     * images loaded through Fresco in its memory cache, which are also reported on their own, along
+     * with the size of this cache in bytes.
+     */
+    public synchronized WritableMap getStats() {
+        int hits = mCache.hitCount() + mFrescoHits;
+        int misses = mCache.missCount() + mFrescoMisses;
+
+        WritableMap stats = new WritableNativeMap();
+        stats.putInt("hits", hits);
+        stats.putInt("misses", misses);
+        stats.putInt("frescoHits", mFrescoHits);
+        stats.putInt("frescoMisses", mFrescoMisses);
+        stats.putDouble("hitRate", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        stats.putInt("evictions", mCache.evictionCount());
+        stats.putInt("size", mCache.size());
+        stats.putInt("maxSize", mCache.maxSize());
+        return stats;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_BACKGROUND) {
+            // the app is in the background, nothing is drawn until it comes back
+            mCache.evictAll();
+        } else if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            mCache.trimToSize(mCache.maxSize() / 2);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        mCache.evictAll();
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+    }
+}
@@ -9,7 +9,6 @@ import android.graphics.Color;
 import android.net.Uri;
 import android.util.Base64;
 import android.util.Log;
-import android.util.LruCache;
 import android.view.View;
 
 import java.io.ByteArrayOutputStream;
@@ -27,19 +26,14 @@ import java.net.URL;
 public class BitmapUtils {
     public static final String LOG_TAG = "BitmapUtils";
 
-    private  static int CACHE_SIZE = 1024 * 1024;
-    private static LruCache<String, Bitmap> mCache = new LruCache<String, Bitmap>(CACHE_SIZE) {
-        protected int sizeOf(String key, Bitmap bitmap) {
-            return bitmap.getByteCount();
-        }
-    };
-
     public static Bitmap getBitmapFromURL(String url) {
         return BitmapUtils.getBitmapFromURL(url, null);
     }
 
     public static Bitmap getBitmapFromURL(String url, BitmapFactory.Options options) {
-        Bitmap bitmap = getImage(url);
+        BitmapCache cache = BitmapCache.peekInstance();
+        String key = BitmapCache.key(url, ImageEntry.defaultScale, options != null ? options.inTargetDensity : 0);
+        Bitmap bitmap = cache != null ? cache.get(key) : null;
 
         if (bitmap != null) {
             return  bitmap;
@@ -49,7 +43,9 @@ public class BitmapUtils {
             InputStream bitmapStream = new URL(url).openStream();
             bitmap = BitmapFactory.decodeStream(bitmapStream, null, options);
             bitmapStream.close();
-            addImage(url, bitmap);
+            if (cache != null && bitmap != null) {
+                cache.put(key, bitmap);
+            }
         } catch (Exception e) {
             Log.w(LOG_TAG, e.getLocalizedMessage());
             bitmap = Bitmap.createBitmap(1, 1, Bitmap.Config.ALPHA_8); // Returns a transparent bitmap
@@ -59,9 +55,62 @@ public class BitmapUtils {
     }
 
     public static Bitmap getBitmapFromResource(Context context, String resourceName, BitmapFactory.Options options) {
+        return getBitmapFromResource(context, resourceName, options, 0);
+    }
+
+    /**
+     * Decodes the resource downsampled, so its larger side is at most maxSize, 0 decodes it at
+     * full size.
+     */
+    public static Bitmap getBitmapFromResource(Context context, String resourceName, BitmapFactory.Options options, int maxSize) {
         Resources resources = context.getResources();
         int resID = resources.getIdentifier(resourceName, "drawable", context.getPackageName());
-        return BitmapFactory.decodeResource(resources, resID, options);
+        if (maxSize > 0) {
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeResource(resources, resID, options);
+            options.inJustDecodeBounds = false;
+            options.inSampleSize = getSampleSize(options.outWidth, options.outHeight, maxSize);
+        }
+
+        Bitmap bitmap = BitmapFactory.decodeResource(resources, resID, options);
+        if (bitmap == null) {
+            return null;
+        }
+
+        // the sample size only gets close to maxSize, the rest is scaled down
+        Bitmap scaled = scaleToMaxSize(bitmap, maxSize);
+        if (scaled != bitmap) {
+            bitmap.recycle();
+        }
+        return scaled;
+    }
+
+    /**
+     * The largest power of two sample size which keeps the larger side of the image at least maxSize.
+     */
+    public static int getSampleSize(int width, int height, int maxSize) {
+        int size = Math.max(width, height);
+        int sampleSize = 1;
+        while (maxSize > 0 && size / (sampleSize * 2) >= maxSize) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * The bitmap scaled down so its larger side is maxSize, or the bitmap itself if it already fits
+     * or maxSize is 0.
+     */
+    public static Bitmap scaleToMaxSize(Bitmap bitmap, int maxSize) {
+        int size = Math.max(bitmap.getWidth(), bitmap.getHeight());
+        if (maxSize <= 0 || size <= maxSize) {
+            return bitmap;
+        }
+
+        double ratio = (double) maxSize / size;
+        int width = Math.max(1, (int) Math.round(bitmap.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(bitmap.getHeight() * ratio));
+        return Bitmap.createScaledBitmap(bitmap, width, height, true);
     }
 
     public static String createTempFile(Context context, Bitmap bitmap) {
@@ -108,14 +157,6 @@ public class BitmapUtils {
         return bitmap;
     }
 
-    private static void addImage(String imageURL, Bitmap bitmap) {
-        mCache.put(imageURL, bitmap);
-    }
-
-    private static Bitmap getImage(String imageURL) {
-        return mCache.get(imageURL);
-    }
-
     private static void closeSnapshotOutputStream(OutputStream outputStream) {
         if (outputStream == null) {
             return;
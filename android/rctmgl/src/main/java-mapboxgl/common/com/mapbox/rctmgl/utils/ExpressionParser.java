@@ -3,9 +3,9 @@ package com.mapbox.rctmgl.utils;
 import com.facebook.react.bridge.Dynamic;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
 import com.google.gson.JsonArray;
 import com.mapbox.mapboxsdk.style.expressions.Expression;
-import com.mapbox.mapboxsdk.style.expressions.Expression.Converter;
 
 import org.json.JSONArray;
 
@@ -20,19 +20,178 @@ public class ExpressionParser {
     static final String TYPE_MAP = "hashmap";
     static final String TYPE_BOOL = "boolean";
 
+    private static final int CACHE_SIZE = 256;
+
+    private static final ExpressionCache<Expression> sCache = new ExpressionCache<>(CACHE_SIZE);
+
     public static @Nullable Expression from(@Nullable  ReadableArray rawExpressions) {
         if (rawExpressions == null || rawExpressions.size() == 0) {
             return null;
         }
 
-        return Expression.Converter.convert(ConvertUtils.toJsonArray(rawExpressions));
+        ExpressionCache.Key key = ExpressionCache.keyOf(rawExpressions);
+        Expression expression = sCache.get(key);
+        if (expression == null) {
+            expression = compile(rawExpressions);
+            sCache.put(key, expression);
+        }
+        return expression;
     }
 
     public static Expression fromTyped(ReadableMap rawExpressions) {
-        JsonArray array = (JsonArray)ConvertUtils.typedToJsonElement(rawExpressions);
-        return Expression.Converter.convert(array);
+        ExpressionCache.Key key = ExpressionCache.keyOf(rawExpressions);
+        Expression expression = sCache.get(key);
+        if (expression == null) {
+            expression = compileTypedArray(rawExpressions);
+            sCache.put(key, expression);
+        }
+        return expression;
     }
 
+    /**
+     * Number of expressions served from the cache since start.
+     */
+    public static long getCacheHitCount() {
+        return sCache.getHitCount();
+    }
+
+    /**
+     * Number of expressions that had to be compiled since start.
+     */
+    public static long getCacheMissCount() {
+        return sCache.getMissCount();
+    }
+
+    // The compilers below build the expression tree straight from the bridge types, they follow
+    // Expression.Converter's rules (numbers as floats, null as "", primitive arrays under literal)
+    // and only take the Gson route for objects, which are rare in expressions.
+
+    private static Expression compile(ReadableArray array) {
+        if (array.size() == 0) {
+            throw new IllegalArgumentException("Can't convert empty jsonArray expressions");
+        }
+
+        if (array.getType(0) != ReadableType.String) {
+            return Expression.Converter.convert(ConvertUtils.toJsonArray(array));
+        }
+
+        String operator = array.getString(0);
+        boolean isLiteral = "literal".equals(operator);
+
+        Expression[] arguments = new Expression[array.size() - 1];
+        for (int i = 1; i < array.size(); i++) {
+            if (isLiteral && array.getType(i) == ReadableType.Array) {
+                arguments[i - 1] = compileLiteralArray(array.getArray(i));
+            } else {
+                arguments[i - 1] = compile(array, i);
+            }
+        }
+
+        return new Expression(operator, arguments);
+    }
+
+    private static Expression compile(ReadableArray array, int index) {
+        switch (array.getType(index)) {
+            case Array:
+                return compile(array.getArray(index));
+            case String:
+                return new Expression.ExpressionLiteral(array.getString(index));
+            case Number:
+                return new Expression.ExpressionLiteral((float) array.getDouble(index));
+            case Boolean:
+                return new Expression.ExpressionLiteral(array.getBoolean(index));
+            case Map:
+                return Expression.Converter.convert(ConvertUtils.toJsonObject(array.getMap(index)));
+            default:
+                return new Expression.ExpressionLiteral("");
+        }
+    }
+
+    private static Expression compileLiteralArray(ReadableArray array) {
+        Object[] values = new Object[array.size()];
+        for (int i = 0; i < array.size(); i++) {
+            switch (array.getType(i)) {
+                case String:
+                    values[i] = array.getString(i);
+                    break;
+                case Number:
+                    values[i] = (float) array.getDouble(i);
+                    break;
+                case Boolean:
+                    values[i] = array.getBoolean(i);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Nested literal arrays are not supported.");
+            }
+        }
+        return Expression.literal(values);
+    }
+
+    private static Expression compileTypedArray(ReadableMap item) {
+        ReadableArray entries = item.getArray("value");
+        if (entries.size() == 0) {
+            throw new IllegalArgumentException("Can't convert empty jsonArray expressions");
+        }
+
+        ReadableMap first = entries.getMap(0);
+        if (!TYPE_STRING.equals(first.getString("type"))) {
+            return Expression.Converter.convert((JsonArray) ConvertUtils.typedToJsonElement(item));
+        }
+
+        String operator = first.getString("value");
+        boolean isLiteral = "literal".equals(operator);
+
+        Expression[] arguments = new Expression[entries.size() - 1];
+        for (int i = 1; i < entries.size(); i++) {
+            ReadableMap entry = entries.getMap(i);
+            if (isLiteral && TYPE_ARRAY.equals(entry.getString("type"))) {
+                arguments[i - 1] = compileTypedLiteralArray(entry.getArray("value"));
+            } else {
+                arguments[i - 1] = compileTyped(entry);
+            }
+        }
+
+        return new Expression(operator, arguments);
+    }
+
+    private static Expression compileTyped(ReadableMap item) {
+        String type = item.getString("type");
+        switch (type) {
+            case TYPE_ARRAY:
+                return compileTypedArray(item);
+            case TYPE_STRING:
+                return new Expression.ExpressionLiteral(item.getString("value"));
+            case TYPE_NUMBER:
+                return new Expression.ExpressionLiteral((float) item.getDouble("value"));
+            case TYPE_BOOL:
+                return new Expression.ExpressionLiteral(item.getBoolean("value"));
+            case TYPE_MAP:
+                return Expression.Converter.convert(ConvertUtils.typedToJsonElement(item));
+            default:
+                throw new IllegalArgumentException("Unrecognized type " + type);
+        }
+    }
+
+    private static Expression compileTypedLiteralArray(ReadableArray entries) {
+        Object[] values = new Object[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            ReadableMap entry = entries.getMap(i);
+            switch (entry.getString("type")) {
+                case TYPE_STRING:
+                    values[i] = entry.getString("value");
+                    break;
+                case TYPE_NUMBER:
+                    values[i] = (float) entry.getDouble("value");
+                    break;
+                case TYPE_BOOL:
+                    values[i] = entry.getBoolean("value");
+                    break;
+                default:
+                    throw new IllegalArgumentException("Nested literal arrays are not supported.");
+            }
+        }
+        return Expression.literal(values);
+    }
 
 
     public static Expression from(ReadableMap rawExpression) {
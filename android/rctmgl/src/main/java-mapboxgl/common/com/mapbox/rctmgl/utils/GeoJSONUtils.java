@@ -8,110 +8,67 @@ import com.facebook.react.bridge.WritableNativeArray;
 import com.facebook.react.bridge.WritableNativeMap;
 import com.mapbox.geojson.Feature;
 import com.mapbox.geojson.FeatureCollection;
+import com.mapbox.geojson.GeoJsonAdapterFactory;
 import com.mapbox.geojson.Geometry;
 import com.mapbox.geojson.GeometryCollection;
 import com.mapbox.geojson.LineString;
 import com.mapbox.geojson.MultiPoint;
 import com.mapbox.geojson.Point;
 import com.mapbox.geojson.Polygon;
+import com.mapbox.geojson.gson.GeometryAdapterFactory;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.mapbox.mapboxsdk.geometry.LatLng;
 import com.mapbox.mapboxsdk.geometry.LatLngBounds;
 import com.mapbox.mapboxsdk.geometry.LatLngQuad;
 import com.mapbox.mapboxsdk.style.light.Position;
 import com.mapbox.turf.TurfMeasurement;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 /**
  * Created by nickitaliano on 11/7/17.
  */
 
 public class GeoJSONUtils {
     public static WritableMap fromFeature(Feature feature) {
-        WritableMap map = Arguments.createMap();
-        map.putString("type", "Feature");
-        map.putString("id", feature.id());
-
-        WritableMap geometry = fromGeometry(feature.geometry());
-        map.putMap("geometry", geometry);
-
-        WritableMap properties = ConvertUtils.toWritableMap(feature.properties());
-        map.putMap("properties", properties);
-
-        return map;
+        return GeoJSONWriter.NATIVE.writeFeature(feature);
     }
 
-    public static WritableMap fromGeometry(Geometry geometry) {
-        final String type = geometry.type();
-
-        switch (type) {
-            case "Point":
-                return fromPoint((Point) geometry);
-            case "LineString":
-                return fromLineString((LineString) geometry);
-            case "Polygon":
-                return fromPolygon((Polygon) geometry);
-            default:
-                return null;
-        }
+    public static @Nullable WritableMap fromGeometry(Geometry geometry) {
+        return GeoJSONWriter.NATIVE.writeGeometry(geometry);
     }
 
-    public static WritableMap fromPoint(Point point) {
-        WritableMap map = Arguments.createMap();
-        map.putString("type", "Point");
-        map.putArray("coordinates", getCoordinates(point));
-        return map;
+    public static @Nullable WritableMap fromPoint(Point point) {
+        return GeoJSONWriter.NATIVE.writeGeometry(point);
     }
 
-    public static WritableMap fromLineString(LineString lineString) {
-        WritableMap map = Arguments.createMap();
-        map.putString("type", "LineString");
-        map.putArray("coordinates", getCoordinates(lineString));
-        return map;
+    public static @Nullable WritableMap fromLineString(LineString lineString) {
+        return GeoJSONWriter.NATIVE.writeGeometry(lineString);
     }
 
-    public static WritableMap fromPolygon(Polygon polygon) {
-        WritableMap map = Arguments.createMap();
-        map.putString("type", "Polygon");
-        map.putArray("coordinates", getCoordinates(polygon));
-        return map;
+    public static @Nullable WritableMap fromPolygon(Polygon polygon) {
+        return GeoJSONWriter.NATIVE.writeGeometry(polygon);
     }
 
-    public static WritableArray getCoordinates(Point point) {
-        return Arguments.fromArray(pointToDoubleArray(point));
+    public static @Nullable WritableArray getCoordinates(Point point) {
+        return GeoJSONWriter.NATIVE.writeCoordinates(point);
     }
 
     public static WritableArray getCoordinates(LineString lineString) {
-        WritableArray array = Arguments.createArray();
-
-        List<Point> points = lineString.coordinates();
-        for (Point point : points) {
-            array.pushArray(Arguments.fromArray(pointToDoubleArray(point)));
-        }
-
-        return array;
+        return GeoJSONWriter.NATIVE.writePoints(lineString.coordinates());
     }
 
     public static WritableArray getCoordinates(Polygon polygon) {
-        WritableArray array = Arguments.createArray();
-
-        List<List<Point>> points = polygon.coordinates();
-        if (points == null) {
-            return array;
-        }
-
-        for (List<Point> curPoint : points) {
-            WritableArray innerArray = Arguments.createArray();
-
-            for (Point point : curPoint) {
-                innerArray.pushArray(Arguments.fromArray(pointToDoubleArray(point)));
-            }
-
-            array.pushArray(innerArray);
-        }
-
-        return array;
+        return GeoJSONWriter.NATIVE.writeRings(polygon.coordinates());
     }
 
     public static WritableMap toPointFeature(LatLng latLng, WritableMap properties) {
@@ -170,6 +127,52 @@ public class GeoJSONUtils {
         return array;
     }
 
+    private static Gson sGeoJSONGson;
+
+    private static synchronized Gson getGeoJSONGson() {
+        if (sGeoJSONGson == null) {
+            sGeoJSONGson = new GsonBuilder()
+                    .registerTypeAdapterFactory(GeoJsonAdapterFactory.create())
+                    .registerTypeAdapterFactory(GeometryAdapterFactory.create())
+                    .create();
+        }
+        return sGeoJSONGson;
+    }
+
+    /**
+     * Parses a GeoJSON geometry, feature or feature collection into a FeatureCollection.
+     */
+    public static FeatureCollection toFeatureCollection(String json) {
+        Gson gson = getGeoJSONGson();
+
+        String type = peekType(json);
+        if ("FeatureCollection".equals(type)) {
+            return gson.fromJson(json, FeatureCollection.class);
+        } else if ("Feature".equals(type)) {
+            return FeatureCollection.fromFeature(gson.fromJson(json, Feature.class));
+        } else {
+            return FeatureCollection.fromFeature(Feature.fromGeometry(gson.fromJson(json, Geometry.class)));
+        }
+    }
+
+    // reads the top level type without building a tree of the document, large shapes are only
+    // parsed once by the typed adapters
+    private static @Nullable String peekType(String json) {
+        try {
+            JsonReader reader = new JsonReader(new StringReader(json));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("type".equals(reader.nextName()) && reader.peek() == JsonToken.STRING) {
+                    return reader.nextString();
+                }
+                reader.skipValue();
+            }
+            return null;
+        } catch (IOException | IllegalStateException e) {
+            throw new JsonParseException("Invalid GeoJSON", e);
+        }
+    }
+
     private static GeometryCollection toGeometryCollection(List<Feature> features) {
         ArrayList<Geometry> geometries = new ArrayList<>();
         geometries.ensureCapacity(features.size());
@@ -5,6 +5,13 @@ public class ImageEntry {
     public double scale = 1.0;
     public static final double defaultScale = 0.0;
 
+    // decode policy, the image is scaled down so its larger side is at most maxSize, 0 keeps the
+    // full size
+    public int maxSize = 0;
+    // images without transparency are decoded without alpha channel, which halves the memory of
+    // the decoded bitmap in the caches, styles still convert it to ARGB_8888 when it's added
+    public boolean opaque = false;
+
     public ImageEntry(String _uri, Double _scale) {
         uri = _uri;
         scale = _scale;
@@ -15,6 +22,12 @@ public class ImageEntry {
         scale = ImageEntry.defaultScale;
     }
 
+    public ImageEntry(String _uri, Double _scale, int _maxSize, boolean _opaque) {
+        this(_uri, _scale);
+        maxSize = _maxSize;
+        opaque = _opaque;
+    }
+
     public double getScaleOr(double v) {
         if (scale == ImageEntry.defaultScale) {
             return v;
@@ -22,4 +35,18 @@ public class ImageEntry {
             return scale;
         }
     }
+
+    /**
+     * Key of the decoded image, images decoded with different policies are cached separately.
+     */
+    public String getCacheKey(int densityDpi) {
+        String key = BitmapCache.key(uri, scale, densityDpi);
+        if (maxSize > 0) {
+            key += "/max" + maxSize;
+        }
+        if (opaque) {
+            key += "/opaque";
+        }
+        return key;
+    }
 }
@@ -0,0 +1,367 @@
+package com.mapbox.rctmgl.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.view.Choreographer;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.common.references.CloseableReference;
+import com.facebook.datasource.DataSource;
+import com.facebook.datasource.DataSources;
+import com.facebook.drawee.backends.pipeline.Fresco;
+import com.facebook.imagepipeline.common.ImageDecodeOptions;
+import com.facebook.imagepipeline.common.ResizeOptions;
+import com.facebook.imagepipeline.common.RotationOptions;
+import com.facebook.imagepipeline.image.CloseableImage;
+import com.facebook.imagepipeline.image.CloseableStaticBitmap;
+import com.facebook.imagepipeline.request.ImageRequest;
+import com.facebook.imagepipeline.request.ImageRequestBuilder;
+import com.facebook.react.views.imagehelper.ImageSource;
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+import com.mapbox.mapboxsdk.maps.Style;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.Nullable;
+
+/**
+ * Loads images referenced by styles and adds them to the style of a map.
+ *
+ * Images are fetched and decoded on a small pool of threads, so they load in parallel, and
+ * concurrent requests for the same image share one load. Images are decoded as their ImageEntry
+ * asks for, downsampled and without alpha channel if they are opaque. Images are collected and
+ * added to each style with one addImages call per frame.
+ *
+ * Images decoded by Fresco stay in its memory cache, their Fresco reference is kept until they
+ * were added to the styles, so they don't have to be copied. They are looked up in Fresco's memory
+ * cache rather than the shared BitmapCache, which only keeps the other images, and count as Fresco
+ * hits or misses in its stats.
+ *
+ * All methods have to be called on the main thread.
+ */
+public class MapImageLoader {
+    public static final String LOG_TAG = "MapImageLoader";
+
+    private static final int MAX_PARALLEL_LOADS = 4;
+
+    public interface OnAllImagesLoaded {
+        void onAllImagesLoaded();
+    }
+
+    private static class Request {
+        private final @Nullable OnAllImagesLoaded mCallback;
+        private int mRemaining;
+
+        private Request(@Nullable OnAllImagesLoaded callback, int remaining) {
+            mCallback = callback;
+            mRemaining = remaining;
+        }
+    }
+
+    // a map image waiting for a load
+    private static class Target {
+        private final MapboxMap mMap;
+        private final String mName;
+        private final Request mRequest;
+
+        private Target(MapboxMap map, String name, Request request) {
+            mMap = map;
+            mName = name;
+            mRequest = request;
+        }
+    }
+
+    private static class LoadedImage {
+        private final Bitmap mBitmap;
+        // density the image is added to styles with, which sets its pixel ratio
+        private final int mDensity;
+        // set if the bitmap is owned by Fresco, it's released after the next commit
+        private final @Nullable CloseableReference<CloseableImage> mReference;
+
+        private LoadedImage(Bitmap bitmap, int density, @Nullable CloseableReference<CloseableImage> reference) {
+            mBitmap = bitmap;
+            mDensity = density;
+            mReference = reference;
+        }
+    }
+
+    private static final ExecutorService sExecutor = Executors.newFixedThreadPool(MAX_PARALLEL_LOADS);
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    // targets of the loads in flight, by cache key
+    private static final Map<String, List<Target>> sLoads = new HashMap<>();
+
+    // images to add to the style of each map with the next frame, and the requests completed by them
+    private static final Map<MapboxMap, HashMap<String, LoadedImage>> sPendingImages = new IdentityHashMap<>();
+    private static final List<Request> sPendingRequests = new ArrayList<>();
+    private static final List<CloseableReference<CloseableImage>> sPendingReferences = new ArrayList<>();
+    private static boolean sFrameScheduled = false;
+
+    private static final Choreographer.FrameCallback sFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            sFrameScheduled = false;
+            commit();
+        }
+    };
+
+    private MapImageLoader() {
+    }
+
+    /**
+     * Loads the images and adds them to the style of the map under their keys. The callback is
+     * called once all of them were added, or failed to load.
+     */
+    public static void load(Context context, MapboxMap map, List<Map.Entry<String, ImageEntry>> images, @Nullable OnAllImagesLoaded callback) {
+        Request request = new Request(callback, images.size());
+        if (images.isEmpty()) {
+            sPendingRequests.add(request);
+            scheduleCommit();
+            return;
+        }
+
+        Context appContext = context.getApplicationContext();
+        BitmapCache cache = BitmapCache.getInstance(appContext);
+        int densityDpi = appContext.getResources().getDisplayMetrics().densityDpi;
+
+        for (Map.Entry<String, ImageEntry> image : images) {
+            final ImageEntry imageEntry = image.getValue();
+            final String key = imageEntry.getCacheKey(densityDpi);
+
+            // Fresco serves its images from its own memory cache
+            final ImageRequest frescoRequest;
+            Bitmap bitmap = null;
+            if (isLoadedByFresco(imageEntry.uri)) {
+                frescoRequest = getFrescoRequest(appContext, imageEntry);
+                cache.recordFrescoLookup(Fresco.getImagePipeline().isInBitmapMemoryCache(frescoRequest));
+            } else {
+                frescoRequest = null;
+                bitmap = cache.get(key);
+            }
+            if (bitmap != null) {
+                onTargetLoaded(new Target(map, image.getKey(), request), new LoadedImage(bitmap, bitmap.getDensity(), null));
+                scheduleCommit();
+                continue;
+            }
+
+            List<Target> targets = sLoads.get(key);
+            if (targets != null) {
+                targets.add(new Target(map, image.getKey(), request));
+                continue;
+            }
+
+            targets = new ArrayList<>();
+            targets.add(new Target(map, image.getKey(), request));
+            sLoads.put(key, targets);
+
+            sExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final LoadedImage loadedImage = loadImage(appContext, imageEntry, frescoRequest);
+                    sMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onLoaded(key, loadedImage, frescoRequest == null);
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    private static void onLoaded(String key, @Nullable LoadedImage image, boolean cached) {
+        List<Target> targets = sLoads.remove(key);
+        if (targets == null) {
+            if (image != null && image.mReference != null) {
+                CloseableReference.closeSafely(image.mReference);
+            }
+            return;
+        }
+
+        if (image != null) {
+            if (image.mReference != null) {
+                sPendingReferences.add(image.mReference);
+            } else if (cached) {
+                BitmapCache cache = BitmapCache.peekInstance();
+                if (cache != null) {
+                    cache.put(key, image.mBitmap);
+                }
+            }
+        }
+
+        for (Target target : targets) {
+            onTargetLoaded(target, image);
+        }
+        scheduleCommit();
+    }
+
+    private static void onTargetLoaded(Target target, @Nullable LoadedImage image) {
+        if (image != null) {
+            HashMap<String, LoadedImage> images = sPendingImages.get(target.mMap);
+            if (images == null) {
+                images = new HashMap<>();
+                sPendingImages.put(target.mMap, images);
+            }
+            images.put(target.mName, image);
+        }
+
+        target.mRequest.mRemaining--;
+        if (target.mRequest.mRemaining == 0) {
+            sPendingRequests.add(target.mRequest);
+        }
+    }
+
+    private static void scheduleCommit() {
+        if (sFrameScheduled) {
+            return;
+        }
+        sFrameScheduled = true;
+        Choreographer.getInstance().postFrameCallback(sFrameCallback);
+    }
+
+    private static void commit() {
+        for (Map.Entry<MapboxMap, HashMap<String, LoadedImage>> entry : sPendingImages.entrySet()) {
+            Style style = entry.getKey().getStyle();
+            if (style != null) {
+                addImages(style, entry.getValue());
+            }
+        }
+        sPendingImages.clear();
+
+        // the styles copied the pixels, Fresco can have its bitmaps back
+        for (CloseableReference<CloseableImage> reference : sPendingReferences) {
+            CloseableReference.closeSafely(reference);
+        }
+        sPendingReferences.clear();
+
+        List<Request> requests = new ArrayList<>(sPendingRequests);
+        sPendingRequests.clear();
+        for (Request request : requests) {
+            if (request.mCallback != null) {
+                request.mCallback.onAllImagesLoaded();
+            }
+        }
+    }
+
+    private static void addImages(Style style, HashMap<String, LoadedImage> images) {
+        // the pixel ratio of added images comes from their density, bitmaps owned by Fresco may
+        // be drawn elsewhere, so their density is only changed while they are added
+        HashMap<String, Bitmap> bitmaps = new HashMap<>();
+        IdentityHashMap<Bitmap, Integer> densities = new IdentityHashMap<>();
+        for (Map.Entry<String, LoadedImage> image : images.entrySet()) {
+            LoadedImage loadedImage = image.getValue();
+            Bitmap bitmap = loadedImage.mBitmap;
+            if (!densities.containsKey(bitmap)) {
+                densities.put(bitmap, bitmap.getDensity());
+                bitmap.setDensity(loadedImage.mDensity);
+            }
+            bitmaps.put(image.getKey(), bitmap);
+        }
+
+        style.addImages(bitmaps);
+
+        for (Map.Entry<Bitmap, Integer> density : densities.entrySet()) {
+            density.getKey().setDensity(density.getValue());
+        }
+    }
+
+    private static boolean isLoadedByFresco(String uri) {
+        return uri.startsWith("/") || uri.startsWith("http://") || uri.startsWith("https://") ||
+            uri.startsWith("file://") || uri.startsWith("asset://") || uri.startsWith("data:");
+    }
+
+    private static ImageRequest getFrescoRequest(Context context, ImageEntry imageEntry) {
+        String uri = imageEntry.uri;
+        if (uri.startsWith("/")) {
+            uri = Uri.fromFile(new File(uri)).toString();
+        }
+
+        ImageSource source = new ImageSource(context, uri);
+        ImageRequestBuilder builder = ImageRequestBuilder.newBuilderWithSource(source.getUri())
+            .setRotationOptions(RotationOptions.autoRotate());
+        if (imageEntry.maxSize > 0) {
+            builder.setResizeOptions(new ResizeOptions(imageEntry.maxSize, imageEntry.maxSize));
+        }
+        if (imageEntry.opaque) {
+            builder.setImageDecodeOptions(ImageDecodeOptions.newBuilder()
+                .setBitmapConfig(Bitmap.Config.RGB_565)
+                .build());
+        }
+        return builder.build();
+    }
+
+    private static @Nullable LoadedImage loadImage(Context context, ImageEntry imageEntry, @Nullable ImageRequest frescoRequest) {
+        String uri = imageEntry.uri;
+
+        if (frescoRequest != null) {
+            DataSource<CloseableReference<CloseableImage>> dataSource =
+                Fresco.getImagePipeline().fetchDecodedImage(frescoRequest, LOG_TAG);
+
+            CloseableReference<CloseableImage> result = null;
+            try {
+                result = DataSources.waitForFinalResult(dataSource);
+                if (result != null) {
+                    CloseableImage image = result.get();
+                    if (image instanceof CloseableStaticBitmap) {
+                        Bitmap bitmap = ((CloseableStaticBitmap) image).getUnderlyingBitmap();
+                        int density = (int) ((double) DisplayMetrics.DENSITY_DEFAULT * imageEntry.getScaleOr(1.0));
+                        // Fresco resizes to about maxSize, larger images are scaled down into a
+                        // copy owned by us and dropped once added, Fresco keeps the decoded image
+                        Bitmap scaled = BitmapUtils.scaleToMaxSize(bitmap, imageEntry.maxSize);
+                        if (scaled != bitmap) {
+                            return new LoadedImage(scaled, density, null);
+                        }
+                        LoadedImage loadedImage = new LoadedImage(bitmap, density, result);
+                        // the reference is released once the image was added
+                        result = null;
+                        return loadedImage;
+                    }
+                }
+                FLog.e(LOG_TAG, "Failed to load bitmap from: " + uri);
+            } catch (Throwable e) {
+                Log.w(LOG_TAG, e.getLocalizedMessage());
+            } finally {
+                dataSource.close();
+                if (result != null) {
+                    CloseableReference.closeSafely(result);
+                }
+            }
+            return null;
+        }
+
+        // local asset required from JS require('image.png') or import icon from 'image.png' while in release mode
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        Bitmap bitmap = BitmapUtils.getBitmapFromResource(context, uri, getBitmapOptions(metrics, imageEntry), imageEntry.maxSize);
+        if (bitmap == null) {
+            FLog.e(LOG_TAG, "Failed to load bitmap from: " + uri);
+            return null;
+        }
+        return new LoadedImage(bitmap, bitmap.getDensity(), null);
+    }
+
+    private static BitmapFactory.Options getBitmapOptions(DisplayMetrics metrics, ImageEntry imageEntry) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inScreenDensity = metrics.densityDpi;
+        options.inTargetDensity = metrics.densityDpi;
+        if (imageEntry.scale != ImageEntry.defaultScale) {
+            options.inDensity = (int) ((double) DisplayMetrics.DENSITY_DEFAULT * imageEntry.scale);
+        }
+        if (imageEntry.opaque) {
+            options.inPreferredConfig = Bitmap.Config.RGB_565;
+        }
+        return options;
+    }
+}
@@ -0,0 +1,178 @@
+package com.mapbox.rctmgl.utils;
+
+import android.util.Base64;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.FeatureCollection;
+import com.mapbox.geojson.Geometry;
+import com.mapbox.geojson.LineString;
+import com.mapbox.geojson.MultiLineString;
+import com.mapbox.geojson.MultiPoint;
+import com.mapbox.geojson.Point;
+import com.mapbox.geojson.Polygon;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the packed binary shape produced by javascript/utils/packedShape.js into a
+ * FeatureCollection without going through a JSON parser for coordinates.
+ *
+ * Feature ids of mapbox-java are strings, so numeric ids are decoded into their string form and
+ * reach the renderer as strings, unlike ids of shapes sent as JSON.
+ */
+public class PackedShapeDecoder {
+    public static final int VERSION = 2;
+
+    private static final int HEADER_BYTES = 16;
+
+    private static final int GEOMETRY_POINT = 1;
+    private static final int GEOMETRY_MULTI_POINT = 2;
+    private static final int GEOMETRY_LINE_STRING = 3;
+    private static final int GEOMETRY_MULTI_LINE_STRING = 4;
+    private static final int GEOMETRY_POLYGON = 5;
+
+    private static final int TAG_ABSENT = 0;
+    private static final int TAG_NULL = 1;
+    private static final int TAG_NUMBER = 2;
+    private static final int TAG_STRING = 3;
+    private static final int TAG_TRUE = 4;
+    private static final int TAG_FALSE = 5;
+    private static final int TAG_JSON = 6;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    public static FeatureCollection decode(String base64) {
+        return decode(Base64.decode(base64, Base64.DEFAULT));
+    }
+
+    public static FeatureCollection decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+        int version = buffer.getInt(0);
+        if (version != VERSION) {
+            throw new IllegalArgumentException(String.format("Unsupported packed shape version %d", version));
+        }
+
+        int featureCount = buffer.getInt(4);
+        int positionCount = buffer.getInt(8);
+
+        int coordinatesOffset = HEADER_BYTES;
+        buffer.position(coordinatesOffset + positionCount * 16);
+
+        int position = 0;
+        Geometry[] geometries = new Geometry[featureCount];
+        for (int i = 0; i < featureCount; i++) {
+            int type = buffer.getInt();
+            int partCount = buffer.getInt();
+
+            List<List<Point>> parts = new ArrayList<>(partCount);
+            for (int j = 0; j < partCount; j++) {
+                int length = buffer.getInt();
+                List<Point> points = new ArrayList<>(length);
+                for (int p = 0; p < length; p++) {
+                    int offset = coordinatesOffset + position * 16;
+                    points.add(Point.fromLngLat(buffer.getDouble(offset), buffer.getDouble(offset + 8)));
+                    position++;
+                }
+                parts.add(points);
+            }
+
+            geometries[i] = toGeometry(type, parts);
+        }
+
+        int stringCount = buffer.getInt();
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            int length = buffer.getInt();
+            strings[i] = new String(bytes, buffer.position(), length, UTF8);
+            buffer.position(buffer.position() + length);
+        }
+
+        int keyCount = buffer.getInt();
+        String[] keys = new String[keyCount];
+        for (int k = 0; k < keyCount; k++) {
+            keys[k] = strings[buffer.getInt()];
+        }
+
+        List<Feature> features = new ArrayList<>(featureCount);
+        for (int i = 0; i < featureCount; i++) {
+            String id = readId(buffer, strings);
+
+            JsonObject properties = new JsonObject();
+            for (int k = 0; k < keyCount; k++) {
+                int tag = buffer.get();
+                switch (tag) {
+                    case TAG_ABSENT:
+                        break;
+                    case TAG_NULL:
+                        properties.add(keys[k], null);
+                        break;
+                    case TAG_NUMBER:
+                        properties.addProperty(keys[k], buffer.getDouble());
+                        break;
+                    case TAG_STRING:
+                        properties.addProperty(keys[k], strings[buffer.getInt()]);
+                        break;
+                    case TAG_TRUE:
+                        properties.addProperty(keys[k], true);
+                        break;
+                    case TAG_FALSE:
+                        properties.addProperty(keys[k], false);
+                        break;
+                    case TAG_JSON:
+                        properties.add(keys[k], new JsonParser().parse(strings[buffer.getInt()]));
+                        break;
+                    default:
+                        throw new IllegalArgumentException(String.format("Unrecognized value tag %d", tag));
+                }
+            }
+
+            features.add(Feature.fromGeometry(geometries[i], properties, id));
+        }
+
+        return FeatureCollection.fromFeatures(features);
+    }
+
+    private static String readId(ByteBuffer buffer, String[] strings) {
+        int tag = buffer.get();
+        switch (tag) {
+            case TAG_ABSENT:
+                return null;
+            case TAG_NUMBER:
+                // Feature ids are strings, integral ids are written the way JSON.stringify writes them,
+                // the renderer gets them as strings too
+                double id = buffer.getDouble();
+                if (id == Math.rint(id) && !Double.isInfinite(id) && Math.abs(id) < 1e15) {
+                    return Long.toString((long) id);
+                }
+                return Double.toString(id);
+            case TAG_STRING:
+                return strings[buffer.getInt()];
+            default:
+                throw new IllegalArgumentException(String.format("Unrecognized id tag %d", tag));
+        }
+    }
+
+    private static Geometry toGeometry(int type, List<List<Point>> parts) {
+        switch (type) {
+            case GEOMETRY_POINT:
+                return parts.get(0).get(0);
+            case GEOMETRY_MULTI_POINT:
+                return MultiPoint.fromLngLats(parts.get(0));
+            case GEOMETRY_LINE_STRING:
+                return LineString.fromLngLats(parts.get(0));
+            case GEOMETRY_MULTI_LINE_STRING:
+                return MultiLineString.fromLngLats(parts);
+            case GEOMETRY_POLYGON:
+                return Polygon.fromLngLats(parts);
+            default:
+                throw new IllegalArgumentException(String.format("Unrecognized geometry type %d", type));
+        }
+    }
+}
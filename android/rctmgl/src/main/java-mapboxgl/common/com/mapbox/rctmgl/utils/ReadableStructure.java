@@ -0,0 +1,212 @@
+package com.mapbox.rctmgl.utils;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.ReadableType;
+
+/**
+ * Structural hashing and equality of bridge values, independent of the ReadableArray and
+ * ReadableMap implementation in use.
+ */
+public class ReadableStructure {
+    // most values a hash looks at, larger values are hashed by their shape and first entries only
+    // and told apart by equal() when their hashes collide, so hashing stays cheap for big literals
+    private static final int HASH_BUDGET = 64;
+
+    public static int hash(ReadableArray array) {
+        return hash(array, HASH_BUDGET);
+    }
+
+    public static int hash(ReadableMap map) {
+        return hash(map, HASH_BUDGET);
+    }
+
+    // the budget is split evenly between the entries of a container, so at most budget values are
+    // read however large or deep the value is
+    private static int hash(ReadableArray array, int budget) {
+        int size = array.size();
+        int hash = size;
+        int count = Math.min(size, budget - 1);
+        if (count <= 0) {
+            return hash;
+        }
+
+        int share = (budget - 1) / count;
+        for (int i = 0; i < count; i++) {
+            ReadableType type = array.getType(i);
+            int valueHash;
+            switch (type) {
+                case Array:
+                    valueHash = hash(array.getArray(i), share);
+                    break;
+                case Map:
+                    valueHash = hash(array.getMap(i), share);
+                    break;
+                case String:
+                    valueHash = array.getString(i).hashCode();
+                    break;
+                case Number:
+                    valueHash = hash(array.getDouble(i));
+                    break;
+                case Boolean:
+                    valueHash = array.getBoolean(i) ? 1231 : 1237;
+                    break;
+                default:
+                    valueHash = 0;
+                    break;
+            }
+            hash = 31 * hash + 7 * type.ordinal() + valueHash;
+        }
+        return hash;
+    }
+
+    private static int hash(ReadableMap map, int budget) {
+        // key order doesn't matter for maps, so every entry gets the same share instead of
+        // whatever the entries before it left over
+        int size = 0;
+        ReadableMapKeySetIterator it = map.keySetIterator();
+        while (it.hasNextKey() && size < budget) {
+            it.nextKey();
+            size++;
+        }
+        if (size == 0 || size >= budget) {
+            return size;
+        }
+
+        int share = (budget - 1) / size;
+        int hash = 0;
+        it = map.keySetIterator();
+        while (it.hasNextKey()) {
+            String key = it.nextKey();
+            ReadableType type = map.getType(key);
+            int valueHash;
+            switch (type) {
+                case Array:
+                    valueHash = hash(map.getArray(key), share);
+                    break;
+                case Map:
+                    valueHash = hash(map.getMap(key), share);
+                    break;
+                case String:
+                    valueHash = map.getString(key).hashCode();
+                    break;
+                case Number:
+                    valueHash = hash(map.getDouble(key));
+                    break;
+                case Boolean:
+                    valueHash = map.getBoolean(key) ? 1231 : 1237;
+                    break;
+                default:
+                    valueHash = 0;
+                    break;
+            }
+            hash += key.hashCode() ^ (7 * type.ordinal() + valueHash);
+        }
+        return hash;
+    }
+
+    private static int hash(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return (int) (bits ^ (bits >>> 32));
+    }
+
+    public static boolean equal(ReadableArray a, ReadableArray b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < a.size(); i++) {
+            ReadableType type = a.getType(i);
+            if (type != b.getType(i)) {
+                return false;
+            }
+
+            switch (type) {
+                case Array:
+                    if (!equal(a.getArray(i), b.getArray(i))) {
+                        return false;
+                    }
+                    break;
+                case Map:
+                    if (!equal(a.getMap(i), b.getMap(i))) {
+                        return false;
+                    }
+                    break;
+                case String:
+                    if (!a.getString(i).equals(b.getString(i))) {
+                        return false;
+                    }
+                    break;
+                case Number:
+                    if (Double.doubleToLongBits(a.getDouble(i)) != Double.doubleToLongBits(b.getDouble(i))) {
+                        return false;
+                    }
+                    break;
+                case Boolean:
+                    if (a.getBoolean(i) != b.getBoolean(i)) {
+                        return false;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return true;
+    }
+
+    public static boolean equal(ReadableMap a, ReadableMap b) {
+        int size = 0;
+        ReadableMapKeySetIterator it = a.keySetIterator();
+        while (it.hasNextKey()) {
+            String key = it.nextKey();
+            size++;
+
+            if (!b.hasKey(key)) {
+                return false;
+            }
+
+            ReadableType type = a.getType(key);
+            if (type != b.getType(key)) {
+                return false;
+            }
+
+            switch (type) {
+                case Array:
+                    if (!equal(a.getArray(key), b.getArray(key))) {
+                        return false;
+                    }
+                    break;
+                case Map:
+                    if (!equal(a.getMap(key), b.getMap(key))) {
+                        return false;
+                    }
+                    break;
+                case String:
+                    if (!a.getString(key).equals(b.getString(key))) {
+                        return false;
+                    }
+                    break;
+                case Number:
+                    if (Double.doubleToLongBits(a.getDouble(key)) != Double.doubleToLongBits(b.getDouble(key))) {
+                        return false;
+                    }
+                    break;
+                case Boolean:
+                    if (a.getBoolean(key) != b.getBoolean(key)) {
+                        return false;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        it = b.keySetIterator();
+        while (it.hasNextKey()) {
+            it.nextKey();
+            size--;
+        }
+        return size == 0;
+    }
+}
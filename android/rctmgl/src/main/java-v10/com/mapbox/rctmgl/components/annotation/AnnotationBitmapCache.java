@@ -0,0 +1,208 @@
+package com.mapbox.rctmgl.components.annotation;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.util.LongSparseArray;
+import android.view.View;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Style images of rendered annotation views, shared between the annotations of a map view by
+ * content. Views are rendered into pooled bitmaps and hashed, annotations rendering identical
+ * pixels get the same image id, so the style holds one image per distinct visual.
+ *
+ * Images nobody references anymore are kept for a while, so annotations switching back and forth
+ * between visuals don't re-add them, and are handed to the listener for removal from the style
+ * once evicted. Their bitmaps then go back to the pool.
+ */
+public class AnnotationBitmapCache {
+    public interface OnImageEvictedListener {
+        void onImageEvicted(String imageId);
+    }
+
+    public static class Entry {
+        private final String mId;
+        private final Bitmap mBitmap;
+        private final int mHash;
+        private int mRefCount;
+        private boolean mNew;
+
+        private Entry(String id, Bitmap bitmap, int hash) {
+            mId = id;
+            mBitmap = bitmap;
+            mHash = hash;
+        }
+
+        public String getId() {
+            return mId;
+        }
+
+        public Bitmap getBitmap() {
+            return mBitmap;
+        }
+
+        /**
+         * Whether the entry was created by the acquire that returned it, its image still has to
+         * be added to the style.
+         */
+        public boolean isNew() {
+            return mNew;
+        }
+    }
+
+    private static final String IMAGE_ID_PREFIX = "rctmgl-annotation-";
+    private static final int MAX_UNUSED_ENTRIES = 32;
+    private static final int MAX_POOLED_BITMAPS_PER_SIZE = 4;
+
+    private final OnImageEvictedListener mListener;
+
+    private final Map<String, Entry> mEntries = new HashMap<>();
+    private final Map<Integer, List<Entry>> mEntriesByHash = new HashMap<>();
+    // unreferenced entries, least recently released first
+    private final LinkedHashMap<String, Entry> mUnusedEntries = new LinkedHashMap<>();
+    // reusable bitmaps by (width << 32 | height)
+    private final LongSparseArray<ArrayDeque<Bitmap>> mPool = new LongSparseArray<>();
+
+    private int[] mPixels = new int[0];
+    private long mNextId;
+
+    public AnnotationBitmapCache(OnImageEvictedListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Renders the view and returns the entry of its content with one more reference, or null if
+     * the view has no size.
+     */
+    public Entry acquire(View view, int left, int top, int right, int bottom) {
+        int width = right - left;
+        int height = bottom - top;
+        if (view == null || width <= 0 || height <= 0) {
+            return null;
+        }
+
+        Bitmap bitmap = obtainBitmap(width, height);
+        view.draw(new Canvas(bitmap));
+        int hash = hashPixels(bitmap);
+
+        List<Entry> candidates = mEntriesByHash.get(hash);
+        if (candidates != null) {
+            for (Entry entry : candidates) {
+                if (entry.mBitmap.sameAs(bitmap)) {
+                    recycleBitmap(bitmap);
+                    entry.mNew = false;
+                    retain(entry);
+                    return entry;
+                }
+            }
+        }
+
+        Entry entry = new Entry(IMAGE_ID_PREFIX + (mNextId++), bitmap, hash);
+        entry.mNew = true;
+        mEntries.put(entry.mId, entry);
+        if (candidates == null) {
+            candidates = new ArrayList<>(1);
+            mEntriesByHash.put(hash, candidates);
+        }
+        candidates.add(entry);
+        retain(entry);
+        return entry;
+    }
+
+    public void release(String imageId) {
+        Entry entry = imageId != null ? mEntries.get(imageId) : null;
+        if (entry == null || entry.mRefCount == 0) {
+            return;
+        }
+
+        entry.mRefCount--;
+        if (entry.mRefCount == 0) {
+            mUnusedEntries.put(entry.mId, entry);
+            trimUnusedEntries(MAX_UNUSED_ENTRIES);
+        }
+    }
+
+    public void clear() {
+        trimUnusedEntries(0);
+        mEntries.clear();
+        mEntriesByHash.clear();
+        mPool.clear();
+    }
+
+    private void retain(Entry entry) {
+        if (entry.mRefCount == 0) {
+            mUnusedEntries.remove(entry.mId);
+        }
+        entry.mRefCount++;
+    }
+
+    private void trimUnusedEntries(int maxSize) {
+        Iterator<Entry> iterator = mUnusedEntries.values().iterator();
+        while (mUnusedEntries.size() > maxSize && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            iterator.remove();
+
+            mEntries.remove(entry.mId);
+            List<Entry> candidates = mEntriesByHash.get(entry.mHash);
+            if (candidates != null) {
+                candidates.remove(entry);
+                if (candidates.isEmpty()) {
+                    mEntriesByHash.remove(entry.mHash);
+                }
+            }
+
+            mListener.onImageEvicted(entry.mId);
+            recycleBitmap(entry.mBitmap);
+        }
+    }
+
+    private Bitmap obtainBitmap(int width, int height) {
+        ArrayDeque<Bitmap> bitmaps = mPool.get(sizeKey(width, height));
+        Bitmap bitmap = bitmaps != null ? bitmaps.poll() : null;
+        if (bitmap == null) {
+            return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        }
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmap;
+    }
+
+    private void recycleBitmap(Bitmap bitmap) {
+        long key = sizeKey(bitmap.getWidth(), bitmap.getHeight());
+        ArrayDeque<Bitmap> bitmaps = mPool.get(key);
+        if (bitmaps == null) {
+            bitmaps = new ArrayDeque<>(MAX_POOLED_BITMAPS_PER_SIZE);
+            mPool.put(key, bitmaps);
+        }
+        if (bitmaps.size() < MAX_POOLED_BITMAPS_PER_SIZE) {
+            bitmaps.add(bitmap);
+        }
+    }
+
+    private int hashPixels(Bitmap bitmap) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        int count = width * height;
+        if (mPixels.length < count) {
+            mPixels = new int[count];
+        }
+        bitmap.getPixels(mPixels, 0, width, 0, 0, width, height);
+
+        int hash = 31 * width + height;
+        for (int i = 0; i < count; i++) {
+            hash = 31 * hash + mPixels[i];
+        }
+        return hash;
+    }
+
+    private static long sizeKey(int width, int height) {
+        return ((long) width << 32) | (height & 0xffffffffL);
+    }
+}
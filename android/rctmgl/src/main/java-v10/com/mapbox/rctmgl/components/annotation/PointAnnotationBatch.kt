@@ -0,0 +1,110 @@
+package com.mapbox.rctmgl.components.annotation
+
+import android.view.Choreographer
+import com.mapbox.maps.plugin.annotation.generated.PointAnnotation
+import com.mapbox.maps.plugin.annotation.generated.PointAnnotationOptions
+import com.mapbox.rctmgl.components.mapview.RCTMGLMapView
+import java.util.*
+
+/**
+ * Commits annotation changes of point annotations to the point annotation manager once per frame.
+ *
+ * Every create, update or delete call of the annotation manager regenerates its whole GeoJSON
+ * source, so mounting or moving many annotations one call at a time gets slower with every
+ * annotation. Within a frame the batch makes at most one delete, one create and one update call.
+ */
+class PointAnnotationBatch(private val mMapView: RCTMGLMapView) {
+    /**
+     * An annotation waiting to be created. Its options are read when the batch is committed, so
+     * they reflect changes made to the annotation in the meantime, null skips the creation.
+     */
+    interface PendingAnnotation {
+        fun getAnnotationOptions(): PointAnnotationOptions?
+        fun onAnnotationCreated(annotation: PointAnnotation)
+    }
+
+    private val mPendingCreates = LinkedHashSet<PendingAnnotation>()
+    private val mPendingUpdates = LinkedHashMap<Long, PointAnnotation>()
+    private val mPendingDeletes = LinkedHashMap<Long, PointAnnotation>()
+
+    private var mFrameScheduled = false
+
+    private val mFrameCallback = Choreographer.FrameCallback {
+        mFrameScheduled = false
+        commit()
+    }
+
+    fun create(pendingAnnotation: PendingAnnotation) {
+        mPendingCreates.add(pendingAnnotation)
+        scheduleCommit()
+    }
+
+    fun cancel(pendingAnnotation: PendingAnnotation) {
+        mPendingCreates.remove(pendingAnnotation)
+    }
+
+    fun update(annotation: PointAnnotation) {
+        if (mPendingDeletes.containsKey(annotation.id)) {
+            return
+        }
+        mPendingUpdates[annotation.id] = annotation
+        scheduleCommit()
+    }
+
+    fun delete(annotation: PointAnnotation) {
+        mPendingUpdates.remove(annotation.id)
+        mPendingDeletes[annotation.id] = annotation
+        scheduleCommit()
+    }
+
+    fun clear() {
+        mPendingCreates.clear()
+        mPendingUpdates.clear()
+        mPendingDeletes.clear()
+        if (mFrameScheduled) {
+            Choreographer.getInstance().removeFrameCallback(mFrameCallback)
+            mFrameScheduled = false
+        }
+    }
+
+    fun commit() {
+        val annotationManager = mMapView.pointAnnotationManager ?: return
+
+        if (mPendingDeletes.isNotEmpty()) {
+            val annotations = ArrayList(mPendingDeletes.values)
+            mPendingDeletes.clear()
+            annotationManager.delete(annotations)
+        }
+
+        if (mPendingCreates.isNotEmpty()) {
+            val pendingAnnotations = ArrayList<PendingAnnotation>(mPendingCreates.size)
+            val options = ArrayList<PointAnnotationOptions>(mPendingCreates.size)
+            for (pendingAnnotation in mPendingCreates) {
+                val annotationOptions = pendingAnnotation.getAnnotationOptions() ?: continue
+                pendingAnnotations.add(pendingAnnotation)
+                options.add(annotationOptions)
+            }
+            mPendingCreates.clear()
+
+            // created annotations usually get their icon through an update, which is committed below
+            val annotations = annotationManager.create(options)
+            for (i in annotations.indices) {
+                pendingAnnotations[i].onAnnotationCreated(annotations[i])
+            }
+        }
+
+        if (mPendingUpdates.isNotEmpty()) {
+            val annotations = ArrayList(mPendingUpdates.values)
+            mPendingUpdates.clear()
+            annotationManager.update(annotations)
+        }
+    }
+
+    private fun scheduleCommit() {
+        if (mFrameScheduled) {
+            return
+        }
+        mFrameScheduled = true
+        Choreographer.getInstance().postFrameCallback(mFrameCallback)
+    }
+}
@@ -20,7 +20,6 @@ import com.mapbox.geojson.Point
 import com.mapbox.maps.ScreenCoordinate
 import com.mapbox.maps.Style
 import com.mapbox.rctmgl.events.PointAnnotationDragEvent
-import com.mapbox.rctmgl.utils.BitmapUtils
 import com.mapbox.rctmgl.utils.LatLng
 import java.util.*
 
@@ -61,7 +60,7 @@ class RCTMGLPointAnnotation(private val mContext: Context, private val mManager:
         if (mChildView != null) {
             mMap?.getStyle(object : Style.OnStyleLoaded {
                 override fun onStyleLoaded(style: Style) {
-                    mChildBitmapId?.let { style.removeStyleImage(it) }
+                    releaseBitmap(mChildBitmapId)
                     mChildView = null
                     calloutView = null
                     mChildBitmap = null
@@ -81,21 +80,24 @@ class RCTMGLPointAnnotation(private val mContext: Context, private val mManager:
             if (!mChildView!!.isAttachedToWindow) {
                 mMapView!!.offscreenAnnotationViewContainer().addView(mChildView)
             }
-            addBitmapToStyle(mChildBitmap, mChildBitmapId)
-            updateOptions()
+            refreshBitmap(mChildView!!)
         }
         if (calloutView != null) {
             if (!calloutView!!.isAttachedToWindow && mMapView != null) {
                 mMapView!!.offscreenAnnotationViewContainer().addView(calloutView)
             }
-            addBitmapToStyle(mCalloutBitmap, mCalloutBitmapId)
+            refreshBitmap(calloutView!!)
         }
     }
 
     override fun removeFromMap(mapView: RCTMGLMapView) {
         val map = (if (mMapView != null) mMapView else mapView) ?: return
         if (marker != null) {
-            map.pointAnnotationManager?.delete(marker!!)
+            map.pointAnnotationMarkerRemoved(this)
+            map.pointAnnotationBatch.delete(marker!!)
+            marker = null
+        } else {
+            map.pointAnnotationBatch.cancel(mPendingMarker)
         }
         if (mChildView != null) {
             map.offscreenAnnotationViewContainer().removeView(mChildView)
@@ -103,6 +105,13 @@ class RCTMGLPointAnnotation(private val mContext: Context, private val mManager:
         if (calloutView != null) {
             map.offscreenAnnotationViewContainer().removeView(calloutView)
         }
+
+        map.annotationBitmapCache.release(mChildBitmapId)
+        map.annotationBitmapCache.release(mCalloutBitmapId)
+        mChildBitmap = null
+        mChildBitmapId = null
+        mCalloutBitmap = null
+        mCalloutBitmapId = null
     }
 
     override fun onLayoutChange(v: View, left: Int, top: Int, right: Int, bottom: Int, oldLeft: Int, oldTop: Int,
@@ -116,21 +125,36 @@ class RCTMGLPointAnnotation(private val mContext: Context, private val mManager:
     }
 
     private fun refreshBitmap(v: View, left: Int = v.left, top: Int = v.top, right: Int = v.right, bottom: Int = v.bottom) {
-        val bitmap = BitmapUtils.viewToBitmap(v, left, top, right, bottom)
-        val bitmapId = Integer.toString(v.id)
-        addBitmapToStyle(bitmap, bitmapId)
+        val mapView = mMapView ?: return
+
+        // annotations rendering the same pixels share one style image
+        val entry = mapView.annotationBitmapCache.acquire(v, left, top, right, bottom) ?: return
+        if (entry.isNew) {
+            addBitmapToStyle(entry.bitmap, entry.id)
+        }
+
         if (v is RCTMGLCallout) {
-            mCalloutBitmap = bitmap
-            mCalloutBitmapId = bitmapId
-        } else {
-            if (bitmap != null) {
-                mChildBitmap = bitmap
-                mChildBitmapId = bitmapId
-                updateOptions()
+            val previousBitmapId = mCalloutBitmapId
+            mCalloutBitmap = entry.bitmap
+            mCalloutBitmapId = entry.id
+            mCalloutSymbol?.let {
+                it.iconImage = entry.id
+                mapView.pointAnnotationBatch.update(it)
             }
+            releaseBitmap(previousBitmapId)
+        } else {
+            val previousBitmapId = mChildBitmapId
+            mChildBitmap = entry.bitmap
+            mChildBitmapId = entry.id
+            updateOptions()
+            releaseBitmap(previousBitmapId)
         }
     }
 
+    private fun releaseBitmap(bitmapId: String?) {
+        mMapView?.annotationBitmapCache?.release(bitmapId)
+    }
+
     val latLng: LatLng
         get() = GeoJSONUtils.toLatLng(mCoordinate)
     val mapboxID: Long
@@ -140,11 +164,11 @@ class RCTMGLPointAnnotation(private val mContext: Context, private val mManager:
         mCoordinate = point
         if (marker != null) {
             marker!!.point = point
-            mMapView?.pointAnnotationManager?.update(marker!!)
+            mMapView?.pointAnnotationBatch?.update(marker!!)
         }
         if (mCalloutSymbol != null) {
             mCalloutSymbol!!.point = point
-            mMapView?.pointAnnotationManager?.update(mCalloutSymbol!!)
+            mMapView?.pointAnnotationBatch?.update(mCalloutSymbol!!)
         }
     }
 
@@ -152,7 +176,7 @@ class RCTMGLPointAnnotation(private val mContext: Context, private val mManager:
         mAnchor = arrayOf(x, y)
         if (marker != null) {
             updateAnchor()
-            mMapView?.pointAnnotationManager?.update(marker!!)
+            mMapView?.pointAnnotationBatch?.update(marker!!)
         }
     }
 
@@ -160,7 +184,7 @@ class RCTMGLPointAnnotation(private val mContext: Context, private val mManager:
         mDraggable = draggable
         if (marker != null) {
             marker!!.isDraggable = draggable
-            mMapView?.pointAnnotationManager?.update(marker!!)
+            mMapView?.pointAnnotationBatch?.update(marker!!)
         }
     }
 
@@ -176,7 +200,8 @@ class RCTMGLPointAnnotation(private val mContext: Context, private val mManager:
     fun onDeselect() {
         mManager.handleEvent(makeEvent(false))
         if (mCalloutSymbol != null) {
-            mMapView?.pointAnnotationManager?.delete(mCalloutSymbol!!)
+            mMapView?.pointAnnotationBatch?.delete(mCalloutSymbol!!)
+            mCalloutSymbol = null
         }
     }
 
@@ -196,16 +221,25 @@ class RCTMGLPointAnnotation(private val mContext: Context, private val mManager:
     }
 
     fun makeMarker() {
-        val options = mCoordinate?.let {
-            PointAnnotationOptions()
-                .withPoint(it)
-                .withDraggable(mDraggable)
-                .withIconSize(1.0)
-                .withSymbolSortKey(10.0)
+        if (mMapView?.pointAnnotationManager != null) {
+            mMapView?.pointAnnotationBatch?.create(mPendingMarker)
         }
-        val symbolManager = mMapView?.pointAnnotationManager
-        if (symbolManager != null && options != null) {
-            marker = symbolManager.create(options)
+    }
+
+    private val mPendingMarker = object : PointAnnotationBatch.PendingAnnotation {
+        override fun getAnnotationOptions(): PointAnnotationOptions? {
+            return mCoordinate?.let {
+                PointAnnotationOptions()
+                    .withPoint(it)
+                    .withDraggable(mDraggable)
+                    .withIconSize(1.0)
+                    .withSymbolSortKey(10.0)
+            }
+        }
+
+        override fun onAnnotationCreated(annotation: PointAnnotation) {
+            marker = annotation
+            mMapView?.pointAnnotationMarkerAdded(this@RCTMGLPointAnnotation)
             updateOptions()
         }
     }
@@ -214,7 +248,7 @@ class RCTMGLPointAnnotation(private val mContext: Context, private val mManager:
         if (marker != null) {
             updateIconImage()
             updateAnchor()
-            mMapView?.pointAnnotationManager?.update(marker!!)
+            mMapView?.pointAnnotationBatch?.update(marker!!)
         }
     }
 
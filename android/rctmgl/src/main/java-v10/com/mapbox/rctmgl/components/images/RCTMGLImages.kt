@@ -14,11 +14,12 @@ import com.mapbox.rctmgl.components.mapview.RCTMGLMapView
 import com.mapbox.rctmgl.components.images.RCTMGLImages
 import com.mapbox.rctmgl.events.ImageMissingEvent
 import com.mapbox.rctmgl.utils.BitmapUtils
-import com.mapbox.rctmgl.utils.DownloadMapImageTask
+import com.mapbox.rctmgl.utils.MapImageLoader
 import java.util.AbstractMap
 import java.util.ArrayList
 import java.util.HashMap
 import java.util.HashSet
+import java.util.LinkedHashMap
 
 class RCTMGLImages(context: Context, private val mManager: RCTMGLImagesManager) : AbstractMapFeature(context) {
     var mCurrentImages: MutableSet<String?>
@@ -26,6 +27,19 @@ class RCTMGLImages(context: Context, private val mManager: RCTMGLImagesManager)
     private var mNativeImages: MutableMap<String?, BitmapDrawable?>?
     private var mSendMissingImageEvents = false
     private var mMap: MapboxMap? = null
+
+    // in lazy mode images are only loaded once the renderer asks for them, or a prefetch hint
+    // applies, and the least recently requested ones are removed from the style beyond maxImages
+    private var mLazy = false
+    private var mMaxImages = 0
+    private var mPrefetchHints: List<PrefetchHint> = ArrayList()
+    private val mLazyImages = LinkedHashMap<String, ImageEntry>(16, 0.75f, true)
+
+    /**
+     * Images to load ahead of the renderer asking for them, once the map is zoomed in to minZoom.
+     */
+    class PrefetchHint(val minZoom: Double, val images: List<String>)
+
     var iD: String? = null
     fun setImages(images: List<Map.Entry<String, ImageEntry>>) {
         val newImages: MutableMap<String, ImageEntry> = HashMap()
@@ -35,7 +49,7 @@ class RCTMGLImages(context: Context, private val mManager: RCTMGLImagesManager)
                 newImages[key] = value
             }
         }
-        if (mMap != null && mMap?.getStyle() != null) {
+        if (!mLazy && mMap != null && mMap?.getStyle() != null) {
             addImagesToStyle(newImages, mMap!!)
         }
     }
@@ -57,12 +71,35 @@ class RCTMGLImages(context: Context, private val mManager: RCTMGLImagesManager)
         mSendMissingImageEvents = value
     }
 
+    fun setLazy(lazy: Boolean) {
+        if (mLazy == lazy) {
+            return
+        }
+        mLazy = lazy
+        mLazyImages.clear()
+        val map = mMap
+        if (!mLazy && map != null && map.getStyle() != null) {
+            addImagesToStyle(mImages, map)
+        }
+    }
+
+    fun setMaxImages(maxImages: Int) {
+        mMaxImages = maxImages
+        mMap?.getStyle()?.let { evictLazyImages(it) }
+    }
+
+    fun setPrefetchHints(prefetchHints: List<PrefetchHint>) {
+        mPrefetchHints = prefetchHints
+        mMap?.let { prefetchImages(it.cameraState.zoom) }
+    }
+
     override fun removeFromMap(mapView: RCTMGLMapView) {
         removeImages(mapView)
         mMap = null
         mNativeImages = HashMap()
         mImages = HashMap()
         mCurrentImages = HashSet()
+        mLazyImages.clear()
     }
 
     private fun removeImages(mapView: RCTMGLMapView) {
@@ -101,7 +138,11 @@ class RCTMGLImages(context: Context, private val mManager: RCTMGLImagesManager)
         if (mImages != null) {
             val entry = mImages!![id]
             if (entry != null) {
-                addRemoteImages(entry(id, entry), map)
+                if (mLazy) {
+                    addLazyImages(entry(id, entry), map)
+                } else {
+                    addRemoteImages(entry(id, entry), map)
+                }
                 return true
             }
         }
@@ -120,6 +161,33 @@ class RCTMGLImages(context: Context, private val mManager: RCTMGLImagesManager)
         }
     }
 
+    /**
+     * Loads the images of the prefetch hints applying at the zoom level, called when the map
+     * becomes idle.
+     */
+    fun prefetchImages(zoom: Double) {
+        val map = mMap
+        if (!mLazy || map == null || mPrefetchHints.isEmpty()) {
+            return
+        }
+
+        val images: MutableList<Map.Entry<String, ImageEntry>> = ArrayList()
+        for (hint in mPrefetchHints) {
+            if (zoom < hint.minZoom) {
+                continue
+            }
+            for (id in hint.images) {
+                val entry = mImages?.get(id)
+                if (entry != null && !mLazyImages.containsKey(id)) {
+                    images.add(AbstractMap.SimpleEntry(id, entry))
+                }
+            }
+        }
+        if (images.isNotEmpty()) {
+            addLazyImages(images, map)
+        }
+    }
+
     fun sendImageMissingEvent(id: String, map: MapboxMap) {
         if (mSendMissingImageEvents) {
             mManager.handleEvent(ImageMissingEvent.makeImageMissingEvent(this, id))
@@ -140,7 +208,11 @@ class RCTMGLImages(context: Context, private val mManager: RCTMGLImagesManager)
                 val map = mapView.getMapboxMap()
                 mMap = map
                 addNativeImagesToStyle(mNativeImages, map)
-                addImagesToStyle(mImages, map)
+                if (mLazy) {
+                    prefetchImages(map.cameraState.zoom)
+                } else {
+                    addImagesToStyle(mImages, map)
+                }
                 // super.addToMap(mapView);
             }
         })
@@ -177,9 +249,49 @@ class RCTMGLImages(context: Context, private val mManager: RCTMGLImagesManager)
             }
         }
         if (missingImages.size > 0) {
-            val task = DownloadMapImageTask(context, map, null)
-            val params = missingImages.toTypedArray()
-            task.execute(*params)
+            MapImageLoader.load(context, map, missingImages, null)
+        }
+    }
+
+    private fun addLazyImages(imageEntries: List<Map.Entry<String, ImageEntry>>, map: MapboxMap) {
+        val style = map.getStyle() ?: return
+        val missingImages: MutableList<Map.Entry<String, ImageEntry>> = ArrayList()
+        for (imageEntry in imageEntries) {
+            // put marks the image as the most recently requested one
+            mLazyImages[imageEntry.key] = imageEntry.value
+            if (!hasImage(imageEntry.key, map)) {
+                mImagePlaceholder?.let { style.addImage(imageEntry.key, it) }
+                missingImages.add(imageEntry)
+                mCurrentImages.add(imageEntry.key)
+            }
+        }
+        evictLazyImages(style)
+
+        if (missingImages.size > 0) {
+            MapImageLoader.load(context, map, missingImages, object : MapImageLoader.OnAllImagesLoaded {
+                override fun onAllImagesLoaded() {
+                    // images evicted while they were loading got added nonetheless
+                    val loadedStyle = map.getStyle()
+                    if (!mLazy || loadedStyle == null) return
+                    for ((key) in missingImages) {
+                        if (!mLazyImages.containsKey(key)) {
+                            loadedStyle.removeStyleImage(key)
+                        }
+                    }
+                }
+            })
+        }
+    }
+
+    private fun evictLazyImages(style: Style) {
+        if (!mLazy || mMaxImages <= 0) return
+
+        val ids = mLazyImages.keys.iterator()
+        while (mLazyImages.size > mMaxImages && ids.hasNext()) {
+            val id = ids.next()
+            ids.remove()
+            style.removeStyleImage(id)
+            mCurrentImages.remove(id)
         }
     }
 
@@ -1,5 +1,6 @@
 package com.mapbox.rctmgl.components.images;
 
+import android.graphics.Bitmap;
 import android.graphics.drawable.BitmapDrawable;
 
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -15,6 +16,7 @@ import com.mapbox.rctmgl.components.AbstractEventEmitter;
 import com.mapbox.rctmgl.components.AbstractMapFeature;
 import com.mapbox.rctmgl.components.styles.sources.RCTMGLShapeSource;
 import com.mapbox.rctmgl.events.constants.EventKeys;
+import com.mapbox.rctmgl.utils.BitmapCache;
 import com.mapbox.rctmgl.utils.ImageEntry;
 import com.mapbox.rctmgl.utils.ResourceUtils;
 
@@ -63,7 +65,11 @@ public class RCTMGLImagesManager extends AbstractEventEmitter<RCTMGLImages> {
                 String uri = imageMap.getString("uri");
                 boolean hasScale = imageMap.hasKey("scale") && imageMap.getType("scale") == ReadableType.Number;
                 double scale = hasScale ? imageMap.getDouble("scale") : ImageEntry.defaultScale;
-                imageEntry = new ImageEntry(uri, scale);
+                boolean hasMaxSize = imageMap.hasKey("maxSize") && imageMap.getType("maxSize") == ReadableType.Number;
+                int maxSize = hasMaxSize ? imageMap.getInt("maxSize") : 0;
+                boolean opaque = imageMap.hasKey("opaque") && imageMap.getType("opaque") == ReadableType.Boolean
+                        && imageMap.getBoolean("opaque");
+                imageEntry = new ImageEntry(uri, scale, maxSize, opaque);
             } else {
                 imageEntry = new ImageEntry(map.getString(imageName));
             }
@@ -78,13 +84,58 @@ public class RCTMGLImagesManager extends AbstractEventEmitter<RCTMGLImages> {
         images.setHasOnImageMissing(value);
     }
 
+    @ReactProp(name = "lazy")
+    public void setLazy(RCTMGLImages images, boolean value) {
+        images.setLazy(value);
+    }
+
+    @ReactProp(name = "maxImages")
+    public void setMaxImages(RCTMGLImages images, int value) {
+        images.setMaxImages(value);
+    }
+
+    @ReactProp(name = "prefetch")
+    public void setPrefetch(RCTMGLImages images, ReadableArray arr) {
+        List<RCTMGLImages.PrefetchHint> hints = new ArrayList<>();
+
+        if (arr != null) {
+            for (int i = 0; i < arr.size(); i++) {
+                ReadableMap hint = arr.getMap(i);
+                double minZoom = hint.hasKey("minZoom") ? hint.getDouble("minZoom") : 0.0;
+                List<String> names = new ArrayList<>();
+                ReadableArray hintImages = hint.hasKey("images") ? hint.getArray("images") : null;
+                if (hintImages != null) {
+                    for (int j = 0; j < hintImages.size(); j++) {
+                        names.add(hintImages.getString(j));
+                    }
+                }
+                hints.add(new RCTMGLImages.PrefetchHint(minZoom, names));
+            }
+        }
+
+        images.setPrefetchHints(hints);
+    }
+
     @ReactProp(name = "nativeImages")
     public void setNativeImages(RCTMGLImages images, ReadableArray arr) {
         List<Map.Entry<String, BitmapDrawable>> resources = new ArrayList<>();
+        BitmapCache cache = BitmapCache.getInstance(mContext);
+        int densityDpi = mContext.getResources().getDisplayMetrics().densityDpi;
 
         for (int i = 0; i < arr.size(); i++) {
             String resourceName = arr.getString(i);
-            BitmapDrawable drawable = (BitmapDrawable) ResourceUtils.getDrawableByName(mContext, resourceName);
+            String key = BitmapCache.key(resourceName, ImageEntry.defaultScale, densityDpi);
+
+            BitmapDrawable drawable;
+            Bitmap bitmap = cache.get(key);
+            if (bitmap != null) {
+                drawable = new BitmapDrawable(mContext.getResources(), bitmap);
+            } else {
+                drawable = (BitmapDrawable) ResourceUtils.getDrawableByName(mContext, resourceName);
+                if (drawable != null) {
+                    cache.put(key, drawable.getBitmap());
+                }
+            }
 
             if (drawable != null) {
                 resources.add(new AbstractMap.SimpleEntry<String, BitmapDrawable>(resourceName, drawable));
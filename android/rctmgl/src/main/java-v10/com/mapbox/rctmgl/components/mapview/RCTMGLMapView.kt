@@ -4,9 +4,13 @@ import android.content.Context
 import android.graphics.BitmapFactory
 import android.graphics.PointF
 import android.graphics.RectF
+import android.util.LongSparseArray
+import android.view.Choreographer
 import android.view.View
 import android.view.ViewGroup
 import android.widget.FrameLayout
+import com.facebook.react.bridge.ReadableArray
+import com.facebook.react.bridge.ReadableMap
 import com.facebook.react.bridge.WritableArray
 import com.facebook.react.bridge.WritableMap
 import com.facebook.react.bridge.WritableNativeArray
@@ -32,6 +36,8 @@ import com.mapbox.maps.plugin.delegates.listeners.*
 import com.mapbox.maps.plugin.gestures.*
 import com.mapbox.rctmgl.R
 import com.mapbox.rctmgl.components.AbstractMapFeature
+import com.mapbox.rctmgl.components.annotation.AnnotationBitmapCache
+import com.mapbox.rctmgl.components.annotation.PointAnnotationBatch
 import com.mapbox.rctmgl.components.annotation.RCTMGLMarkerView
 import com.mapbox.rctmgl.components.annotation.RCTMGLPointAnnotation
 import com.mapbox.rctmgl.components.camera.RCTMGLCamera
@@ -39,6 +45,7 @@ import com.mapbox.rctmgl.components.images.RCTMGLImages
 import com.mapbox.rctmgl.components.location.LocationComponentManager
 import com.mapbox.rctmgl.components.location.RCTMGLNativeUserLocation
 import com.mapbox.rctmgl.components.mapview.helpers.CameraChangeTracker
+import com.mapbox.rctmgl.components.mapview.helpers.MapChangeEventPolicy
 import com.mapbox.rctmgl.components.styles.layers.RCTLayer
 import com.mapbox.rctmgl.components.styles.light.RCTMGLLight
 import com.mapbox.rctmgl.components.styles.sources.RCTSource
@@ -47,10 +54,13 @@ import com.mapbox.rctmgl.events.AndroidCallbackEvent
 import com.mapbox.rctmgl.events.IEvent
 import com.mapbox.rctmgl.events.MapChangeEvent
 import com.mapbox.rctmgl.events.MapClickEvent
+import com.mapbox.rctmgl.events.RegionChangeEvent
 import com.mapbox.rctmgl.events.constants.EventTypes
+import com.mapbox.rctmgl.utils.ConvertUtils
 import com.mapbox.rctmgl.utils.GeoJSONUtils
 import com.mapbox.rctmgl.utils.LatLng
 import com.mapbox.rctmgl.utils.Logger
+import com.mapbox.rctmgl.utils.ReadableStructure
 import com.mapbox.rctmgl.utils.extensions.toReadableArray
 import org.json.JSONException
 import org.json.JSONObject
@@ -61,6 +71,12 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
     private val mSources: MutableMap<String, RCTSource<*>>
     private val mImages: MutableList<RCTMGLImages>
     private var mPointAnnotationManager: PointAnnotationManager? = null
+    // annotation changes of point annotations, committed to the annotation manager once per frame
+    val pointAnnotationBatch = PointAnnotationBatch(this)
+    // style images of rendered point annotation views, shared between annotations by content
+    val annotationBitmapCache = AnnotationBitmapCache { imageId ->
+        savedStyle?.removeStyleImage(imageId)
+    }
     private var mActiveMarkerID: Long = -1
     private var mStyleURL: String? = null
     val isDestroyed = false
@@ -68,6 +84,8 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
     private val mFeatures: MutableList<AbstractMapFeature> = ArrayList()
     private var mQueuedFeatures: MutableList<AbstractMapFeature>? = ArrayList()
     private val mPointAnnotations: MutableMap<String, RCTMGLPointAnnotation>
+    // point annotations by the id of their marker, for resolving taps on markers
+    private val mPointAnnotationsByMarkerID = LongSparseArray<RCTMGLPointAnnotation>()
     private val mCameraChangeTracker = CameraChangeTracker()
     private val mMap: MapboxMap?
 
@@ -75,6 +93,15 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
     var savedStyle: Style? = null
         private set
     private val mHandledMapChangedEvents: HashSet<String>? = null
+    private var mMapChangeEventPolicyConfig: ReadableMap? = null
+    private val mMapChangeEventPolicies: MutableMap<String, MapChangeEventPolicy> = HashMap()
+    // coordinates re-projected after camera changes, packed as lng0, lat0, lng1, lat1, ...
+    private var mProjectedCoordinates: DoubleArray? = null
+    private var mProjectionScheduled = false
+    private val mProjectionFrameCallback = Choreographer.FrameCallback {
+        mProjectionScheduled = false
+        sendProjectedPointsChangeEvent()
+    }
     private var mOffscreenAnnotationViewContainer: ViewGroup? = null
     private var mAnnotationClicked = false
     private var mLocationComponentManager: LocationComponentManager? = null
@@ -104,6 +131,7 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
         map.getStyle(object : Style.OnStyleLoaded {
             override fun onStyleLoaded(style: Style) {
                 savedStyle = style
+                invalidateLayerOrder()
                 createSymbolManager(style)
                 setUpImage(style)
                 addQueuedFeatures()
@@ -114,9 +142,14 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
 
         map.addOnCameraChangeListener(OnCameraChangeListener { cameraChangedEventData ->
             handleMapChangedEvent(EventTypes.REGION_IS_CHANGING)
+            scheduleProjectedPointsUpdate()
         })
 
         map.addOnMapIdleListener(OnMapIdleListener { mapIdleEventData ->
+            val zoom = map.cameraState.zoom
+            for (images in mImages) {
+                images.prefetchImages(zoom)
+            }
             sendRegionDidChangeEvent()
         })
 
@@ -233,8 +266,7 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
     }
 
     fun sendRegionChangeEvent(isAnimated: Boolean) {
-        val event: IEvent = MapChangeEvent(this, EventTypes.REGION_DID_CHANGE,
-                makeRegionPayload(isAnimated))
+        val event: IEvent = makeRegionEvent(EventTypes.REGION_DID_CHANGE, isAnimated)
         mManager.handleEvent(event)
         mCameraChangeTracker.setReason(CameraChangeTracker.EMPTY)
     }
@@ -278,26 +310,38 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
         if (sources.size == 1) {
             return sources[0]
         }
-        val layerToSourceMap: MutableMap<String, RCTSource<*>> = HashMap()
+        val order = layerOrder
+        var topSource: RCTSource<*>? = null
+        var topIndex = -1
         for (source in sources) {
-            val layerIDs: Array<out String>? = source.layerIDs.toTypedArray()
-            if (layerIDs != null) {
-                for (layerID in layerIDs) {
-                    layerToSourceMap[layerID] = source
+            for (layerID in source.layerIDs) {
+                val index = order[layerID]
+                if (index != null && index > topIndex) {
+                    topIndex = index
+                    topSource = source
                 }
             }
         }
-        val mapboxLayers = mMap?.getStyle()?.styleLayers
-        if (mapboxLayers != null) {
-            for (i in mapboxLayers.indices.reversed()) {
-                val mapboxLayer = mapboxLayers[i]
-                val layerID = mapboxLayer.id
-                if (layerToSourceMap.containsKey(layerID)) {
-                    return layerToSourceMap[layerID]
-                }
+        return topSource
+    }
+
+    // index of each style layer, top most layer highest, rebuilt lazily once layers changed
+    private var mLayerOrder: Map<String, Int>? = null
+
+    private val layerOrder: Map<String, Int>
+        private get() {
+            mLayerOrder?.let { return it }
+            val mapboxLayers = mMap?.getStyle()?.styleLayers ?: return emptyMap()
+            val order = HashMap<String, Int>(mapboxLayers.size * 2)
+            for (i in mapboxLayers.indices) {
+                order[mapboxLayers[i].id] = i
             }
+            mLayerOrder = order
+            return order
         }
-        return null
+
+    private fun invalidateLayerOrder() {
+        mLayerOrder = null
     }
 
     fun isJSONValid(test: String?): Boolean {
@@ -318,6 +362,8 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
             if (isJSONValid(mStyleURL)) {
                 mMap.loadStyleJson(styleURL, object : Style.OnStyleLoaded {
                     override fun onStyleLoaded(style: Style) {
+                        invalidateLayerOrder()
+                        annotationBitmapCache.clear()
                         addAllSourcesToMap()
                     }
                 })
@@ -325,6 +371,8 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
                 mMap.loadStyleUri(styleURL, object : Style.OnStyleLoaded {
                     override fun onStyleLoaded(style: Style) {
                         savedStyle = style
+                        invalidateLayerOrder()
+                        annotationBitmapCache.clear()
                         addAllSourcesToMap()
                         addQueuedFeatures()
                     }
@@ -343,21 +391,31 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
         fun run(hitTouchableSources: List<RCTSource<*>?>?, hits: Map<String?, List<Feature?>?>)
     }
 
+    /**
+     * Hit-tests all sources with a single rendered features query per hitbox size, usually just one,
+     * and attributes the features to their source by the source id of the queried feature.
+     */
     fun handleTapInSources(
-            sources: LinkedList<RCTSource<*>>, screenPoint: ScreenCoordinate,
-            hits: HashMap<String?, List<Feature?>?>,
-            hitTouchableSources: ArrayList<RCTSource<*>?>,
+            sources: List<RCTSource<*>>, screenPoint: ScreenCoordinate,
             handleTap: HandleTap
     ) {
-        if (sources.isEmpty()) {
+        val sourcesByHitbox = LinkedHashMap<Pair<Double, Double>, MutableList<RCTSource<*>>>()
+        for (source in sources) {
+            val hitbox = source.touchHitbox ?: continue
+            sourcesByHitbox.getOrPut(Pair(hitbox["width"]!!, hitbox["height"]!!)) { ArrayList() }.add(source)
+        }
+
+        val hits = HashMap<String?, List<Feature?>?>()
+        val hitTouchableSources = ArrayList<RCTSource<*>?>()
+        if (sourcesByHitbox.isEmpty()) {
             handleTap.run(hitTouchableSources, hits)
             return
         }
-        val source = sources.removeFirst()
-        val hitbox = source.touchHitbox
-        if (hitbox != null) {
-            val halfWidth = (hitbox["width"]!!.toFloat() / 2.0f).toDouble()
-            val halfHeight = (hitbox["height"]!!.toFloat() / 2.0f).toDouble()
+
+        var pendingQueries = sourcesByHitbox.size
+        for ((hitboxSize, hitboxSources) in sourcesByHitbox) {
+            val halfWidth = (hitboxSize.first.toFloat() / 2.0f).toDouble()
+            val halfHeight = (hitboxSize.second.toFloat() / 2.0f).toDouble()
             val screenBox = ScreenBox(
                     ScreenCoordinate(screenPoint.x - halfWidth,
                             screenPoint.y - halfHeight
@@ -365,25 +423,35 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
                     ScreenCoordinate(screenPoint.x + halfWidth,
                             screenPoint.y + halfHeight)
             )
+            val layerIDs = ArrayList<String>()
+            for (source in hitboxSources) {
+                layerIDs.addAll(source.layerIDs)
+            }
             getMapboxMap().queryRenderedFeatures(RenderedQueryGeometry(screenBox),
                     RenderedQueryOptions(
-                            source.layerIDs,
+                            layerIDs,
                             null
                     )
             ) { features ->
-                if (features.isValue) {
-                    if (features.value!!.size > 0) {
-                        val featuresList = ArrayList<Feature?>()
+                synchronized(hits) {
+                    if (features.isValue) {
+                        val featuresBySource = HashMap<String, ArrayList<Feature?>>()
                         for (i in features.value!!) {
-                            featuresList.add(i.feature)
+                            featuresBySource.getOrPut(i.source) { ArrayList() }.add(i.feature)
+                        }
+                        for (source in hitboxSources) {
+                            val featuresList = featuresBySource[source.iD] ?: continue
+                            hits[source.iD] = featuresList
+                            hitTouchableSources.add(source)
                         }
-                        hits[source.iD] = featuresList
-                        hitTouchableSources.add(source)
+                    } else {
+                        Logger.e("handleTapInSources", features.error ?: "n/a")
+                    }
+                    pendingQueries--
+                    if (pendingQueries == 0) {
+                        handleTap.run(hitTouchableSources, hits)
                     }
-                } else {
-                    Logger.e("handleTapInSources", features.error ?: "n/a")
                 }
-                handleTapInSources(sources, screenPoint, hits, hitTouchableSources, handleTap)
             }
         }
     }
@@ -398,9 +466,8 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
         }
         val screenPoint = mMap?.pixelForCoordinate(point)
         val touchableSources = allTouchableSources
-        val hits = HashMap<String?, List<Feature?>?>()
         if (screenPoint != null) {
-            handleTapInSources(LinkedList(touchableSources), screenPoint, hits, ArrayList(), object : HandleTap {
+            handleTapInSources(touchableSources, screenPoint, object : HandleTap {
                 override fun run(hitTouchableSources: List<RCTSource<*>?>?, hits: Map<String?, List<Feature?>?>) {
                     if (hits.size > 0) {
                         val source = getTouchableSourceWithHighestZIndex(hitTouchableSources as List<RCTSource<*>>?)
@@ -436,22 +503,31 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
     fun onMarkerClick(symbol: PointAnnotation) {
         mAnnotationClicked = true
         val selectedMarkerID = symbol.id
-        var activeAnnotation: RCTMGLPointAnnotation? = null
-        var nextActiveAnnotation: RCTMGLPointAnnotation? = null
-        for (key in mPointAnnotations.keys) {
-            val annotation = mPointAnnotations[key]
-            val curMarkerID = annotation?.mapboxID
-            if (mActiveMarkerID == curMarkerID) {
-                activeAnnotation = annotation
-            }
-            if (selectedMarkerID == curMarkerID && mActiveMarkerID != curMarkerID) {
-                nextActiveAnnotation = annotation
-            }
-        }
+        val activeAnnotation = getPointAnnotationByMarkerID(mActiveMarkerID)
+        val nextActiveAnnotation = if (selectedMarkerID != mActiveMarkerID) getPointAnnotationByMarkerID(selectedMarkerID) else null
         activeAnnotation?.let { deselectAnnotation(it) }
         nextActiveAnnotation?.let { selectAnnotation(it) }
     }
 
+    fun getPointAnnotationByMarkerID(markerID: Long): RCTMGLPointAnnotation? {
+        val annotation = mPointAnnotationsByMarkerID[markerID]
+        return if (annotation != null && markerID == annotation.mapboxID) annotation else null
+    }
+
+    fun pointAnnotationMarkerAdded(annotation: RCTMGLPointAnnotation) {
+        val markerID = annotation.mapboxID
+        if (markerID != -1L) {
+            mPointAnnotationsByMarkerID.put(markerID, annotation)
+        }
+    }
+
+    fun pointAnnotationMarkerRemoved(annotation: RCTMGLPointAnnotation) {
+        val markerID = annotation.mapboxID
+        if (mPointAnnotationsByMarkerID[markerID] === annotation) {
+            mPointAnnotationsByMarkerID.remove(markerID)
+        }
+    }
+
     fun selectAnnotation(annotation: RCTMGLPointAnnotation) {
         mActiveMarkerID = annotation.mapboxID
         annotation.onSelect(true)
@@ -468,6 +544,7 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
 
     private val layerWaiters: MutableMap<String, MutableList<FoundLayerCallback>> = HashMap()
     fun layerAdded(layer: Layer) {
+        invalidateLayerOrder()
         val layerId = layer.layerId
         val callbacks: List<FoundLayerCallback>? = layerWaiters[layerId]
         if (callbacks != null) {
@@ -478,6 +555,10 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
         layerWaiters.remove(layerId)
     }
 
+    fun layerRemoved(layer: Layer) {
+        invalidateLayerOrder()
+    }
+
     fun waitForLayer(layerID: String, callback: FoundLayerCallback) {
         if (savedStyle != null) {
             val layer = savedStyle?.getLayer(layerID)
@@ -499,11 +580,87 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
         mCameraChangeTracker.setReason(CameraChangeTracker.EMPTY)
     }
 
+    fun setReactMapChangeEventPolicies(policies: ReadableMap?) {
+        // JS sends a new object on every render, keep the throttling state if nothing changed
+        val previous = mMapChangeEventPolicyConfig
+        if (policies != null && previous != null && ReadableStructure.equal(policies, previous)) {
+            return
+        }
+        mMapChangeEventPolicyConfig = policies
+
+        for (policy in mMapChangeEventPolicies.values) {
+            policy.cancel()
+        }
+        mMapChangeEventPolicies.clear()
+
+        if (policies == null) {
+            return
+        }
+
+        val iterator = policies.keySetIterator()
+        while (iterator.hasNextKey()) {
+            val eventType = iterator.nextKey()
+            val config = policies.getMap(eventType) ?: continue
+            mMapChangeEventPolicies[eventType] = MapChangeEventPolicy(eventType, config) { emitMapChangedEvent(it) }
+        }
+    }
+
+    fun setReactProjectedCoordinates(coordinates: ReadableArray?) {
+        mProjectedCoordinates = if (coordinates != null) ConvertUtils.toDoubleArray(coordinates) else null
+        if (mProjectedCoordinates == null && mProjectionScheduled) {
+            Choreographer.getInstance().removeFrameCallback(mProjectionFrameCallback)
+            mProjectionScheduled = false
+        }
+        scheduleProjectedPointsUpdate()
+    }
+
+    override fun onSizeChanged(w: Int, h: Int, oldw: Int, oldh: Int) {
+        super.onSizeChanged(w, h, oldw, oldh)
+        scheduleProjectedPointsUpdate()
+    }
+
+    /**
+     * Re-projects the subscribed coordinates once per frame, however many camera changes there
+     * were since the last one.
+     */
+    private fun scheduleProjectedPointsUpdate() {
+        if (mProjectionScheduled || mProjectedCoordinates == null || mMap == null
+            || !canHandleEvent(EventTypes.PROJECTED_POINTS_CHANGE)) {
+            return
+        }
+        mProjectionScheduled = true
+        Choreographer.getInstance().postFrameCallback(mProjectionFrameCallback)
+    }
+
+    private fun sendProjectedPointsChangeEvent() {
+        val coordinates = mProjectedCoordinates ?: return
+
+        val payload: WritableMap = WritableNativeMap()
+        payload.putArray("points", projectCoordinates(coordinates))
+        mManager.handleEvent(MapChangeEvent(this, EventTypes.PROJECTED_POINTS_CHANGE, payload))
+    }
+
     private fun handleMapChangedEvent(eventType: String) {
         if (!canHandleEvent(eventType)) return
+
+        val policy = mMapChangeEventPolicies[eventType]
+        if (policy == null) {
+            emitMapChangedEvent(eventType)
+            return
+        }
+
+        val position = if (policy.hasCameraThresholds()) mMap?.cameraState else null
+        if (position != null) {
+            policy.onEvent(position.center.latitude(), position.center.longitude(), position.zoom)
+        } else {
+            policy.onEvent(0.0, 0.0, 0.0)
+        }
+    }
+
+    private fun emitMapChangedEvent(eventType: String) {
         val event: IEvent
         event = when (eventType) {
-            EventTypes.REGION_WILL_CHANGE, EventTypes.REGION_DID_CHANGE, EventTypes.REGION_IS_CHANGING -> MapChangeEvent(this, eventType, makeRegionPayload(null))
+            EventTypes.REGION_WILL_CHANGE, EventTypes.REGION_DID_CHANGE, EventTypes.REGION_IS_CHANGING -> makeRegionEvent(eventType, null)
             else -> MapChangeEvent(this, eventType)
         }
         mManager.handleEvent(event)
@@ -513,23 +670,30 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
         return mHandledMapChangedEvents == null || mHandledMapChangedEvents.contains(event)
     }
 
-    private fun makeRegionPayload(isAnimated: Boolean?): WritableMap {
-        val position = mMap?.cameraState ?: return WritableNativeMap()
-        val latLng = LatLng(position.center.latitude(), position.center.longitude())
-        val properties: WritableMap = WritableNativeMap()
-        properties.putDouble("zoomLevel", position.zoom)
-        properties.putDouble("heading", position.bearing)
-        properties.putDouble("pitch", position.pitch)
-        properties.putBoolean("animated",
-                if (null == isAnimated) mCameraChangeTracker.isAnimated else isAnimated)
-        properties.putBoolean("isUserInteraction", mCameraChangeTracker.isUserInteraction)
+    private fun makeRegionEvent(eventType: String, isAnimated: Boolean?): IEvent {
+        val position = mMap?.cameraState ?: return MapChangeEvent(this, eventType, WritableNativeMap())
+
+        // the payload, visible bounds included, is only built if the event is actually sent
+        return RegionChangeEvent(this, eventType,
+                position.center.latitude(), position.center.longitude(),
+                position.zoom, position.bearing, position.pitch,
+                if (null == isAnimated) mCameraChangeTracker.isAnimated else isAnimated,
+                mCameraChangeTracker.isUserInteraction, mVisibleBoundsResolver)
+    }
+
+    // bounds of the camera of a region event, not of the current one
+    private val mVisibleBoundsResolver = RegionChangeEvent.VisibleBoundsResolver { latitude, longitude, zoomLevel, heading, pitch ->
         try {
-            val bounds = mMap.getBounds()
-            properties.putArray("visibleBounds", GeoJSONUtils.fromCameraBounds(bounds))
+            mMap?.coordinateBoundsForCamera(CameraOptions.Builder()
+                    .center(Point.fromLngLat(longitude, latitude))
+                    .zoom(zoomLevel)
+                    .bearing(heading)
+                    .pitch(pitch)
+                    .build())
         } catch (ex: Exception) {
             Logger.e(LOG_TAG, "An error occurred while attempting to make the region", ex)
+            null
         }
-        return GeoJSONUtils.toPointFeature(latLng, properties)
     }
 
     fun createSymbolManager(style: Style?) {
@@ -679,7 +843,7 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
         val density: Float = getDisplayDensity()
         val screenCoordinate = ScreenCoordinate(pixel.x * density, pixel.y * density)
 
-        val coordinate = mMap!!.coordinateForPixel(pixel)
+        val coordinate = mMap!!.coordinateForPixel(screenCoordinate)
 
         val payload: WritableMap = WritableNativeMap()
         payload.putArray("coordinateFromView", coordinate.toReadableArray())
@@ -689,11 +853,12 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
     }
 
     fun getPointInView(callbackID: String?, coordinate: Point) {
+        val density: Float = getDisplayDensity()
         val point = mMap!!.pixelForCoordinate(coordinate)
 
         val array: WritableArray = WritableNativeArray()
-        array.pushDouble(point.x)
-        array.pushDouble(point.y)
+        array.pushDouble(point.x / density)
+        array.pushDouble(point.y / density)
         val payload: WritableMap = WritableNativeMap()
         payload.putArray("pointInView", array)
 
@@ -701,6 +866,56 @@ open class RCTMGLMapView(private val mContext: Context, var mManager: RCTMGLMapV
         mManager.handleEvent(event)
     }
 
+    /**
+     * Converts coordinates packed as lng0, lat0, lng1, lat1, ... to points in the view, packed as
+     * x0, y0, x1, y1, ..., in one call.
+     */
+    fun getPointsInView(callbackID: String?, coordinates: DoubleArray) {
+        val payload: WritableMap = WritableNativeMap()
+        payload.putArray("pointsInView", projectCoordinates(coordinates))
+
+        val event = AndroidCallbackEvent(this, callbackID, payload)
+        mManager.handleEvent(event)
+    }
+
+    /**
+     * Converts points in the view packed as x0, y0, x1, y1, ... to coordinates, packed as
+     * lng0, lat0, lng1, lat1, ..., in one call.
+     */
+    fun getCoordinatesFromView(callbackID: String?, points: DoubleArray) {
+        val density: Float = getDisplayDensity()
+        val pixels = ArrayList<ScreenCoordinate>(points.size / 2)
+        for (i in 0 until points.size - 1 step 2) {
+            pixels.add(ScreenCoordinate(points[i] * density, points[i + 1] * density))
+        }
+
+        val array: WritableArray = WritableNativeArray()
+        for (coordinate in mMap!!.coordinatesForPixels(pixels)) {
+            array.pushDouble(coordinate.longitude())
+            array.pushDouble(coordinate.latitude())
+        }
+        val payload: WritableMap = WritableNativeMap()
+        payload.putArray("coordinatesFromView", array)
+
+        val event = AndroidCallbackEvent(this, callbackID, payload)
+        mManager.handleEvent(event)
+    }
+
+    private fun projectCoordinates(coordinates: DoubleArray): WritableArray {
+        val density: Float = getDisplayDensity()
+        val points = ArrayList<Point>(coordinates.size / 2)
+        for (i in 0 until coordinates.size - 1 step 2) {
+            points.add(Point.fromLngLat(coordinates[i], coordinates[i + 1]))
+        }
+
+        val array: WritableArray = WritableNativeArray()
+        for (point in mMap!!.pixelsForCoordinates(points)) {
+            array.pushDouble(point.x / density)
+            array.pushDouble(point.y / density)
+        }
+        return array
+    }
+
     fun queryRenderedFeaturesAtPoint(callbackID: String?, point: PointF, filter: Expression?, layerIDs: List<String>?) {
         mMap?.queryRenderedFeatures(
             ScreenCoordinate(point.x.toDouble(), point.y.toDouble()),
@@ -70,6 +70,10 @@ open class RCTMGLMapViewManager(context: ReactApplicationContext?) :
         if (mViews.containsKey(reactTag)) {
             mViews.remove(reactTag)
         }
+        mapView.setReactMapChangeEventPolicies(null)
+        mapView.setReactProjectedCoordinates(null)
+        mapView.pointAnnotationBatch.clear()
+        mapView.annotationBitmapCache.clear()
         super.onDropViewInstance(mapView)
     }
 
@@ -88,6 +92,16 @@ open class RCTMGLMapViewManager(context: ReactApplicationContext?) :
         //mapView.setReactPreferredFramesPerSecond(preferredFramesPerSecond);
     }
 
+    @ReactProp(name = "mapChangeEventPolicies")
+    fun setMapChangeEventPolicies(mapView: RCTMGLMapView, policies: ReadableMap?) {
+        mapView.setReactMapChangeEventPolicies(policies)
+    }
+
+    @ReactProp(name = "projectedCoordinates")
+    fun setProjectedCoordinates(mapView: RCTMGLMapView, coordinates: ReadableArray?) {
+        mapView.setReactProjectedCoordinates(coordinates)
+    }
+
     @ReactProp(name = "localizeLabels")
     fun setLocalizeLabels(mapView: RCTMGLMapView?, localizeLabels: Boolean) {
         //mapView.setLocalizeLabels(localizeLabels);
@@ -185,6 +199,8 @@ open class RCTMGLMapViewManager(context: ReactApplicationContext?) :
             .put("showAttribution", METHOD_SHOW_ATTRIBUTION)
             .put("setSourceVisibility", METHOD_SET_SOURCE_VISIBILITY)
             .put("queryTerrainElevation", METHOD_QUERY_TERRAIN_ELEVATION)
+            .put("getPointsInView", METHOD_GET_POINTS_IN_VIEW)
+            .put("getCoordinatesFromView", METHOD_GET_COORDINATES_FROM_VIEW)
             .build()
     }
 
@@ -214,6 +230,12 @@ open class RCTMGLMapViewManager(context: ReactApplicationContext?) :
             METHOD_GET_COORDINATE_FROM_VIEW -> {
                 mapView.getCoordinateFromView(args!!.getString(0), args.getArray(1).toScreenCoordinate());
             }
+            METHOD_GET_POINTS_IN_VIEW -> {
+                mapView.getPointsInView(args!!.getString(0), ConvertUtils.toDoubleArray(args.getArray(1)))
+            }
+            METHOD_GET_COORDINATES_FROM_VIEW -> {
+                mapView.getCoordinatesFromView(args!!.getString(0), ConvertUtils.toDoubleArray(args.getArray(1)))
+            }
             METHOD_SET_SOURCE_VISIBILITY -> {
                 mapView!!.setSourceVisibility(
                     args!!.getBoolean(1),
@@ -307,6 +329,8 @@ open class RCTMGLMapViewManager(context: ReactApplicationContext?) :
         const val METHOD_SHOW_ATTRIBUTION = 11
         const val METHOD_SET_SOURCE_VISIBILITY = 12
         const val METHOD_QUERY_TERRAIN_ELEVATION = 13
+        const val METHOD_GET_POINTS_IN_VIEW = 14
+        const val METHOD_GET_COORDINATES_FROM_VIEW = 15
     }
 
     init {
@@ -4,13 +4,31 @@ import android.content.Context
 import com.facebook.react.bridge.ReadableMap
 import com.mapbox.maps.MapboxMap
 import com.mapbox.rctmgl.utils.ImageEntry
-import com.mapbox.rctmgl.utils.DownloadMapImageTask
+import com.mapbox.rctmgl.utils.MapImageLoader
+import com.mapbox.rctmgl.utils.ReadableStructure
 import java.util.AbstractMap
 import java.util.ArrayList
 
-class RCTMGLStyle(private val mContext: Context, reactStyle: ReadableMap, map: MapboxMap) {
+/**
+ * When previousReactStyle, the style that was last applied, is given the style is limited to the
+ * keys whose value differs from it, so unchanged properties aren't set on the native layer again.
+ * Style values decoded for a key are kept in styleValues, when given, and reused as long as the
+ * value of the key doesn't change.
+ */
+class RCTMGLStyle @JvmOverloads constructor(
+    private val mContext: Context,
+    reactStyle: ReadableMap,
+    map: MapboxMap,
+    private val mPreviousReactStyle: ReadableMap? = null,
+    private val mStyleValues: MutableMap<String, RCTMGLStyleValue>? = null
+) {
     private val mReactStyle: ReadableMap?
     private val mMap: MapboxMap
+
+    // keys that hasChanged found to differ from previousReactStyle, the values kept for them were
+    // decoded from the previous value, so they are decoded again without comparing a second time
+    private val mReplacedKeys = HashSet<String>()
+
     val allStyleKeys: List<String>
         get() {
             if (mReactStyle == null) {
@@ -20,18 +38,42 @@ class RCTMGLStyle(private val mContext: Context, reactStyle: ReadableMap, map: M
             val keys: MutableList<String> = ArrayList()
             while (it.hasNextKey()) {
                 val key = it.nextKey()
-                if (key != "__MAPBOX_STYLESHEET__") {
+                if (key != "__MAPBOX_STYLESHEET__" && hasChanged(key)) {
                     keys.add(key)
                 }
             }
             return keys
         }
 
+    private fun hasChanged(key: String): Boolean {
+        val previousReactStyle = mPreviousReactStyle
+        if (previousReactStyle == null || !previousReactStyle.hasKey(key)) {
+            return true
+        }
+        val value = mReactStyle!!.getMap(key)
+        val previousValue = previousReactStyle.getMap(key)
+        if (value == null || previousValue == null) {
+            return value !== previousValue
+        }
+        if (ReadableStructure.equal(value, previousValue)) {
+            return false
+        }
+        mReplacedKeys.add(key)
+        return true
+    }
+
     fun getStyleValueForKey(styleKey: String?): RCTMGLStyleValue? {
         val styleValueConfig = mReactStyle!!.getMap(styleKey!!)
             ?: // TODO: throw exeception here
             return null
-        return RCTMGLStyleValue(styleValueConfig)
+        if (!mReplacedKeys.contains(styleKey)) {
+            mStyleValues?.get(styleKey)?.let {
+                if (it.isDecodedFrom(styleValueConfig)) {
+                    return it
+                }
+            }
+        }
+        return RCTMGLStyleValue(styleValueConfig).also { mStyleValues?.put(styleKey, it) }
     }
 
     fun imageEntry(styleValue: RCTMGLStyleValue): ImageEntry {
@@ -39,20 +81,19 @@ class RCTMGLStyle(private val mContext: Context, reactStyle: ReadableMap, map: M
     }
 
     @JvmOverloads
-    fun addImage(styleValue: RCTMGLStyleValue, callback: DownloadMapImageTask.OnAllImagesLoaded? = null) {
+    fun addImage(styleValue: RCTMGLStyleValue, callback: MapImageLoader.OnAllImagesLoaded? = null) {
         if (!styleValue.shouldAddImage()) {
             callback?.onAllImagesLoaded()
             return
         }
         val uriStr = styleValue.imageURI
-        val images = arrayOf<Map.Entry<String, ImageEntry>>(
+        val images = listOf<Map.Entry<String, ImageEntry>>(
             AbstractMap.SimpleEntry<String, ImageEntry>(
                 uriStr,
                 imageEntry(styleValue)
             )
         )
-        val task = DownloadMapImageTask(mContext, mMap, callback)
-        task.execute(*images)
+        MapImageLoader.load(mContext, mMap, images, callback)
     }
 
     init {
@@ -21,7 +21,7 @@ import com.mapbox.maps.extension.style.layers.properties.generated.*;
 import com.mapbox.maps.extension.style.types.StyleTransition;
 import com.mapbox.maps.extension.style.light.generated.Light;
 import com.mapbox.maps.extension.style.light.LightPosition;
-import com.mapbox.rctmgl.utils.DownloadMapImageTask;
+import com.mapbox.rctmgl.utils.MapImageLoader;
 
 import java.util.List;
 
@@ -77,7 +77,7 @@ public class RCTMGLStyleFactory {
               RCTMGLStyleFactory.setFillTranslateAnchor(layer, styleValue);
               break;
             case "fillPattern":
-              style.addImage(styleValue, new DownloadMapImageTask.OnAllImagesLoaded() {
+              style.addImage(styleValue, new MapImageLoader.OnAllImagesLoaded() {
                   @Override
                   public void onAllImagesLoaded() {
                       RCTMGLStyleFactory.setFillPattern(layer, styleValue);
@@ -171,7 +171,7 @@ public class RCTMGLStyleFactory {
               RCTMGLStyleFactory.setLineDasharrayTransition(layer, styleValue);
               break;
             case "linePattern":
-              style.addImage(styleValue, new DownloadMapImageTask.OnAllImagesLoaded() {
+              style.addImage(styleValue, new MapImageLoader.OnAllImagesLoaded() {
                   @Override
                   public void onAllImagesLoaded() {
                       RCTMGLStyleFactory.setLinePattern(layer, styleValue);
@@ -235,7 +235,7 @@ public class RCTMGLStyleFactory {
               RCTMGLStyleFactory.setIconTextFitPadding(layer, styleValue);
               break;
             case "iconImage":
-              style.addImage(styleValue, new DownloadMapImageTask.OnAllImagesLoaded() {
+              style.addImage(styleValue, new MapImageLoader.OnAllImagesLoaded() {
                   @Override
                   public void onAllImagesLoaded() {
                       RCTMGLStyleFactory.setIconImage(layer, styleValue);
@@ -564,7 +564,7 @@ public class RCTMGLStyleFactory {
               RCTMGLStyleFactory.setFillExtrusionTranslateAnchor(layer, styleValue);
               break;
             case "fillExtrusionPattern":
-              style.addImage(styleValue, new DownloadMapImageTask.OnAllImagesLoaded() {
+              style.addImage(styleValue, new MapImageLoader.OnAllImagesLoaded() {
                   @Override
                   public void onAllImagesLoaded() {
                       RCTMGLStyleFactory.setFillExtrusionPattern(layer, styleValue);
@@ -719,7 +719,7 @@ public class RCTMGLStyleFactory {
               RCTMGLStyleFactory.setBackgroundColorTransition(layer, styleValue);
               break;
             case "backgroundPattern":
-              style.addImage(styleValue, new DownloadMapImageTask.OnAllImagesLoaded() {
+              style.addImage(styleValue, new MapImageLoader.OnAllImagesLoaded() {
                   @Override
                   public void onAllImagesLoaded() {
                       RCTMGLStyleFactory.setBackgroundPattern(layer, styleValue);
@@ -9,40 +9,93 @@ import com.mapbox.rctmgl.components.styles.RCTMGLStyleFactory
 import com.mapbox.maps.extension.style.expressions.generated.Expression
 import com.mapbox.maps.extension.style.light.LightPosition
 import com.mapbox.rctmgl.utils.ExpressionParser
+import com.mapbox.rctmgl.utils.ReadableStructure
 import java.util.ArrayList
 
-class RCTMGLStyleValue(config: ReadableMap) {
+class RCTMGLStyleValue(private val mConfig: ReadableMap) {
     val type: String?
     private var isExpression = false
     private var mExpression: Expression? = null
     private val mPayload: ReadableMap?
+
+    // the payload's value decoded once, so setters don't go back to the bridge map on every read
+    private var mValueType: String? = null
+    private var mValueKind: ReadableType? = null
+    private var mNumberValue = 0.0
+    private var mBooleanValue = false
+    private var mStringValue: String? = null
+    private var mArrayValue: ReadableArray? = null
+
+    private var mEnumName: String? = null
+    private var mFloatArray: List<Double>? = null
+    private var mStringArray: List<String?>? = null
+    private var mTransition: StyleTransition? = null
     var imageURI: String? = ""
     private var isAddImage = false
     var imageScale = ImageEntry.defaultScale
+    /**
+     * Whether this value was decoded from config, so it can be used again instead of decoding it.
+     */
+    fun isDecodedFrom(config: ReadableMap): Boolean {
+        return config === mConfig || ReadableStructure.equal(config, mConfig)
+    }
+
     private fun isTokenizedValue(value: String): Boolean {
         return value.startsWith("{") && value.endsWith("}")
     }
 
+    private fun decodeValue() {
+        mValueType = mPayload!!.getString("type")
+
+        val dynamic = mPayload.getDynamic(RCTMGLStyleFactory.VALUE_KEY)
+        mValueKind = dynamic.type
+        when (mValueKind) {
+            ReadableType.Number -> mNumberValue = dynamic.asDouble()
+            ReadableType.Boolean -> mBooleanValue = dynamic.asBoolean()
+            ReadableType.String -> mStringValue = dynamic.asString()
+            ReadableType.Array -> mArrayValue = dynamic.asArray()
+            else -> {}
+        }
+    }
+
+    private fun isDecoded(key: String?, kind: ReadableType): Boolean {
+        return mValueKind == kind && RCTMGLStyleFactory.VALUE_KEY == key
+    }
+
     val isFunction: Boolean
         get() = type == "function"
 
     fun getInt(key: String?): Int {
+        if (isDecoded(key, ReadableType.Number)) {
+            return mNumberValue.toInt()
+        }
         return mPayload!!.getInt(key!!)
     }
 
     fun getIntExpression(key: String?): Expression {
-        return Expression.literal(mPayload!!.getInt(key!!).toLong())
+        return Expression.literal(getInt(key).toLong())
     }
 
     fun getString(key: String?): String? {
+        if (isDecoded(key, ReadableType.String)) {
+            return mStringValue
+        }
         return mPayload!!.getString(key!!)
     }
 
     fun getEnumName(): String {
-        return mPayload!!.getString("value")!!.toUpperCase().replace("-", "_")
+        var enumName = mEnumName
+        if (enumName == null) {
+            enumName = getString(RCTMGLStyleFactory.VALUE_KEY)!!.toUpperCase().replace('-', '_')
+            mEnumName = enumName
+        }
+        return enumName
     }
 
     fun getDouble(key: String?): Double {
+        if (isDecoded(key, ReadableType.Number)) {
+            return mNumberValue
+        }
         return mPayload!!.getDouble(key!!)
     }
 
@@ -55,10 +108,16 @@ class RCTMGLStyleValue(config: ReadableMap) {
     }
 
     fun getArray(key: String?): ReadableArray? {
+        if (isDecoded(key, ReadableType.Array)) {
+            return mArrayValue
+        }
         return mPayload!!.getArray(key!!)
     }
 
     fun getBoolean(key: String?): Boolean {
+        if (isDecoded(key, ReadableType.Boolean)) {
+            return mBooleanValue
+        }
         return mPayload!!.getBoolean(key!!)
     }
 
@@ -76,7 +135,13 @@ class RCTMGLStyleValue(config: ReadableMap) {
     }
     */
     fun getFloatArray(key: String?): List<Double> {
-        val arr = getArray(key)
+        if (isDecoded(key, ReadableType.Array)) {
+            return mFloatArray ?: toFloatArray(mArrayValue).also { mFloatArray = it }
+        }
+        return toFloatArray(getArray(key))
+    }
+
+    private fun toFloatArray(arr: ReadableArray?): List<Double> {
         val result = ArrayList<Double>(arr!!.size())
         for (i in 0 until arr.size()) {
             val item = arr.getMap(i)
@@ -98,7 +163,13 @@ class RCTMGLStyleValue(config: ReadableMap) {
         return stringArr;
     } */
     fun getStringArray(key: String?): List<String?> {
-        val arr = getArray(key)
+        if (isDecoded(key, ReadableType.Array)) {
+            return mStringArray ?: toStringArray(mArrayValue).also { mStringArray = it }
+        }
+        return toStringArray(getArray(key))
+    }
+
+    private fun toStringArray(arr: ReadableArray?): List<String?> {
         val result = ArrayList<String?>(arr!!.size())
         for (i in 0 until arr.size()) {
             val item = arr.getMap(i)
@@ -109,8 +180,8 @@ class RCTMGLStyleValue(config: ReadableMap) {
 
     val map: ReadableMap?
         get() {
-            if ("hashmap" == mPayload!!.getString("type")) {
-                val keyValues = mPayload.getArray("value")
+            if ("hashmap" == mValueType) {
+                val keyValues = mArrayValue
                 val result = WritableNativeMap()
                 for (i in 0 until keyValues!!.size()) {
                     val keyValue = keyValues.getArray(i)
@@ -145,10 +216,10 @@ class RCTMGLStyleValue(config: ReadableMap) {
     }
 
     val isImageStringValue: Boolean
-        get() = "string" == mPayload!!.getString("type")
+        get() = "string" == mValueType
 
     fun getImageStringValue(): String? {
-        return mPayload!!.getString("value")
+        return mStringValue
     }
 
     val transition: StyleTransition?
@@ -156,21 +227,25 @@ class RCTMGLStyleValue(config: ReadableMap) {
             if (type != "transition") {
                 return null
             }
-            val config = getMap(RCTMGLStyleFactory.VALUE_KEY)
-            var enablePlacementTransitions = true
-            if (config!!.hasKey("enablePlacementTransitions")) {
-                enablePlacementTransitions =
-                    config.getMap("enablePlacementTransitions")!!.getBoolean("value")
-            }
+            mTransition?.let { return it }
+
             var duration = 300
-            val delay = 0
-            if (config.hasKey("duration") && ReadableType.Map == config.getType("duration")) {
-                duration = config.getMap("duration")!!.getInt("value")
+            var delay = 0
+
+            // read the key/value pairs directly instead of copying them into a map first
+            val keyValues = if ("hashmap" == mValueType) mArrayValue else null
+            for (i in 0 until (keyValues?.size() ?: 0)) {
+                val keyValue = keyValues!!.getArray(i)
+                val value = keyValue.getMap(1) ?: continue
+                when (keyValue.getMap(0).getString("value")) {
+                    "duration" -> duration = value.getInt("value")
+                    "delay" -> delay = value.getInt("value")
+                }
             }
-            if (config.hasKey("delay") && ReadableType.Map == config.getType("delay")) {
-                duration = config.getMap("delay")!!.getInt("value")
+
+            return Builder().duration(duration.toLong()).delay(delay.toLong()).build().also {
+                mTransition = it
             }
-            return Builder().duration(duration.toLong()).delay(delay.toLong()).build()
         }
 
     companion object {
@@ -181,19 +256,20 @@ class RCTMGLStyleValue(config: ReadableMap) {
     }
 
     init {
-        type = config.getString("styletype")
-        mPayload = config.getMap("stylevalue")
+        type = mConfig.getString("styletype")
+        mPayload = mConfig.getMap("stylevalue")
+        decodeValue()
         isAddImage = false
         if ("image" == type) {
             imageScale = ImageEntry.defaultScale
-            if ("hashmap" == mPayload!!.getString("type")) {
+            if ("hashmap" == mValueType) {
                 val map = map
                 imageURI = map!!.getMap("uri")!!.getString("value")
                 if (map.getMap("scale") != null) {
                     imageScale = map.getMap("scale")!!.getDouble("value")
                 }
-            } else if ("string" == mPayload.getString("type")) {
-                val value = mPayload.getString("value")
+            } else if ("string" == mValueType) {
+                val value = mStringValue
                 if (value!!.contains("://")) {
                     imageURI = value
                 } else {
@@ -207,15 +283,12 @@ class RCTMGLStyleValue(config: ReadableMap) {
             isAddImage = imageURI != null
         }
         if (!isAddImage) {
-            val dynamic = mPayload!!.getDynamic("value")
-            if (dynamic.type == ReadableType.Array) {
-                val array = dynamic.asArray()
-                if (array.size() > 0 && mPayload.getString("type") == "array") {
-                    val map = array.getMap(0)
-                    if (map != null && map.getString("type") == "string") {
-                        isExpression = true
-                        mExpression = ExpressionParser.fromTyped(mPayload)
-                    }
+            val array = mArrayValue
+            if (array != null && array.size() > 0 && mValueType == "array") {
+                val map = array.getMap(0)
+                if (map != null && map.getString("type") == "string") {
+                    isExpression = true
+                    mExpression = ExpressionParser.fromTyped(mPayload!!)
                 }
             }
         }
@@ -15,6 +15,8 @@ import com.mapbox.maps.extension.style.expressions.dsl.generated.literal
 import com.mapbox.maps.extension.style.expressions.generated.Expression
 import com.mapbox.maps.extension.style.layers.*
 import com.mapbox.maps.extension.style.layers.properties.generated.Visibility
+import com.mapbox.rctmgl.components.styles.RCTMGLStyle
+import com.mapbox.rctmgl.components.styles.RCTMGLStyleValue
 import com.mapbox.rctmgl.components.styles.layers.RCTLayer
 import com.mapbox.rctmgl.modules.RCTMGLLogging
 import com.mapbox.rctmgl.utils.ExpressionParser
@@ -38,6 +40,11 @@ abstract class RCTLayer<T : Layer?>(protected var mContext: Context) : AbstractS
     @JvmField
     protected var mReactStyle: ReadableMap? = null
     protected var mFilter: Expression? = null
+
+    // style last applied to mLayer, unchanged properties are not set again
+    private var mAppliedReactStyle: ReadableMap? = null
+    // values decoded from it by style key, kept across applies so unchanged ones aren't decoded again
+    private val mStyleValues = HashMap<String, RCTMGLStyleValue>()
     @JvmField
     protected var mMap: MapboxMap? = null
     @JvmField
@@ -106,7 +113,7 @@ abstract class RCTLayer<T : Layer?>(protected var mContext: Context) : AbstractS
     fun setReactStyle(reactStyle: ReadableMap?) {
         mReactStyle = reactStyle
         if (mLayer != null) {
-            addStyles()
+            applyStyles()
         }
     }
 
@@ -240,7 +247,8 @@ abstract class RCTLayer<T : Layer?>(protected var mContext: Context) : AbstractS
             mLayer = makeLayer()
             insertLayer()
         }
-        addStyles()
+        mAppliedReactStyle = null
+        applyStyles()
         if (mFilter != null) {
             mHadFilter = true
             updateFilter(mFilter)
@@ -250,6 +258,7 @@ abstract class RCTLayer<T : Layer?>(protected var mContext: Context) : AbstractS
     override fun removeFromMap(mapView: RCTMGLMapView) {
         if (style != null) {
             style!!.removeStyleLayer(mLayer!!.layerId)
+            mapView.layerRemoved(mLayer!!)
         }
     }
 
@@ -262,6 +271,19 @@ abstract class RCTLayer<T : Layer?>(protected var mContext: Context) : AbstractS
             } else mMapView!!.savedStyle
 
     //        return mMap.getStyle();
+    /**
+     * Style for addStyles, limited to the properties that changed since styles were last applied
+     * to the layer.
+     */
+    protected fun getChangedStyle(): RCTMGLStyle {
+        return RCTMGLStyle(context, mReactStyle!!, mMap!!, mAppliedReactStyle, mStyleValues)
+    }
+
+    private fun applyStyles() {
+        addStyles()
+        mAppliedReactStyle = mReactStyle
+    }
+
     abstract fun makeLayer(): T
     abstract fun addStyles()
     private fun hasInitialized(): Boolean {
@@ -3,7 +3,6 @@ package com.mapbox.rctmgl.components.styles.layers;
 import android.content.Context;
 
 import com.mapbox.maps.extension.style.layers.generated.BackgroundLayer;
-import com.mapbox.rctmgl.components.styles.RCTMGLStyle;
 import com.mapbox.rctmgl.components.styles.RCTMGLStyleFactory;
 
 public class RCTMGLBackgroundLayer extends RCTLayer<BackgroundLayer> {
@@ -18,6 +17,6 @@ public class RCTMGLBackgroundLayer extends RCTLayer<BackgroundLayer> {
 
     @Override
     public void addStyles() {
-        RCTMGLStyleFactory.setBackgroundLayerStyle(mLayer, new RCTMGLStyle(getContext(), mReactStyle, mMap));
+        RCTMGLStyleFactory.setBackgroundLayerStyle(mLayer, getChangedStyle());
     }
 }
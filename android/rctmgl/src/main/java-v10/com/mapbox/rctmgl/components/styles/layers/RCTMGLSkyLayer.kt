@@ -7,7 +7,6 @@ import com.mapbox.rctmgl.components.styles.layers.RCTLayer
 import com.mapbox.rctmgl.utils.Logger.e
 import com.mapbox.rctmgl.components.mapview.RCTMGLMapView
 import com.mapbox.rctmgl.components.styles.RCTMGLStyleFactory
-import com.mapbox.rctmgl.components.styles.RCTMGLStyle
 
 class RCTMGLSkyLayer(context: Context?) : RCTLayer<SkyLayer?>(
     context!!
@@ -26,7 +25,7 @@ class RCTMGLSkyLayer(context: Context?) : RCTLayer<SkyLayer?>(
     }
 
     override fun addStyles() {
-        RCTMGLStyleFactory.setSkyLayerStyle(mLayer, RCTMGLStyle(context, mReactStyle!!, mMap!!))
+        RCTMGLStyleFactory.setSkyLayerStyle(mLayer, getChangedStyle())
     }
 
     fun setSourceLayerID(sourceLayerID: String?) {
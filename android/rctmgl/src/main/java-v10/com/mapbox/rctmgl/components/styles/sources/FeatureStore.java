@@ -0,0 +1,56 @@
+package com.mapbox.rctmgl.components.styles.sources;
+
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.FeatureCollection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Native side copy of a shape source's features keyed by feature id, so single features can be
+ * added, updated or removed without resending the whole FeatureCollection over the bridge.
+ * Features without an id keep their position but can't be addressed afterwards.
+ */
+public class FeatureStore {
+    private final Map<Object, Feature> mFeatures = new LinkedHashMap<>();
+
+    public FeatureStore(FeatureCollection featureCollection) {
+        if (featureCollection == null || featureCollection.features() == null) {
+            return;
+        }
+
+        for (Feature feature : featureCollection.features()) {
+            add(feature);
+        }
+    }
+
+    public void add(Feature feature) {
+        String id = feature.id();
+        mFeatures.put(id != null ? id : new Object(), feature);
+    }
+
+    public boolean update(Feature feature) {
+        String id = feature.id();
+        if (id == null || !mFeatures.containsKey(id)) {
+            return false;
+        }
+
+        mFeatures.put(id, feature);
+        return true;
+    }
+
+    public boolean remove(String id) {
+        return mFeatures.remove(id) != null;
+    }
+
+    public int size() {
+        return mFeatures.size();
+    }
+
+    public FeatureCollection toFeatureCollection() {
+        List<Feature> features = new ArrayList<>(mFeatures.values());
+        return FeatureCollection.fromFeatures(features);
+    }
+}
@@ -4,6 +4,8 @@ import android.content.Context
 import com.mapbox.maps.extension.style.sources.generated.GeoJsonSource
 import com.mapbox.rctmgl.utils.ImageEntry
 import android.graphics.drawable.BitmapDrawable
+import android.view.Choreographer
+import com.facebook.react.bridge.ReadableArray
 import com.facebook.react.bridge.ReadableMap
 import com.mapbox.rctmgl.components.mapview.RCTMGLMapView
 import com.mapbox.rctmgl.events.FeatureClickEvent
@@ -15,19 +17,35 @@ import com.mapbox.rctmgl.events.AndroidCallbackEvent
 import com.mapbox.geojson.FeatureCollection
 import com.mapbox.maps.*
 import com.mapbox.maps.extension.style.expressions.generated.Expression
+import com.mapbox.rctmgl.utils.ClusterIndex
+import com.mapbox.rctmgl.utils.GeoJSONParseQueue
+import com.mapbox.rctmgl.utils.GeoJSONUtils
 import com.mapbox.rctmgl.utils.Logger
 import java.net.URL
 import java.util.ArrayList
 import java.util.HashMap
+import java.util.concurrent.Callable
 
 class RCTMGLShapeSource(context: Context, private val mManager: RCTMGLShapeSourceManager) :
     RCTSource<GeoJsonSource>(context) {
     private var mURL: URL? = null
     private var mShape: String? = null
+    private var mFeatureCollection: FeatureCollection? = null
+    private var mFeatureStore: FeatureStore? = null
+    private var mFeatureStorePublishScheduled = false
+    // patches that arrived while the shape was parsed, applied in order once it landed
+    private var mPendingPatches: MutableList<FeaturePatch>? = null
+    // set while a parse of the shape that keeps its features is queued or running
+    private var mParsingFeatures = false
     private var mCluster: Boolean? = null
     private var mClusterRadius: Long? = null
     private var mClusterMaxZoom: Long? = null
     private var mClusterProperties: HashMap<String, Any>? = null
+    private var mNativeClusterIndex = false
+    private var mClusterIndex: ClusterIndex? = null
+    // owner of background index builds, so they don't replace parses of the shape
+    private val mClusterIndexJob = Any()
+    private var mClusterIndexScheduled = false
     private var mMaxZoom: Long? = null
     private var mBuffer: Long? = null
     private var mTolerance: Double? = null
@@ -46,11 +64,28 @@ class RCTMGLShapeSource(context: Context, private val mManager: RCTMGLShapeSourc
         val builder = GeoJsonSource.Builder(iD.toString())
         getOptions(builder)
 
-        builder.data(mShape ?: mURL.toString())
+        if (mShape != null) {
+            // the shape is parsed off the UI thread and applied once ready
+            builder.featureCollection(FeatureCollection.fromFeatures(ArrayList()))
+            parseShape()
+        } else if (mFeatureCollection != null) {
+            builder.featureCollection(mFeatureCollection!!)
+        } else {
+            builder.data(mURL.toString())
+        }
 
         return builder.build()
     }
 
+    override fun removeFromMap(mapView: RCTMGLMapView) {
+        GeoJSONParseQueue.cancel(this)
+        GeoJSONParseQueue.cancel(mClusterIndexJob)
+        mParsingFeatures = false
+        mClusterIndexScheduled = false
+        rejectPendingPatches("Source was removed from the map")
+        super.removeFromMap(mapView)
+    }
+
     fun setURL(url: URL) {
         mURL = url
         if (mSource != null && mMapView != null && !mMapView!!.isDestroyed) {
@@ -58,33 +93,266 @@ class RCTMGLShapeSource(context: Context, private val mManager: RCTMGLShapeSourc
         }
     }
 
-    fun setShape(geoJSONStr: String) {
+    fun setShape(geoJSONStr: String?) {
+        if (geoJSONStr == null) {
+            // shape was cleared
+            return
+        }
+        // patches were meant for the previous data
+        GeoJSONParseQueue.cancel(this)
+        mParsingFeatures = false
+        rejectPendingPatches("Shape was replaced before the features could be changed")
+
         mShape = geoJSONStr
+        mFeatureCollection = null
+        mFeatureStore = null
+        mClusterIndex = null
         if (mSource != null && mMapView != null && !mMapView!!.isDestroyed) {
-            mSource!!.data(mShape!!)
-            val result = mMap!!.getStyle()!!
-                .setStyleSourceProperty(iD!!, "data", Value.valueOf(mShape!!))
+            parseShape()
+        }
+    }
+
+    private fun parseShape() {
+        val shape = mShape ?: return
+        val buildClusterIndex = isClusterIndexEnabled()
+        // the renderer only needs the value, features are parsed too when something works on them
+        val keepFeatures = buildClusterIndex || mPendingPatches != null
+        val clusterRadius = getClusterRadius()
+        val clusterMaxZoom = getClusterMaxZoom()
+        mParsingFeatures = keepFeatures
+
+        GeoJSONParseQueue.parse(this, shape, GeoJSONParseQueue.Parser<ParsedShape> { json ->
+            val value = Value.fromJson(json)
+            val data = value.value ?: throw IllegalArgumentException(value.error)
+            val featureCollection = if (keepFeatures) GeoJSONUtils.toFeatureCollection(json) else null
+            val clusterIndex = if (buildClusterIndex && featureCollection != null) {
+                makeClusterIndex(featureCollection, clusterRadius, clusterMaxZoom)
+            } else {
+                null
+            }
+            ParsedShape(data, featureCollection, clusterIndex)
+        }, GeoJSONParseQueue.Callback<ParsedShape> { parsed ->
+            mParsingFeatures = false
+            mClusterIndex = parsed.clusterIndex ?: mClusterIndex
+            if (parsed.featureCollection != null) {
+                mFeatureCollection = parsed.featureCollection
+            }
+            if (mSource != null && mMapView != null && !mMapView!!.isDestroyed) {
+                mMap?.getStyle()?.setStyleSourceProperty(iD!!, "data", parsed.data)
+            }
+            applyPendingPatches()
+        }, GeoJSONParseQueue.ErrorCallback { error ->
+            mParsingFeatures = false
+            rejectPendingPatches("Could not parse shape: ${error.localizedMessage}")
+        })
+    }
+
+    private class FeaturePatch(val callbackID: String, val apply: (FeatureStore) -> Unit)
+
+    /**
+     * Runs the patch against the features of the source. A shape that wasn't parsed into features
+     * yet is parsed in the background first, patches arriving meanwhile are queued in order.
+     * Replacing the shape meanwhile rejects them.
+     */
+    private fun withFeatureStore(callbackID: String, apply: (FeatureStore) -> Unit) {
+        mFeatureStore?.let {
+            apply(it)
+            return
+        }
+
+        val featureCollection = mFeatureCollection
+        if (featureCollection != null || mShape == null) {
+            apply(FeatureStore(featureCollection).also { mFeatureStore = it })
+            return
+        }
+
+        val patch = FeaturePatch(callbackID, apply)
+
+        val pendingPatches = mPendingPatches
+        if (pendingPatches != null) {
+            pendingPatches.add(patch)
+            return
+        }
+        mPendingPatches = mutableListOf(patch)
+        // a parse keeping the features, eg. for the cluster index, may be on its way already
+        if (!mParsingFeatures) {
+            parseShape()
+        }
+    }
+
+    private fun applyPendingPatches() {
+        val patches = mPendingPatches ?: return
+        mPendingPatches = null
+
+        val store = FeatureStore(mFeatureCollection).also { mFeatureStore = it }
+        for (patch in patches) {
+            patch.apply(store)
+        }
+    }
+
+    private fun rejectPendingPatches(error: String) {
+        val patches = mPendingPatches ?: return
+        mPendingPatches = null
+
+        for (patch in patches) {
+            callbackError(patch.callbackID, error, "withFeatureStore")
+        }
+    }
+
+    private fun scheduleFeatureStorePublish() {
+        if (mFeatureStorePublishScheduled) {
+            return
+        }
+        mFeatureStorePublishScheduled = true
+        Choreographer.getInstance().postFrameCallback {
+            mFeatureStorePublishScheduled = false
+            val store = mFeatureStore ?: return@postFrameCallback
+
+            // keep the published collection so the source is recreated with the patched data
+            val featureCollection = store.toFeatureCollection()
+            mFeatureCollection = featureCollection
+            mShape = null
+            mClusterIndex = null
+            if (mSource != null && mMapView != null && !mMapView!!.isDestroyed) {
+                mSource!!.featureCollection(featureCollection)
+            }
+        }
+    }
+
+    fun addFeatures(callbackID: String, featuresJSON: String) {
+        val features = FeatureCollection.fromJson(featuresJSON).features() ?: emptyList()
+        withFeatureStore(callbackID) { store ->
+            for (feature in features) {
+                store.add(feature)
+            }
+            scheduleFeatureStorePublish()
+
+            val payload: WritableMap = WritableNativeMap()
+            payload.putInt("data", features.size)
+            callbackSuccess(callbackID, payload)
+        }
+    }
+
+    fun updateFeatures(callbackID: String, featuresJSON: String) {
+        val features = FeatureCollection.fromJson(featuresJSON).features() ?: emptyList()
+        withFeatureStore(callbackID) { store ->
+            val updated = features.count { store.update(it) }
+            if (updated > 0) {
+                scheduleFeatureStorePublish()
+            }
+
+            val payload: WritableMap = WritableNativeMap()
+            payload.putInt("data", updated)
+            callbackSuccess(callbackID, payload)
+        }
+    }
+
+    fun removeFeatures(callbackID: String, ids: ReadableArray) {
+        val featureIds = (0 until ids.size()).map { ids.getString(it) }
+        withFeatureStore(callbackID) { store ->
+            var removed = 0
+            for (id in featureIds) {
+                if (store.remove(id)) {
+                    removed++
+                }
+            }
+            if (removed > 0) {
+                scheduleFeatureStorePublish()
+            }
+
+            val payload: WritableMap = WritableNativeMap()
+            payload.putInt("data", removed)
+            callbackSuccess(callbackID, payload)
         }
     }
 
     fun setCluster(cluster: Boolean) {
         mCluster = cluster
+        mClusterIndex = null
     }
 
     fun setClusterRadius(clusterRadius: Long) {
         mClusterRadius = clusterRadius
+        mClusterIndex = null
     }
 
     fun setClusterMaxZoom(clusterMaxZoom: Long) {
         mClusterMaxZoom = clusterMaxZoom
+        mClusterIndex = null
     }
 
     fun setClusterProperties(clusterProperties: HashMap<String, Any>) {
         mClusterProperties = clusterProperties
+        mClusterIndex = null
+    }
+
+    fun setNativeClusterIndex(nativeClusterIndex: Boolean) {
+        mNativeClusterIndex = nativeClusterIndex
+        mClusterIndex = null
+    }
+
+    private fun isClusterIndexEnabled(): Boolean {
+        // aggregated cluster properties are computed by the renderer only, so leave those to it
+        return mNativeClusterIndex && mCluster == true && mClusterProperties == null
+    }
+
+    private fun getClusterRadius(): Int {
+        return mClusterRadius?.toInt() ?: ClusterIndex.DEFAULT_RADIUS
+    }
+
+    private fun getClusterMaxZoom(): Int {
+        return ClusterIndex.getMaxZoom(mClusterMaxZoom?.toInt(), mMaxZoom?.toInt())
+    }
+
+    /**
+     * Returns the in-process cluster index for the current data, or null when cluster queries
+     * should go to the renderer. Data without an index yet, eg. patched data, is indexed
+     * in the background, queries go to the renderer meanwhile.
+     */
+    private fun getClusterIndex(): ClusterIndex? {
+        if (!isClusterIndexEnabled()) {
+            return null
+        }
+        if (mClusterIndex == null) {
+            scheduleClusterIndex()
+        }
+        return mClusterIndex
+    }
+
+    private fun scheduleClusterIndex() {
+        val featureCollection = mFeatureCollection
+        val shape = mShape
+        if (mClusterIndexScheduled || (featureCollection == null && shape == null)) {
+            return
+        }
+        mClusterIndexScheduled = true
+
+        val clusterRadius = getClusterRadius()
+        val clusterMaxZoom = getClusterMaxZoom()
+        GeoJSONParseQueue.run(mClusterIndexJob, Callable<ClusterIndex> {
+            makeClusterIndex(featureCollection ?: GeoJSONUtils.toFeatureCollection(shape), clusterRadius, clusterMaxZoom)
+        }, GeoJSONParseQueue.Callback<ClusterIndex> { clusterIndex ->
+            mClusterIndexScheduled = false
+            // drop indices of data or options that changed while it was built
+            if (shape === mShape && (featureCollection == null || featureCollection === mFeatureCollection) &&
+                isClusterIndexEnabled() && clusterRadius == getClusterRadius() && clusterMaxZoom == getClusterMaxZoom()) {
+                mClusterIndex = clusterIndex
+            }
+        }, GeoJSONParseQueue.ErrorCallback {
+            // queries stay with the renderer, the next one schedules again
+            mClusterIndexScheduled = false
+        })
+    }
+
+    private fun callbackClusterFeatures(callbackID: String, features: List<Feature>) {
+        val payload: WritableMap = WritableNativeMap()
+        payload.putString("data", FeatureCollection.fromFeatures(features).toJson())
+        callbackSuccess(callbackID, payload)
     }
 
     fun setMaxZoom(maxZoom: Long) {
         mMaxZoom = maxZoom
+        mClusterIndex = null
     }
 
     fun setBuffer(buffer: Long) {
@@ -179,6 +447,14 @@ class RCTMGLShapeSource(context: Context, private val mManager: RCTMGLShapeSourc
     fun getClusterExpansionZoom(callbackID: String, featureJSON: String) {
         val feature = Feature.fromJson(featureJSON)
 
+        val zoom = getClusterIndex()?.getExpansionZoom(ClusterIndex.getClusterId(feature)) ?: -1
+        if (zoom != -1) {
+            val payload: WritableMap = WritableNativeMap()
+            payload.putInt("data", zoom)
+            callbackSuccess(callbackID, payload)
+            return
+        }
+
         mMap!!.getGeoJsonClusterExpansionZoom(iD!!, feature, QueryFeatureExtensionCallback { features ->
             if (features.isValue) {
                 val contents = features.value!!.value!!.contents
@@ -211,6 +487,11 @@ class RCTMGLShapeSource(context: Context, private val mManager: RCTMGLShapeSourc
     fun getClusterLeaves(callbackID: String, featureJSON: String, number: Int, offset: Int) {
         val feature = Feature.fromJson(featureJSON)
 
+        getClusterIndex()?.getLeaves(ClusterIndex.getClusterId(feature), number, offset)?.let {
+            callbackClusterFeatures(callbackID, it)
+            return
+        }
+
         val _this = this
         mMap!!.getGeoJsonClusterLeaves(iD!!, feature, number.toLong(), offset.toLong(), QueryFeatureExtensionCallback { features ->
             if (features.isValue) {
@@ -236,6 +517,11 @@ class RCTMGLShapeSource(context: Context, private val mManager: RCTMGLShapeSourc
     fun getClusterChildren(callbackID: String, featureJSON: String) {
         val feature = Feature.fromJson(featureJSON)
 
+        getClusterIndex()?.getChildren(ClusterIndex.getClusterId(feature))?.let {
+            callbackClusterFeatures(callbackID, it)
+            return
+        }
+
         val _this = this
         mMap!!.getGeoJsonClusterChildren(iD!!, feature, QueryFeatureExtensionCallback { features ->
             if (features.isValue) {
@@ -258,6 +544,14 @@ class RCTMGLShapeSource(context: Context, private val mManager: RCTMGLShapeSourc
         })
     }
 
+    private class ParsedShape(val data: Value, val featureCollection: FeatureCollection?, val clusterIndex: ClusterIndex?)
+
+    companion object {
+        private fun makeClusterIndex(featureCollection: FeatureCollection, radius: Int, maxZoom: Int): ClusterIndex {
+            return ClusterIndex(featureCollection.features() ?: emptyList(), radius, maxZoom)
+        }
+    }
+
     /*companion object {
         private val mImagePlaceholder: Bitmap? = null
     }*/
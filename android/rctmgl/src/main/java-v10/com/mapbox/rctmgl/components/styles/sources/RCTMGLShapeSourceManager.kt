@@ -63,7 +63,7 @@ class RCTMGLShapeSourceManager(private val mContext: ReactApplicationContext) :
     }
 
     @ReactProp(name = "shape")
-    fun setGeometry(source: RCTMGLShapeSource, geoJSONStr: String) {
+    fun setGeometry(source: RCTMGLShapeSource, geoJSONStr: String?) {
         source.setShape(geoJSONStr)
     }
 
@@ -110,6 +110,11 @@ class RCTMGLShapeSourceManager(private val mContext: ReactApplicationContext) :
         source.setClusterProperties(properties)
     }
 
+    @ReactProp(name = "nativeClusterIndex")
+    fun setNativeClusterIndex(source: RCTMGLShapeSource, nativeClusterIndex: Boolean) {
+        source.setNativeClusterIndex(nativeClusterIndex)
+    }
+
     @ReactProp(name = "maxZoomLevel")
     fun setMaxZoomLevel(source: RCTMGLShapeSource, maxZoom: Int) {
         source.setMaxZoom(maxZoom.toLong())
@@ -153,6 +158,9 @@ class RCTMGLShapeSourceManager(private val mContext: ReactApplicationContext) :
             .put("getClusterExpansionZoom", METHOD_GET_CLUSTER_EXPANSION_ZOOM)
             .put("getClusterLeaves", METHOD_GET_CLUSTER_LEAVES)
             .put("getClusterChildren", METHOD_GET_CLUSTER_CHILDREN)
+            .put("addFeatures", METHOD_ADD_FEATURES)
+            .put("updateFeatures", METHOD_UPDATE_FEATURES)
+            .put("removeFeatures", METHOD_REMOVE_FEATURES)
             .build()
     }
 
@@ -182,6 +190,18 @@ class RCTMGLShapeSourceManager(private val mContext: ReactApplicationContext) :
                 callbackID,
                 args.getString(1)
             )
+            METHOD_ADD_FEATURES -> source.addFeatures(
+                callbackID,
+                args.getString(1)
+            )
+            METHOD_UPDATE_FEATURES -> source.updateFeatures(
+                callbackID,
+                args.getString(1)
+            )
+            METHOD_REMOVE_FEATURES -> source.removeFeatures(
+                callbackID,
+                args.getArray(1)!!
+            )
         }
     }
 
@@ -194,5 +214,8 @@ class RCTMGLShapeSourceManager(private val mContext: ReactApplicationContext) :
         const val METHOD_GET_CLUSTER_EXPANSION_ZOOM = 104
         const val METHOD_GET_CLUSTER_LEAVES = 105
         const val METHOD_GET_CLUSTER_CHILDREN = 106
+        const val METHOD_ADD_FEATURES = 110
+        const val METHOD_UPDATE_FEATURES = 111
+        const val METHOD_REMOVE_FEATURES = 112
     }
 }
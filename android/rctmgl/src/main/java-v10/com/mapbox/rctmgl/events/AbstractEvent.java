@@ -40,6 +40,17 @@ abstract public class AbstractEvent implements IEvent {
         return Arguments.createMap();
     }
 
+    /**
+     * Hands out a payload the event was created with. Putting a map into another one consumes it,
+     * so it can only be handed out once, a second call fails here instead of deep in the bridge.
+     */
+    protected WritableMap takePayload(WritableMap payload) {
+        if (payload == null) {
+            throw new IllegalStateException("Payload of " + getKey() + " event " + getType() + " was already handed out");
+        }
+        return payload;
+    }
+
     public long getTimestamp() {
         return mTimestamp;
     }
@@ -47,10 +58,8 @@ abstract public class AbstractEvent implements IEvent {
     public WritableMap toJSON() {
         WritableMap map = Arguments.createMap();
         map.putString("type", getType());
-
-        WritableMap payloadClone = Arguments.createMap();
-        payloadClone.merge(getPayload());
-        map.putMap("payload", payloadClone);
+        // the caller owns what getPayload returns, so it's handed over without another copy
+        map.putMap("payload", getPayload());
         return map;
     }
 
@@ -7,7 +7,7 @@ import com.facebook.react.bridge.WritableMap;
 import com.mapbox.rctmgl.events.constants.EventKeys;
 
 public class AndroidCallbackEvent extends AbstractEvent {
-    private final WritableMap mPayload;
+    private WritableMap mPayload;
 
     public AndroidCallbackEvent(View view, String callbackID, WritableMap payload) {
         super(view, callbackID);
@@ -21,7 +21,9 @@ public class AndroidCallbackEvent extends AbstractEvent {
 
     @Override
     public WritableMap getPayload() {
-        return mPayload;
+        WritableMap payload = takePayload(mPayload);
+        mPayload = null;
+        return payload;
     }
 
     @Override
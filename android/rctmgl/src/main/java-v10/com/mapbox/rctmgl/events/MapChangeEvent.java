@@ -26,10 +26,9 @@ public class MapChangeEvent extends AbstractEvent {
 
     @Override
     public WritableMap getPayload() {
-        // FMTODO
-        WritableMap payloadClone = Arguments.createMap();
-        payloadClone.merge(mPayload);
-        return payloadClone;
+        WritableMap payload = takePayload(mPayload);
+        mPayload = null;
+        return payload;
     }
 
     @Override
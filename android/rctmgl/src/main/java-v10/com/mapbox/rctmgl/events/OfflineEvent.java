@@ -20,6 +20,8 @@ public class OfflineEvent extends AbstractEvent {
 
     @Override
     public WritableMap getPayload() {
-        return mPayload;
+        WritableMap payload = takePayload(mPayload);
+        mPayload = null;
+        return payload;
     }
 }
@@ -10,10 +10,12 @@ import com.facebook.react.bridge.ReactContextBaseJavaModule
 import com.mapbox.rctmgl.events.constants.EventTypes
 import com.mapbox.rctmgl.modules.RCTMGLOfflineModule
 import com.mapbox.rctmgl.modules.RCTMGLLocationModule
+import com.facebook.react.bridge.Promise
 import com.facebook.react.bridge.ReactMethod
 import com.facebook.react.common.MapBuilder
 import com.mapbox.maps.Style
 import com.mapbox.rctmgl.components.camera.constants.CameraMode
+import com.mapbox.rctmgl.utils.BitmapCache
 import java.util.HashMap
 
 @ReactModule(name = RCTMGLModule.REACT_CLASS)
@@ -63,6 +65,7 @@ class RCTMGLModule(private val mReactContext: ReactApplicationContext) : ReactCo
         eventTypes["DidFinishRenderingMap"] = EventTypes.DID_FINISH_RENDERING_MAP
         eventTypes["DidFinishRenderingMapFully"] = EventTypes.DID_FINISH_RENDERING_MAP_FULLY
         eventTypes["DidFinishLoadingStyle"] = EventTypes.DID_FINISH_LOADING_STYLE
+        eventTypes["ProjectedPointsChange"] = EventTypes.PROJECTED_POINTS_CHANGE
 
         // style source constants
         val styleSourceConsts: MutableMap<String, String> = HashMap()
@@ -123,6 +126,11 @@ class RCTMGLModule(private val mReactContext: ReactApplicationContext) : ReactCo
         // NO-OP
     }
 
+    @ReactMethod
+    fun getImageCacheStats(promise: Promise) {
+        promise.resolve(BitmapCache.getInstance(mReactContext).getStats())
+    }
+
     companion object {
         const val REACT_CLASS = "RCTMGLModule"
         private val customHeaderInterceptorAdded = false
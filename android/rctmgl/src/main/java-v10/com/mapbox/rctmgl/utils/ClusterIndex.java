@@ -0,0 +1,323 @@
+package com.mapbox.rctmgl.utils;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hierarchical point cluster index mirroring the renderer's supercluster implementation, so a
+ * ShapeSource can answer cluster queries without going through the map.
+ *
+ * Points are clustered greedily from maxZoom down to zoom 0 with one KD-tree per zoom. Cluster
+ * ids use the renderer's encoding, (index in the child zoom << 5) + (child zoom), which lets
+ * children, leaves and expansion zoom be resolved with a single radius query per level.
+ */
+public class ClusterIndex {
+    public static final int DEFAULT_RADIUS = 50;
+    // max zoom of GeoJSON sources without a maxZoomLevel
+    public static final int DEFAULT_SOURCE_MAX_ZOOM = 18;
+
+    private static final int MIN_ZOOM = 0;
+
+    // the renderer clusters in tile units, 512 px tiles covered by EXTENT units
+    private static final double EXTENT = 512;
+
+    private final List<Feature> mPoints;
+    private final double mRadius;
+    private final int mMaxZoom;
+    private final Level[] mLevels;
+
+    public ClusterIndex(List<Feature> features, int radius, int maxZoom) {
+        mRadius = radius;
+        mMaxZoom = Math.min(maxZoom, 24);
+        mLevels = new Level[mMaxZoom + 2];
+
+        mPoints = new ArrayList<>(features.size());
+        for (Feature feature : features) {
+            if (feature.geometry() instanceof Point) {
+                mPoints.add(feature);
+            }
+        }
+
+        Level level = new Level(mPoints.size());
+        for (int i = 0; i < mPoints.size(); i++) {
+            Point point = (Point) mPoints.get(i).geometry();
+            level.add(lngX(point.longitude()), latY(point.latitude()), 1, i);
+        }
+        level.index();
+        mLevels[mMaxZoom + 1] = level;
+
+        for (int zoom = mMaxZoom; zoom >= MIN_ZOOM; zoom--) {
+            level = cluster(level, zoom);
+            level.index();
+            mLevels[zoom] = level;
+        }
+    }
+
+    /**
+     * Returns the max zoom the renderer clusters a source at, clusterMaxZoom if set, otherwise one
+     * below the max zoom of the source. Ids and levels of the index only match the renderer's when
+     * it is built with this.
+     */
+    public static int getMaxZoom(Integer clusterMaxZoom, Integer sourceMaxZoom) {
+        if (clusterMaxZoom != null) {
+            return clusterMaxZoom;
+        }
+        return (sourceMaxZoom != null ? sourceMaxZoom : DEFAULT_SOURCE_MAX_ZOOM) - 1;
+    }
+
+    /**
+     * Returns the zoom at which the cluster splits into more than one child, or -1 if the id is
+     * not a cluster of this index.
+     */
+    public int getExpansionZoom(int clusterId) {
+        int expansionZoom = getOriginZoom(clusterId) - 1;
+        while (expansionZoom <= mMaxZoom) {
+            int[] children = getChildEntries(clusterId);
+            if (children == null) {
+                return -1;
+            }
+
+            expansionZoom++;
+            if (children.length != 1) {
+                break;
+            }
+
+            Level level = mLevels[getOriginZoom(clusterId)];
+            int child = children[0];
+            if (level.mNumPoints[child] <= 1) {
+                break;
+            }
+            clusterId = level.mIds[child];
+        }
+        return expansionZoom;
+    }
+
+    /**
+     * Returns the clusters and points one zoom level below the cluster, or null if the id is not
+     * a cluster of this index.
+     */
+    public List<Feature> getChildren(int clusterId) {
+        int[] children = getChildEntries(clusterId);
+        if (children == null) {
+            return null;
+        }
+
+        Level level = mLevels[getOriginZoom(clusterId)];
+        List<Feature> features = new ArrayList<>(children.length);
+        for (int child : children) {
+            features.add(toFeature(level, child));
+        }
+        return features;
+    }
+
+    /**
+     * Returns up to limit original points of the cluster, skipping the first offset ones, or null
+     * if the id is not a cluster of this index.
+     */
+    public List<Feature> getLeaves(int clusterId, int limit, int offset) {
+        if (getChildEntries(clusterId) == null) {
+            return null;
+        }
+
+        List<Feature> leaves = new ArrayList<>(Math.min(limit, 64));
+        appendLeaves(leaves, clusterId, limit, offset, 0);
+        return leaves;
+    }
+
+    /**
+     * Returns the cluster_id property of a cluster feature, or -1 if the feature is not a cluster.
+     */
+    public static int getClusterId(Feature feature) {
+        JsonElement clusterId = feature.getProperty("cluster_id");
+        if (clusterId == null || !clusterId.isJsonPrimitive() || !clusterId.getAsJsonPrimitive().isNumber()) {
+            return -1;
+        }
+        return clusterId.getAsInt();
+    }
+
+    private Level cluster(Level previous, int zoom) {
+        Level clusters = new Level(previous.mSize);
+        boolean[] visited = new boolean[previous.mSize];
+        double r = mRadius / (EXTENT * Math.pow(2, zoom));
+
+        for (int i = 0; i < previous.mSize; i++) {
+            if (visited[i]) {
+                continue;
+            }
+            visited[i] = true;
+
+            int numPoints = previous.mNumPoints[i];
+            double wx = previous.mX[i] * numPoints;
+            double wy = previous.mY[i] * numPoints;
+            int id = (i << 5) + (zoom + 1);
+
+            for (int neighbor : previous.mTree.within(previous.mX[i], previous.mY[i], r)) {
+                if (visited[neighbor]) {
+                    continue;
+                }
+                visited[neighbor] = true;
+                previous.mParentIds[neighbor] = id;
+
+                int neighborPoints = previous.mNumPoints[neighbor];
+                wx += previous.mX[neighbor] * neighborPoints;
+                wy += previous.mY[neighbor] * neighborPoints;
+                numPoints += neighborPoints;
+            }
+
+            if (numPoints == previous.mNumPoints[i]) {
+                clusters.add(previous.mX[i], previous.mY[i], numPoints, previous.mIds[i]);
+            } else {
+                previous.mParentIds[i] = id;
+                clusters.add(wx / numPoints, wy / numPoints, numPoints, id);
+            }
+        }
+
+        return clusters;
+    }
+
+    // indices into the level at the cluster's origin zoom of the entries merged into the cluster
+    private int[] getChildEntries(int clusterId) {
+        int originId = clusterId >> 5;
+        int originZoom = getOriginZoom(clusterId);
+        if (clusterId < 0 || originZoom < 1 || originZoom > mMaxZoom + 1) {
+            return null;
+        }
+
+        Level level = mLevels[originZoom];
+        if (originId >= level.mSize) {
+            return null;
+        }
+
+        double r = mRadius / (EXTENT * Math.pow(2, originZoom - 1));
+        int[] neighbors = level.mTree.within(level.mX[originId], level.mY[originId], r);
+
+        int count = 0;
+        for (int neighbor : neighbors) {
+            if (level.mParentIds[neighbor] == clusterId) {
+                neighbors[count++] = neighbor;
+            }
+        }
+
+        return count == 0 ? null : Arrays.copyOf(neighbors, count);
+    }
+
+    private int appendLeaves(List<Feature> leaves, int clusterId, int limit, int offset, int skipped) {
+        int[] children = getChildEntries(clusterId);
+        if (children == null) {
+            return skipped;
+        }
+
+        Level level = mLevels[getOriginZoom(clusterId)];
+        for (int child : children) {
+            int numPoints = level.mNumPoints[child];
+
+            if (numPoints > 1) {
+                if (skipped + numPoints <= offset) {
+                    // skip the whole cluster
+                    skipped += numPoints;
+                } else {
+                    skipped = appendLeaves(leaves, level.mIds[child], limit, offset, skipped);
+                }
+            } else if (skipped < offset) {
+                skipped++;
+            } else {
+                leaves.add(mPoints.get(level.mIds[child]));
+            }
+
+            if (leaves.size() == limit) {
+                break;
+            }
+        }
+
+        return skipped;
+    }
+
+    private Feature toFeature(Level level, int index) {
+        int numPoints = level.mNumPoints[index];
+        int id = level.mIds[index];
+        if (numPoints <= 1) {
+            return mPoints.get(id);
+        }
+
+        JsonObject properties = new JsonObject();
+        properties.addProperty("cluster", true);
+        properties.addProperty("cluster_id", id);
+        properties.addProperty("point_count", numPoints);
+        properties.addProperty("point_count_abbreviated", abbreviate(numPoints));
+
+        Point point = Point.fromLngLat(xLng(level.mX[index]), yLat(level.mY[index]));
+        return Feature.fromGeometry(point, properties, Integer.toString(id));
+    }
+
+    private static int getOriginZoom(int clusterId) {
+        return clusterId % 32;
+    }
+
+    private static String abbreviate(int numPoints) {
+        if (numPoints >= 10000) {
+            return Math.round(numPoints / 1000.0) + "k";
+        }
+        if (numPoints >= 1000) {
+            long tenths = Math.round(numPoints / 100.0);
+            return tenths % 10 == 0 ? (tenths / 10) + "k" : (tenths / 10) + "." + (tenths % 10) + "k";
+        }
+        return Integer.toString(numPoints);
+    }
+
+    private static double lngX(double lng) {
+        return lng / 360 + 0.5;
+    }
+
+    private static double latY(double lat) {
+        double sin = Math.sin(lat * Math.PI / 180);
+        double y = 0.5 - 0.25 * Math.log((1 + sin) / (1 - sin)) / Math.PI;
+        return Math.min(Math.max(y, 0), 1);
+    }
+
+    private static double xLng(double x) {
+        return (x - 0.5) * 360;
+    }
+
+    private static double yLat(double y) {
+        double y2 = (180 - y * 360) * Math.PI / 180;
+        return 360 * Math.atan(Math.exp(y2)) / Math.PI - 90;
+    }
+
+    private static class Level {
+        private final double[] mX;
+        private final double[] mY;
+        private final int[] mNumPoints;
+        // cluster id for clusters, index into mPoints for single points
+        private final int[] mIds;
+        private final int[] mParentIds;
+        private int mSize;
+        private KDBush mTree;
+
+        Level(int capacity) {
+            mX = new double[capacity];
+            mY = new double[capacity];
+            mNumPoints = new int[capacity];
+            mIds = new int[capacity];
+            mParentIds = new int[capacity];
+        }
+
+        void add(double x, double y, int numPoints, int id) {
+            mX[mSize] = x;
+            mY[mSize] = y;
+            mNumPoints[mSize] = numPoints;
+            mIds[mSize] = id;
+            mParentIds[mSize] = -1;
+            mSize++;
+        }
+
+        void index() {
+            mTree = new KDBush(mX, mY, mSize);
+        }
+    }
+}
@@ -90,37 +90,34 @@ public class ConvertUtils {
 
         String type = map.getString("type");
 
-        if (type.equals(ExpressionParser.TYPE_MAP)) {
-            JsonObject result = new JsonObject();
-
-            ReadableArray keyValues = map.getArray("value");
-            for (int i = 0; i < keyValues.size(); i++) {
-                ReadableArray keyValue = keyValues.getArray(i);
-                String key = keyValue.getMap(0).getString("value");
-
-                result.add(key, typedToJsonElement(keyValue.getMap(1)));
+        switch (type) {
+            case ExpressionParser.TYPE_MAP: {
+                ReadableArray keyValues = map.getArray("value");
+                JsonObject result = new JsonObject();
+                for (int i = 0; i < keyValues.size(); i++) {
+                    ReadableArray keyValue = keyValues.getArray(i);
+                    String key = keyValue.getMap(0).getString("value");
+
+                    result.add(key, typedToJsonElement(keyValue.getMap(1)));
+                }
+                return result;
             }
-            return result;
-        }
-        else if (type.equals(ExpressionParser.TYPE_ARRAY)) {
-            ReadableArray arrayValue = map.getArray("value");
-            JsonArray result = new JsonArray(arrayValue.size());
-            for (int i = 0; i < arrayValue.size(); i++) {
-                result.add(typedToJsonElement(arrayValue.getMap(i)));
+            case ExpressionParser.TYPE_ARRAY: {
+                ReadableArray arrayValue = map.getArray("value");
+                JsonArray result = new JsonArray(arrayValue.size());
+                for (int i = 0; i < arrayValue.size(); i++) {
+                    result.add(typedToJsonElement(arrayValue.getMap(i)));
+                }
+                return result;
             }
-            return result;
-        }
-        else if (type.equals(ExpressionParser.TYPE_BOOL)) {
-            return new JsonPrimitive(map.getBoolean("value"));
-        }
-        else if (type.equals(ExpressionParser.TYPE_NUMBER)) {
-            return new JsonPrimitive(map.getDouble("value"));
-        }
-        else if (type.equals(ExpressionParser.TYPE_STRING)) {
-            return new JsonPrimitive(map.getString("value"));
-        }
-        else {
-            throw new RuntimeException(String.format("Unrecognized type {}", map.getString("type")));
+            case ExpressionParser.TYPE_BOOL:
+                return new JsonPrimitive(map.getBoolean("value"));
+            case ExpressionParser.TYPE_NUMBER:
+                return new JsonPrimitive(map.getDouble("value"));
+            case ExpressionParser.TYPE_STRING:
+                return new JsonPrimitive(map.getString("value"));
+            default:
+                throw new RuntimeException("Unrecognized type " + type);
         }
     }
 
@@ -130,7 +127,9 @@ public class ConvertUtils {
         for (int i = 0; i < array.size(); i++) {
             JsonElement element = array.get(i);
 
-            if (element.isJsonArray()) {
+            if (element == null || element.isJsonNull()) {
+                writableArray.pushNull();
+            } else if (element.isJsonArray()) {
                 writableArray.pushArray(toWritableArray(element.getAsJsonArray()));
             } else if (element.isJsonObject()) {
                 writableArray.pushMap(toWritableMap(element.getAsJsonObject()));
@@ -157,7 +156,9 @@ public class ConvertUtils {
             String propName = entry.getKey();
             JsonElement jsonElement = entry.getValue();
 
-            if (jsonElement.isJsonPrimitive()) {
+            if (jsonElement == null || jsonElement.isJsonNull()) {
+                map.putNull(propName);
+            } else if (jsonElement.isJsonPrimitive()) {
                 JsonPrimitive primitive = jsonElement.getAsJsonPrimitive();
 
                 if (primitive.isBoolean()) {
@@ -203,6 +204,18 @@ public class ConvertUtils {
         return list;
     }
 
+    public static double[] toDoubleArray(ReadableArray array) {
+        if (array == null) {
+            return new double[0];
+        }
+
+        double[] values = new double[array.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = array.getDouble(i);
+        }
+        return values;
+    }
+
     public static PointF toPointF(ReadableArray array) {
         PointF pointF = new PointF();
 
@@ -0,0 +1,104 @@
+package com.mapbox.rctmgl.utils;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of compiled expressions keyed by the structure of the raw bridge value, so
+ * re-rendering a layer with an unchanged filter or style expression doesn't compile it again.
+ *
+ * Keys hash the raw value once and compare structurally on collision, the raw value is kept by
+ * the key and must not be mutated afterwards, which holds for values coming from the bridge.
+ */
+public class ExpressionCache<T> {
+    private final int mMaxSize;
+    private final LinkedHashMap<Key, T> mEntries;
+
+    private long mHitCount;
+    private long mMissCount;
+
+    public ExpressionCache(int maxSize) {
+        mMaxSize = maxSize;
+        mEntries = new LinkedHashMap<Key, T>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, T> eldest) {
+                return size() > mMaxSize;
+            }
+        };
+    }
+
+    public static Key keyOf(ReadableArray array) {
+        return new Key(array, ReadableStructure.hash(array));
+    }
+
+    public static Key keyOf(ReadableMap map) {
+        return new Key(map, ReadableStructure.hash(map));
+    }
+
+    public synchronized T get(Key key) {
+        T value = mEntries.get(key);
+        if (value != null) {
+            mHitCount++;
+        } else {
+            mMissCount++;
+        }
+        return value;
+    }
+
+    public synchronized void put(Key key, T value) {
+        mEntries.put(key, value);
+    }
+
+    public synchronized void clear() {
+        mEntries.clear();
+    }
+
+    public synchronized long getHitCount() {
+        return mHitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return mMissCount;
+    }
+
+    public static final class Key {
+        private final Object mSource;
+        private final int mHash;
+
+        private Key(Object source, int hash) {
+            mSource = source;
+            mHash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return mHash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            if (mHash != other.mHash) {
+                return false;
+            }
+
+            if (mSource instanceof ReadableArray && other.mSource instanceof ReadableArray) {
+                return ReadableStructure.equal((ReadableArray) mSource, (ReadableArray) other.mSource);
+            }
+            if (mSource instanceof ReadableMap && other.mSource instanceof ReadableMap) {
+                return ReadableStructure.equal((ReadableMap) mSource, (ReadableMap) other.mSource);
+            }
+            return false;
+        }
+    }
+}
@@ -3,8 +3,7 @@ package com.mapbox.rctmgl.utils;
 import com.facebook.react.bridge.ReadableArray;
 
 import com.facebook.react.bridge.ReadableMap;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.mapbox.maps.extension.style.expressions.generated.Expression;
 
 import java.util.Locale;
@@ -18,20 +17,217 @@ public class ExpressionParser {
   static final String TYPE_MAP = "hashmap";
   static final String TYPE_BOOL = "boolean";
 
+  private static final int CACHE_SIZE = 256;
+
+  private static final ExpressionCache<Expression> sCache = new ExpressionCache<>(CACHE_SIZE);
+
   public static @Nullable Expression from(@Nullable  ReadableArray rawExpressions) {
     if (rawExpressions == null || rawExpressions.size() == 0) {
       return null;
     }
 
-    JsonArray array = ConvertUtils.toJsonArray(rawExpressions);
-    String jsonString = new Gson().toJson(array);
-    return Expression.fromRaw(jsonString);
+    ExpressionCache.Key key = ExpressionCache.keyOf(rawExpressions);
+    Expression expression = sCache.get(key);
+    if (expression == null) {
+      expression = Expression.fromRaw(toJson(rawExpressions));
+      sCache.put(key, expression);
+    }
+    return expression;
   }
 
   public static @Nullable Expression fromTyped(ReadableMap rawExpressions) {
-    JsonArray array = (JsonArray)ConvertUtils.typedToJsonElement(rawExpressions);
-    String jsonString = new Gson().toJson(array);
-    return Expression.fromRaw(jsonString);
+    ExpressionCache.Key key = ExpressionCache.keyOf(rawExpressions);
+    Expression expression = sCache.get(key);
+    if (expression == null) {
+      expression = Expression.fromRaw(typedToJson(rawExpressions));
+      sCache.put(key, expression);
+    }
+    return expression;
+  }
+
+  /**
+   * Number of expressions served from the cache since start.
+   */
+  public static long getCacheHitCount() {
+    return sCache.getHitCount();
+  }
+
+  /**
+   * Number of expressions that had to be compiled since start.
+   */
+  public static long getCacheMissCount() {
+    return sCache.getMissCount();
+  }
+
+  // Expressions can only be created from raw JSON, so the bridge values are written straight
+  // into the JSON text instead of building and serializing a Gson tree first.
+
+  static String toJson(ReadableArray array) {
+    StringBuilder json = new StringBuilder();
+    writeArray(json, array);
+    return json.toString();
+  }
+
+  static String typedToJson(ReadableMap item) {
+    StringBuilder json = new StringBuilder();
+    writeTyped(json, item);
+    return json.toString();
+  }
+
+  private static void writeArray(StringBuilder json, ReadableArray array) {
+    json.append('[');
+    for (int i = 0; i < array.size(); i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+
+      switch (array.getType(i)) {
+        case Array:
+          writeArray(json, array.getArray(i));
+          break;
+        case Map:
+          writeMap(json, array.getMap(i));
+          break;
+        case String:
+          writeString(json, array.getString(i));
+          break;
+        case Number:
+          writeNumber(json, array.getDouble(i));
+          break;
+        case Boolean:
+          json.append(array.getBoolean(i));
+          break;
+        default:
+          json.append("null");
+          break;
+      }
+    }
+    json.append(']');
+  }
+
+  private static void writeMap(StringBuilder json, ReadableMap map) {
+    json.append('{');
+    ReadableMapKeySetIterator it = map.keySetIterator();
+    boolean first = true;
+    while (it.hasNextKey()) {
+      String key = it.nextKey();
+      if (!first) {
+        json.append(',');
+      }
+      first = false;
+
+      writeString(json, key);
+      json.append(':');
+
+      switch (map.getType(key)) {
+        case Array:
+          writeArray(json, map.getArray(key));
+          break;
+        case Map:
+          writeMap(json, map.getMap(key));
+          break;
+        case String:
+          writeString(json, map.getString(key));
+          break;
+        case Number:
+          writeNumber(json, map.getDouble(key));
+          break;
+        case Boolean:
+          json.append(map.getBoolean(key));
+          break;
+        default:
+          json.append("null");
+          break;
+      }
+    }
+    json.append('}');
+  }
+
+  private static void writeTyped(StringBuilder json, ReadableMap item) {
+    String type = item.getString("type");
+    switch (type) {
+      case TYPE_ARRAY: {
+        ReadableArray entries = item.getArray("value");
+        json.append('[');
+        for (int i = 0; i < entries.size(); i++) {
+          if (i > 0) {
+            json.append(',');
+          }
+          writeTyped(json, entries.getMap(i));
+        }
+        json.append(']');
+        break;
+      }
+      case TYPE_MAP: {
+        ReadableArray keyValues = item.getArray("value");
+        json.append('{');
+        for (int i = 0; i < keyValues.size(); i++) {
+          if (i > 0) {
+            json.append(',');
+          }
+          ReadableArray keyValue = keyValues.getArray(i);
+          writeString(json, keyValue.getMap(0).getString("value"));
+          json.append(':');
+          writeTyped(json, keyValue.getMap(1));
+        }
+        json.append('}');
+        break;
+      }
+      case TYPE_STRING:
+        writeString(json, item.getString("value"));
+        break;
+      case TYPE_NUMBER:
+        writeNumber(json, item.getDouble("value"));
+        break;
+      case TYPE_BOOL:
+        json.append(item.getBoolean("value"));
+        break;
+      default:
+        throw new IllegalArgumentException("Unrecognized type " + type);
+    }
+  }
+
+  private static void writeNumber(StringBuilder json, double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      // JSON has no literal for these, write null like JSON.stringify does on the JS side
+      json.append("null");
+    } else {
+      json.append(value);
+    }
+  }
+
+  private static void writeString(StringBuilder json, String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          json.append("\\\"");
+          break;
+        case '\\':
+          json.append("\\\\");
+          break;
+        case '\n':
+          json.append("\\n");
+          break;
+        case '\r':
+          json.append("\\r");
+          break;
+        case '\t':
+          json.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            json.append("\\u00");
+            json.append(Character.forDigit(c >> 4, 16));
+            json.append(Character.forDigit(c & 0xf, 16));
+          } else {
+            json.append(c);
+          }
+          break;
+      }
+    }
+    json.append('"');
   }
 
   public static Expression from(ReadableMap rawExpression) {
@@ -46,8 +242,9 @@ public class ExpressionParser {
       String value = item.getString("value");
       expression = String.format(Locale.ENGLISH, "\"%s\"", value);
     } else if (TYPE_NUMBER.equals(type)) {
-      Double value = item.getDouble("value");
-      expression = String.format(Locale.ENGLISH, "%f", value);
+      StringBuilder value = new StringBuilder();
+      writeNumber(value, item.getDouble("value"));
+      expression = value.toString();
     } else if (TYPE_BOOL.equals(type)) {
       Boolean value = item.getBoolean("value");
       expression = String.format(Locale.ENGLISH, "%b", value);
@@ -0,0 +1,168 @@
+package com.mapbox.rctmgl.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses GeoJSON on a small background pool and hands the result back on the main thread.
+ *
+ * Requests are keyed by their owner (eg. a shape source). While a request is queued or being
+ * parsed newer input for the same owner replaces it, and results that were superseded by a newer
+ * request are dropped instead of being delivered, so only the latest data ever reaches the map.
+ * Failures are delivered the same way, so owners can drop state waiting for the result.
+ */
+public class GeoJSONParseQueue {
+    public static final String LOG_TAG = "GeoJSONParseQueue";
+
+    private static final int POOL_SIZE = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+
+    public interface Parser<T> {
+        T parse(String json) throws Exception;
+    }
+
+    public interface Callback<T> {
+        void onParsed(T result);
+    }
+
+    public interface ErrorCallback {
+        void onError(Exception error);
+    }
+
+    private static final ExecutorService sExecutor = new ThreadPoolExecutor(
+            POOL_SIZE, POOL_SIZE, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, LOG_TAG);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                }
+            });
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    // guarded by sJobs, weak so jobs go away together with their owner
+    private static final Map<Object, Job<?>> sJobs = new WeakHashMap<>();
+
+    public static <T> void parse(Object owner, final String json, final Parser<T> parser, Callback<T> callback, ErrorCallback errorCallback) {
+        run(owner, new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                return parser.parse(json);
+            }
+        }, callback, errorCallback);
+    }
+
+    /**
+     * Runs other work derived from GeoJSON, like building an index, with the same latest-wins
+     * delivery per owner.
+     */
+    public static <T> void run(Object owner, Callable<T> task, Callback<T> callback, ErrorCallback errorCallback) {
+        synchronized (sJobs) {
+            @SuppressWarnings("unchecked")
+            Job<T> job = (Job<T>) sJobs.get(owner);
+            if (job == null) {
+                job = new Job<>();
+                sJobs.put(owner, job);
+            }
+
+            job.mGeneration++;
+            job.mTask = task;
+            job.mCallback = callback;
+            job.mErrorCallback = errorCallback;
+
+            if (!job.mScheduled) {
+                job.mScheduled = true;
+                sExecutor.execute(job);
+            }
+        }
+    }
+
+    /**
+     * Drops any queued or in flight request of owner, its result won't be delivered.
+     */
+    public static void cancel(Object owner) {
+        synchronized (sJobs) {
+            Job<?> job = sJobs.get(owner);
+            if (job != null) {
+                job.mGeneration++;
+                job.mTask = null;
+                job.mCallback = null;
+                job.mErrorCallback = null;
+            }
+        }
+    }
+
+    private static class Job<T> implements Runnable {
+        private long mGeneration;
+        private Callable<T> mTask;
+        private Callback<T> mCallback;
+        private ErrorCallback mErrorCallback;
+        private boolean mScheduled;
+
+        @Override
+        public void run() {
+            while (true) {
+                final long generation;
+                final Callable<T> task;
+                final Callback<T> callback;
+                final ErrorCallback errorCallback;
+
+                synchronized (sJobs) {
+                    if (mTask == null) {
+                        mScheduled = false;
+                        return;
+                    }
+
+                    generation = mGeneration;
+                    task = mTask;
+                    callback = mCallback;
+                    errorCallback = mErrorCallback;
+
+                    // don't keep the owner reachable from the weak map once the request is taken
+                    mTask = null;
+                    mCallback = null;
+                    mErrorCallback = null;
+                }
+
+                T result = null;
+                Exception error = null;
+                try {
+                    result = task.call();
+                } catch (Exception e) {
+                    Log.w(LOG_TAG, "Could not parse GeoJSON: " + e.getLocalizedMessage());
+                    error = e;
+                }
+
+                final T parsed = result;
+                final Exception failure = error;
+                sMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        synchronized (sJobs) {
+                            if (generation != mGeneration) {
+                                // a newer shape arrived while this one was parsed
+                                return;
+                            }
+                        }
+                        if (failure != null) {
+                            errorCallback.onError(failure);
+                        } else {
+                            callback.onParsed(parsed);
+                        }
+                    }
+                });
+            }
+        }
+    }
+}
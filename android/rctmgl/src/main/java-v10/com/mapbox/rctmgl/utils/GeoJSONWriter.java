@@ -0,0 +1,226 @@
+package com.mapbox.rctmgl.utils;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.Geometry;
+import com.mapbox.geojson.GeometryCollection;
+import com.mapbox.geojson.LineString;
+import com.mapbox.geojson.MultiLineString;
+import com.mapbox.geojson.MultiPoint;
+import com.mapbox.geojson.MultiPolygon;
+import com.mapbox.geojson.Point;
+import com.mapbox.geojson.Polygon;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes features and geometries straight into bridge containers in a single pass, without a
+ * double[] or copied array per coordinate and without going through ConvertUtils for properties.
+ *
+ * Null points are skipped and geometries that can't be encoded are written as null, GeoJSON has no
+ * placeholder coordinate.
+ */
+public class GeoJSONWriter {
+    interface Containers {
+        WritableMap createMap();
+
+        WritableArray createArray();
+    }
+
+    public static final GeoJSONWriter NATIVE = new GeoJSONWriter(new Containers() {
+        @Override
+        public WritableMap createMap() {
+            return Arguments.createMap();
+        }
+
+        @Override
+        public WritableArray createArray() {
+            return Arguments.createArray();
+        }
+    });
+
+    private final Containers mContainers;
+
+    GeoJSONWriter(Containers containers) {
+        mContainers = containers;
+    }
+
+    public WritableMap writeFeature(Feature feature) {
+        WritableMap map = mContainers.createMap();
+        map.putString("type", "Feature");
+        map.putString("id", feature.id());
+
+        WritableMap geometry = writeGeometry(feature.geometry());
+        if (geometry == null) {
+            map.putNull("geometry");
+        } else {
+            map.putMap("geometry", geometry);
+        }
+
+        JsonObject properties = feature.properties();
+        map.putMap("properties", properties != null ? writeObject(properties) : mContainers.createMap());
+        return map;
+    }
+
+    public @Nullable WritableMap writeGeometry(@Nullable Geometry geometry) {
+        if (geometry instanceof Point) {
+            return writePoint((Point) geometry);
+        } else if (geometry instanceof LineString) {
+            return writeGeometry("LineString", writePoints(((LineString) geometry).coordinates()));
+        } else if (geometry instanceof Polygon) {
+            return writeGeometry("Polygon", writeRings(((Polygon) geometry).coordinates()));
+        } else if (geometry instanceof MultiPoint) {
+            return writeGeometry("MultiPoint", writePoints(((MultiPoint) geometry).coordinates()));
+        } else if (geometry instanceof MultiLineString) {
+            return writeGeometry("MultiLineString", writeRings(((MultiLineString) geometry).coordinates()));
+        } else if (geometry instanceof MultiPolygon) {
+            return writeGeometry("MultiPolygon", writePolygons(((MultiPolygon) geometry).coordinates()));
+        } else if (geometry instanceof GeometryCollection) {
+            return writeGeometryCollection((GeometryCollection) geometry);
+        }
+        return null;
+    }
+
+    public @Nullable WritableArray writeCoordinates(@Nullable Point point) {
+        if (point == null) {
+            return null;
+        }
+
+        WritableArray array = mContainers.createArray();
+        array.pushDouble(point.longitude());
+        array.pushDouble(point.latitude());
+        return array;
+    }
+
+    public WritableArray writePoints(@Nullable List<Point> points) {
+        WritableArray array = mContainers.createArray();
+        if (points == null) {
+            return array;
+        }
+
+        for (int i = 0, size = points.size(); i < size; i++) {
+            WritableArray coordinates = writeCoordinates(points.get(i));
+            if (coordinates != null) {
+                array.pushArray(coordinates);
+            }
+        }
+        return array;
+    }
+
+    public WritableArray writeRings(@Nullable List<List<Point>> rings) {
+        WritableArray array = mContainers.createArray();
+        if (rings == null) {
+            return array;
+        }
+
+        for (int i = 0, size = rings.size(); i < size; i++) {
+            array.pushArray(writePoints(rings.get(i)));
+        }
+        return array;
+    }
+
+    private WritableArray writePolygons(@Nullable List<List<List<Point>>> polygons) {
+        WritableArray array = mContainers.createArray();
+        if (polygons == null) {
+            return array;
+        }
+
+        for (int i = 0, size = polygons.size(); i < size; i++) {
+            array.pushArray(writeRings(polygons.get(i)));
+        }
+        return array;
+    }
+
+    private @Nullable WritableMap writePoint(Point point) {
+        WritableArray coordinates = writeCoordinates(point);
+        if (coordinates == null) {
+            return null;
+        }
+        return writeGeometry("Point", coordinates);
+    }
+
+    private WritableMap writeGeometry(String type, WritableArray coordinates) {
+        WritableMap map = mContainers.createMap();
+        map.putString("type", type);
+        map.putArray("coordinates", coordinates);
+        return map;
+    }
+
+    private WritableMap writeGeometryCollection(GeometryCollection geometryCollection) {
+        WritableArray array = mContainers.createArray();
+        List<Geometry> geometries = geometryCollection.geometries();
+        if (geometries != null) {
+            for (int i = 0, size = geometries.size(); i < size; i++) {
+                WritableMap child = writeGeometry(geometries.get(i));
+                if (child != null) {
+                    array.pushMap(child);
+                }
+            }
+        }
+
+        WritableMap map = mContainers.createMap();
+        map.putString("type", "GeometryCollection");
+        map.putArray("geometries", array);
+        return map;
+    }
+
+    private WritableMap writeObject(JsonObject object) {
+        WritableMap map = mContainers.createMap();
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            String key = entry.getKey();
+            JsonElement value = entry.getValue();
+
+            if (value instanceof JsonPrimitive) {
+                JsonPrimitive primitive = (JsonPrimitive) value;
+                if (primitive.isBoolean()) {
+                    map.putBoolean(key, primitive.getAsBoolean());
+                } else if (primitive.isNumber()) {
+                    map.putDouble(key, primitive.getAsDouble());
+                } else {
+                    map.putString(key, primitive.getAsString());
+                }
+            } else if (value instanceof JsonObject) {
+                map.putMap(key, writeObject((JsonObject) value));
+            } else if (value instanceof JsonArray) {
+                map.putArray(key, writeArray((JsonArray) value));
+            } else {
+                map.putNull(key);
+            }
+        }
+        return map;
+    }
+
+    private WritableArray writeArray(JsonArray jsonArray) {
+        WritableArray array = mContainers.createArray();
+        for (int i = 0, size = jsonArray.size(); i < size; i++) {
+            JsonElement value = jsonArray.get(i);
+
+            if (value instanceof JsonPrimitive) {
+                JsonPrimitive primitive = (JsonPrimitive) value;
+                if (primitive.isBoolean()) {
+                    array.pushBoolean(primitive.getAsBoolean());
+                } else if (primitive.isNumber()) {
+                    array.pushDouble(primitive.getAsDouble());
+                } else {
+                    array.pushString(primitive.getAsString());
+                }
+            } else if (value instanceof JsonObject) {
+                array.pushMap(writeObject((JsonObject) value));
+            } else if (value instanceof JsonArray) {
+                array.pushArray(writeArray((JsonArray) value));
+            } else {
+                array.pushNull();
+            }
+        }
+        return array;
+    }
+}
@@ -0,0 +1,178 @@
+package com.mapbox.rctmgl.utils;
+
+import java.util.Arrays;
+
+/**
+ * Static 2D KD-tree over a fixed set of points supporting radius queries, a port of
+ * https://github.com/mourner/kdbush. Points are referenced by their index in the input arrays.
+ */
+public class KDBush {
+    private static final int DEFAULT_NODE_SIZE = 64;
+
+    private final int mNodeSize;
+    private final int[] mIds;
+    private final double[] mCoords;
+
+    public KDBush(double[] xs, double[] ys, int size) {
+        this(xs, ys, size, DEFAULT_NODE_SIZE);
+    }
+
+    public KDBush(double[] xs, double[] ys, int size, int nodeSize) {
+        mNodeSize = nodeSize;
+        mIds = new int[size];
+        mCoords = new double[size * 2];
+
+        for (int i = 0; i < size; i++) {
+            mIds[i] = i;
+            mCoords[2 * i] = xs[i];
+            mCoords[2 * i + 1] = ys[i];
+        }
+
+        sortKD(0, size - 1, 0);
+    }
+
+    /**
+     * Returns the indices of all points within radius of (x, y).
+     */
+    public int[] within(double x, double y, double radius) {
+        int[] result = new int[16];
+        int count = 0;
+
+        int[] stack = new int[48];
+        int stackSize = 0;
+        stack[stackSize++] = 0;
+        stack[stackSize++] = mIds.length - 1;
+        stack[stackSize++] = 0;
+
+        double r2 = radius * radius;
+
+        while (stackSize > 0) {
+            int axis = stack[--stackSize];
+            int right = stack[--stackSize];
+            int left = stack[--stackSize];
+
+            if (right - left <= mNodeSize) {
+                for (int i = left; i <= right; i++) {
+                    if (sqDist(mCoords[2 * i], mCoords[2 * i + 1], x, y) <= r2) {
+                        if (count == result.length) {
+                            result = Arrays.copyOf(result, count * 2);
+                        }
+                        result[count++] = mIds[i];
+                    }
+                }
+                continue;
+            }
+
+            int m = (left + right) >> 1;
+            double mx = mCoords[2 * m];
+            double my = mCoords[2 * m + 1];
+
+            if (sqDist(mx, my, x, y) <= r2) {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count * 2);
+                }
+                result[count++] = mIds[m];
+            }
+
+            if (stackSize + 6 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+
+            if (axis == 0 ? x - radius <= mx : y - radius <= my) {
+                stack[stackSize++] = left;
+                stack[stackSize++] = m - 1;
+                stack[stackSize++] = 1 - axis;
+            }
+            if (axis == 0 ? x + radius >= mx : y + radius >= my) {
+                stack[stackSize++] = m + 1;
+                stack[stackSize++] = right;
+                stack[stackSize++] = 1 - axis;
+            }
+        }
+
+        return Arrays.copyOf(result, count);
+    }
+
+    private void sortKD(int left, int right, int axis) {
+        if (right - left <= mNodeSize) {
+            return;
+        }
+
+        int m = (left + right) >> 1;
+        select(m, left, right, axis);
+
+        sortKD(left, m - 1, 1 - axis);
+        sortKD(m + 1, right, 1 - axis);
+    }
+
+    // Floyd-Rivest selection, puts the k-th smallest element along axis at position k
+    private void select(int k, int left, int right, int axis) {
+        while (right > left) {
+            if (right - left > 600) {
+                int n = right - left + 1;
+                int m = k - left + 1;
+                double z = Math.log(n);
+                double s = 0.5 * Math.exp(2 * z / 3);
+                double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * (m - n / 2.0 < 0 ? -1 : 1);
+                int newLeft = (int) Math.max(left, Math.floor(k - m * s / n + sd));
+                int newRight = (int) Math.min(right, Math.floor(k + (n - m) * s / n + sd));
+                select(k, newLeft, newRight, axis);
+            }
+
+            double t = mCoords[2 * k + axis];
+            int i = left;
+            int j = right;
+
+            swapItem(left, k);
+            if (mCoords[2 * right + axis] > t) {
+                swapItem(left, right);
+            }
+
+            while (i < j) {
+                swapItem(i, j);
+                i++;
+                j--;
+                while (mCoords[2 * i + axis] < t) {
+                    i++;
+                }
+                while (mCoords[2 * j + axis] > t) {
+                    j--;
+                }
+            }
+
+            if (mCoords[2 * left + axis] == t) {
+                swapItem(left, j);
+            } else {
+                j++;
+                swapItem(j, right);
+            }
+
+            if (j <= k) {
+                left = j + 1;
+            }
+            if (k <= j) {
+                right = j - 1;
+            }
+        }
+    }
+
+    private void swapItem(int i, int j) {
+        int id = mIds[i];
+        mIds[i] = mIds[j];
+        mIds[j] = id;
+
+        double x = mCoords[2 * i];
+        mCoords[2 * i] = mCoords[2 * j];
+        mCoords[2 * j] = x;
+
+        double y = mCoords[2 * i + 1];
+        mCoords[2 * i + 1] = mCoords[2 * j + 1];
+        mCoords[2 * j + 1] = y;
+    }
+
+    private static double sqDist(double ax, double ay, double bx, double by) {
+        double dx = ax - bx;
+        double dy = ay - by;
+        return dx * dx + dy * dy;
+    }
+}
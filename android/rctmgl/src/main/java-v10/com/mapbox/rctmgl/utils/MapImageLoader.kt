@@ -0,0 +1,270 @@
+package com.mapbox.rctmgl.utils
+
+import android.content.Context
+import android.graphics.Bitmap
+import android.graphics.BitmapFactory
+import android.net.Uri
+import android.os.Handler
+import android.os.Looper
+import android.util.DisplayMetrics
+import android.util.Log
+import android.view.Choreographer
+import com.facebook.common.logging.FLog
+import com.facebook.common.references.CloseableReference
+import com.facebook.datasource.DataSources
+import com.facebook.drawee.backends.pipeline.Fresco
+import com.facebook.imagepipeline.common.ResizeOptions
+import com.facebook.imagepipeline.common.RotationOptions
+import com.facebook.imagepipeline.image.CloseableImage
+import com.facebook.imagepipeline.image.CloseableStaticBitmap
+import com.facebook.imagepipeline.request.ImageRequest
+import com.facebook.imagepipeline.request.ImageRequestBuilder
+import com.facebook.react.views.imagehelper.ImageSource
+import com.mapbox.maps.MapboxMap
+import java.io.File
+import java.util.*
+import java.util.concurrent.Executors
+
+/**
+ * Loads images referenced by styles and adds them to the style of a map.
+ *
+ * Images are fetched and decoded on a small pool of threads, so they load in parallel, and
+ * concurrent requests for the same image share one load. Images are decoded as their ImageEntry
+ * asks for, downsampled if it has a max size. Images are collected and added to the styles once
+ * per frame.
+ *
+ * Images decoded by Fresco stay in its memory cache, their Fresco reference is kept until they
+ * were added to the styles, so they don't have to be copied. They are looked up in Fresco's memory
+ * cache rather than the shared BitmapCache, which only keeps the other images, and count as Fresco
+ * hits or misses in its stats. Styles only take ARGB_8888 images, so opaque images aren't decoded
+ * as RGB_565.
+ *
+ * All methods have to be called on the main thread.
+ */
+object MapImageLoader {
+    const val LOG_TAG = "MapImageLoader"
+
+    private const val MAX_PARALLEL_LOADS = 4
+
+    interface OnAllImagesLoaded {
+        fun onAllImagesLoaded()
+    }
+
+    private class Request(val callback: OnAllImagesLoaded?, var remaining: Int)
+
+    // a map image waiting for a load
+    private class Target(val map: MapboxMap, val name: String, val request: Request)
+
+    // density is the one the image is added to styles with, reference is set if the bitmap is
+    // owned by Fresco, it's released after the next commit
+    private class LoadedImage(val bitmap: Bitmap, val density: Int, val reference: CloseableReference<CloseableImage>?)
+
+    private val executor = Executors.newFixedThreadPool(MAX_PARALLEL_LOADS)
+    private val mainHandler = Handler(Looper.getMainLooper())
+
+    // targets of the loads in flight, by cache key
+    private val loads = HashMap<String, MutableList<Target>>()
+
+    // images to add to the style of each map with the next frame, and the requests completed by them
+    private val pendingImages = IdentityHashMap<MapboxMap, HashMap<String, LoadedImage>>()
+    private val pendingRequests = ArrayList<Request>()
+    private val pendingReferences = ArrayList<CloseableReference<CloseableImage>>()
+    private var frameScheduled = false
+
+    private val frameCallback = Choreographer.FrameCallback {
+        frameScheduled = false
+        commit()
+    }
+
+    /**
+     * Loads the images and adds them to the style of the map under their keys. The callback is
+     * called once all of them were added, or failed to load.
+     */
+    @JvmStatic
+    fun load(context: Context, map: MapboxMap, images: List<Map.Entry<String, ImageEntry>>, callback: OnAllImagesLoaded?) {
+        val request = Request(callback, images.size)
+        if (images.isEmpty()) {
+            pendingRequests.add(request)
+            scheduleCommit()
+            return
+        }
+
+        val appContext = context.applicationContext
+        val cache = BitmapCache.getInstance(appContext)
+        val densityDpi = appContext.resources.displayMetrics.densityDpi
+
+        for ((name, imageEntry) in images) {
+            val key = imageEntry.getCacheKey(densityDpi)
+
+            // Fresco serves its images from its own memory cache
+            val frescoRequest = if (isLoadedByFresco(imageEntry.uri)) getFrescoRequest(appContext, imageEntry) else null
+            if (frescoRequest != null) {
+                cache.recordFrescoLookup(Fresco.getImagePipeline().isInBitmapMemoryCache(frescoRequest))
+            }
+            val bitmap = if (frescoRequest != null) null else cache.get(key)
+            if (bitmap != null) {
+                onTargetLoaded(Target(map, name, request), LoadedImage(bitmap, bitmap.density, null))
+                scheduleCommit()
+                continue
+            }
+
+            val targets = loads[key]
+            if (targets != null) {
+                targets.add(Target(map, name, request))
+                continue
+            }
+            loads[key] = mutableListOf(Target(map, name, request))
+
+            executor.execute {
+                val loadedImage = loadImage(appContext, imageEntry, frescoRequest)
+                mainHandler.post { onLoaded(key, loadedImage, frescoRequest == null) }
+            }
+        }
+    }
+
+    private fun onLoaded(key: String, image: LoadedImage?, cached: Boolean) {
+        val targets = loads.remove(key)
+        if (targets == null) {
+            image?.reference?.let { CloseableReference.closeSafely(it) }
+            return
+        }
+
+        if (image != null) {
+            if (image.reference != null) {
+                pendingReferences.add(image.reference)
+            } else if (cached) {
+                BitmapCache.peekInstance()?.put(key, image.bitmap)
+            }
+        }
+
+        for (target in targets) {
+            onTargetLoaded(target, image)
+        }
+        scheduleCommit()
+    }
+
+    private fun onTargetLoaded(target: Target, image: LoadedImage?) {
+        if (image != null) {
+            pendingImages.getOrPut(target.map) { HashMap() }[target.name] = image
+        }
+
+        target.request.remaining--
+        if (target.request.remaining == 0) {
+            pendingRequests.add(target.request)
+        }
+    }
+
+    private fun scheduleCommit() {
+        if (frameScheduled) {
+            return
+        }
+        frameScheduled = true
+        Choreographer.getInstance().postFrameCallback(frameCallback)
+    }
+
+    private fun commit() {
+        // v10 styles have no call for adding several images at once
+        for ((map, images) in pendingImages) {
+            val style = map.getStyle() ?: continue
+            for ((name, image) in images) {
+                // bitmaps owned by Fresco may be drawn elsewhere, so their density is only
+                // changed while they are added
+                val density = image.bitmap.density
+                image.bitmap.density = image.density
+                style.addImage(name, image.bitmap)
+                image.bitmap.density = density
+            }
+        }
+        pendingImages.clear()
+
+        // the styles copied the pixels, Fresco can have its bitmaps back
+        for (reference in pendingReferences) {
+            CloseableReference.closeSafely(reference)
+        }
+        pendingReferences.clear()
+
+        val requests = ArrayList(pendingRequests)
+        pendingRequests.clear()
+        for (request in requests) {
+            request.callback?.onAllImagesLoaded()
+        }
+    }
+
+    private fun isLoadedByFresco(uri: String): Boolean {
+        return uri.startsWith("/") || uri.startsWith("http://") || uri.startsWith("https://") ||
+            uri.startsWith("file://") || uri.startsWith("asset://") || uri.startsWith("data:")
+    }
+
+    private fun getFrescoRequest(context: Context, imageEntry: ImageEntry): ImageRequest {
+        var uri = imageEntry.uri
+        if (uri.startsWith("/")) {
+            uri = Uri.fromFile(File(uri)).toString()
+        }
+
+        val source = ImageSource(context, uri)
+        val builder = ImageRequestBuilder.newBuilderWithSource(source.uri)
+            .setRotationOptions(RotationOptions.autoRotate())
+        if (imageEntry.maxSize > 0) {
+            builder.resizeOptions = ResizeOptions(imageEntry.maxSize, imageEntry.maxSize)
+        }
+        return builder.build()
+    }
+
+    private fun loadImage(context: Context, imageEntry: ImageEntry, frescoRequest: ImageRequest?): LoadedImage? {
+        val uri = imageEntry.uri
+
+        if (frescoRequest != null) {
+            val dataSource = Fresco.getImagePipeline().fetchDecodedImage(frescoRequest, LOG_TAG)
+            var result: CloseableReference<CloseableImage>? = null
+            try {
+                result = DataSources.waitForFinalResult(dataSource)
+                val image = result?.get()
+                if (image is CloseableStaticBitmap) {
+                    val density = (DisplayMetrics.DENSITY_DEFAULT.toDouble() * imageEntry.getScaleOr(1.0)).toInt()
+                    val bitmap = image.underlyingBitmap
+                    // Fresco resizes to about maxSize and styles only take ARGB_8888, other
+                    // images are copied, the copy is owned by us and dropped once added, Fresco
+                    // keeps the decoded image
+                    val scaled = BitmapUtils.scaleToMaxSize(bitmap, imageEntry.maxSize)
+                    if (scaled !== bitmap || bitmap.config != Bitmap.Config.ARGB_8888) {
+                        val copy = if (scaled.config != Bitmap.Config.ARGB_8888) scaled.copy(Bitmap.Config.ARGB_8888, false) else scaled
+                        copy.density = density
+                        return LoadedImage(copy, density, null)
+                    }
+                    // the reference is released once the image was added
+                    val loadedImage = LoadedImage(bitmap, density, result)
+                    result = null
+                    return loadedImage
+                }
+                FLog.e(LOG_TAG, "Failed to load bitmap from: $uri")
+            } catch (e: Throwable) {
+                Log.w(LOG_TAG, e.localizedMessage)
+            } finally {
+                dataSource.close()
+                if (result != null) {
+                    CloseableReference.closeSafely(result)
+                }
+            }
+            return null
+        }
+
+        // local asset required from JS require('image.png') or import icon from 'image.png' while in release mode
+        val metrics = context.resources.displayMetrics
+        val bitmap = BitmapUtils.getBitmapFromResource(context, uri, getBitmapOptions(metrics, imageEntry.scale), imageEntry.maxSize)
+        if (bitmap == null) {
+            FLog.e(LOG_TAG, "Failed to load bitmap from: $uri")
+            return null
+        }
+        return LoadedImage(bitmap, bitmap.density, null)
+    }
+
+    private fun getBitmapOptions(metrics: DisplayMetrics, scale: Double): BitmapFactory.Options {
+        val options = BitmapFactory.Options()
+        options.inScreenDensity = metrics.densityDpi
+        options.inTargetDensity = metrics.densityDpi
+        if (scale != ImageEntry.defaultScale) {
+            options.inDensity = (DisplayMetrics.DENSITY_DEFAULT.toDouble() * scale).toInt()
+        }
+        return options
+    }
+}
@@ -0,0 +1,119 @@
+package com.mapbox.rctmgl.utils;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExpressionParserTest {
+    @Test
+    public void writesBridgeValues() {
+        JavaOnlyArray expression = JavaOnlyArray.of(
+                "case",
+                JavaOnlyArray.of("==", JavaOnlyArray.of("get", "kind"), 1.5),
+                JavaOnlyArray.of("literal", JavaOnlyMap.of("visible", true)),
+                null);
+
+        assertEquals("[\"case\",[\"==\",[\"get\",\"kind\"],1.5],[\"literal\",{\"visible\":true}],null]",
+                ExpressionParser.toJson(expression));
+    }
+
+    @Test
+    public void writesNonFiniteNumbersAsNull() {
+        JavaOnlyArray expression = JavaOnlyArray.of(
+                "literal", JavaOnlyArray.of(Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -0.5));
+
+        assertEquals("[\"literal\",[null,null,null,-0.5]]", ExpressionParser.toJson(expression));
+        assertEquals("[\"literal\",{\"a\":null}]",
+                ExpressionParser.toJson(JavaOnlyArray.of("literal", JavaOnlyMap.of("a", Double.NaN))));
+        assertEquals("null", ExpressionParser.typedToJson(typed("number", Double.NaN)));
+    }
+
+    @Test
+    public void escapesStrings() {
+        JavaOnlyArray expression = JavaOnlyArray.of("get", "a\"b\\c\nd\u0001");
+
+        assertEquals("[\"get\",\"a\\\"b\\\\c\\nd\\u0001\"]", ExpressionParser.toJson(expression));
+    }
+
+    @Test
+    public void writesTypedValues() {
+        ReadableMap expression = typed("array", JavaOnlyArray.of(
+                typed("string", "match"),
+                typed("array", JavaOnlyArray.of(typed("string", "get"), typed("string", "rank"))),
+                typed("number", 2.0),
+                typed("boolean", true),
+                typed("hashmap", JavaOnlyArray.of(
+                        JavaOnlyArray.of(typed("string", "min"), typed("number", 0.25))))));
+
+        assertEquals("[\"match\",[\"get\",\"rank\"],2.0,true,{\"min\":0.25}]",
+                ExpressionParser.typedToJson(expression));
+    }
+
+    @Test
+    public void benchmarkAgainstGsonTree() throws Exception {
+        final List<ReadableArray> corpus = styleExpressions();
+        final Gson gson = new Gson();
+
+        for (ReadableArray expression : corpus) {
+            assertEquals(gson.fromJson(gson.toJson(ConvertUtils.toJsonArray(expression)), JsonElement.class),
+                    gson.fromJson(ExpressionParser.toJson(expression), JsonElement.class));
+        }
+
+        // the path before the JSON writer: a Gson tree built from the bridge values, then serialized
+        double tree = Microbenchmark.nanosPerOp("ConvertUtils.toJsonArray + Gson.toJson", 5000, () -> {
+            int length = 0;
+            for (ReadableArray expression : corpus) {
+                length += gson.toJson(ConvertUtils.toJsonArray(expression)).length();
+            }
+            return length;
+        });
+        double writer = Microbenchmark.nanosPerOp("ExpressionParser.toJson", 5000, () -> {
+            int length = 0;
+            for (ReadableArray expression : corpus) {
+                length += ExpressionParser.toJson(expression).length();
+            }
+            return length;
+        });
+        System.out.println(String.format(Locale.US, "ExpressionParser.toJson speedup: %.2fx", tree / writer));
+    }
+
+    // expressions as they show up in typical map styles
+    private static List<ReadableArray> styleExpressions() {
+        return Arrays.<ReadableArray>asList(
+                JavaOnlyArray.of("interpolate", JavaOnlyArray.of("exponential", 1.5), JavaOnlyArray.of("zoom"),
+                        5.0, 0.75, 18.0, 32.0),
+                JavaOnlyArray.of("match", JavaOnlyArray.of("get", "class"),
+                        JavaOnlyArray.of("motorway", "trunk"), "#f9a363",
+                        JavaOnlyArray.of("primary", "secondary"), "#fde293",
+                        "#ffffff"),
+                JavaOnlyArray.of("case",
+                        JavaOnlyArray.of("has", "point_count"), JavaOnlyArray.of("to-string", JavaOnlyArray.of("get", "point_count_abbreviated")),
+                        JavaOnlyArray.of("coalesce", JavaOnlyArray.of("get", "name_en"), JavaOnlyArray.of("get", "name"))),
+                JavaOnlyArray.of("step", JavaOnlyArray.of("get", "point_count"), 20.0, 100.0, 30.0, 750.0, 40.0),
+                JavaOnlyArray.of("all",
+                        JavaOnlyArray.of("==", JavaOnlyArray.of("geometry-type"), "LineString"),
+                        JavaOnlyArray.of("!=", JavaOnlyArray.of("get", "structure"), "tunnel"),
+                        JavaOnlyArray.of(">=", JavaOnlyArray.of("zoom"), 12.0)),
+                JavaOnlyArray.of("format",
+                        JavaOnlyArray.of("get", "name"), JavaOnlyMap.of("font-scale", 1.2),
+                        "\n", JavaOnlyMap.of(),
+                        JavaOnlyArray.of("get", "ref"), JavaOnlyMap.of("text-font", JavaOnlyArray.of("literal", JavaOnlyArray.of("Open Sans Bold")))),
+                JavaOnlyArray.of("rgba", 255.0, 0.0, 0.0, JavaOnlyArray.of("/", JavaOnlyArray.of("get", "density"), 100.0)),
+                JavaOnlyArray.of("in", JavaOnlyArray.of("get", "id"), JavaOnlyArray.of("literal", JavaOnlyArray.of("a", "b", "c", "d", "e", "f"))));
+    }
+
+    private static ReadableMap typed(String type, Object value) {
+        return JavaOnlyMap.of("type", type, "value", value);
+    }
+}
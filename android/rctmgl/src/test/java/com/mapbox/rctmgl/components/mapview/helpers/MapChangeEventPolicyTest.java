@@ -0,0 +1,113 @@
+package com.mapbox.rctmgl.components.mapview.helpers;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// android.* are stubs here, the clock stands still and delayed emits never run, so these cover
+// what is decided when an event comes in
+public class MapChangeEventPolicyTest {
+    private static class CountingEmitter implements MapChangeEventPolicy.Emitter {
+        private int mCount;
+
+        @Override
+        public void emit(String eventType) {
+            assertEquals("regionIsChanging", eventType);
+            mCount++;
+        }
+    }
+
+    @Test
+    public void emitsEveryEventWithoutLimits() {
+        CountingEmitter emitter = new CountingEmitter();
+        MapChangeEventPolicy policy = new MapChangeEventPolicy("regionIsChanging", new JavaOnlyMap(), emitter);
+
+        assertFalse(policy.hasCameraThresholds());
+        for (int i = 0; i < 5; i++) {
+            policy.onEvent(0, 0, 10);
+        }
+        assertEquals(5, emitter.mCount);
+    }
+
+    @Test
+    public void waitsForMinDistance() {
+        CountingEmitter emitter = new CountingEmitter();
+        MapChangeEventPolicy policy = new MapChangeEventPolicy("regionIsChanging",
+                JavaOnlyMap.of("minDistance", 1000.0), emitter);
+
+        assertTrue(policy.hasCameraThresholds());
+        policy.onEvent(0, 0, 10);
+        // 0.005 degrees of longitude at the equator are about 557 m
+        policy.onEvent(0, 0.005, 10);
+        assertEquals(1, emitter.mCount);
+
+        // about 1113 m from the last sent camera, the unsent one in between doesn't count
+        policy.onEvent(0, 0.01, 10);
+        assertEquals(2, emitter.mCount);
+    }
+
+    @Test
+    public void eventsBelowTheThresholdsAreSentOnceTheBurstIsOver() {
+        CountingEmitter emitter = new CountingEmitter();
+        MapChangeEventPolicy policy = new MapChangeEventPolicy("regionIsChanging",
+                JavaOnlyMap.of("minDistance", 1000.0), emitter);
+
+        policy.onEvent(0, 0, 10);
+        assertFalse(policy.hasTrailingEmit());
+
+        // held back, but the map may come to rest here
+        policy.onEvent(0, 0.005, 10);
+        assertEquals(1, emitter.mCount);
+        assertTrue(policy.hasTrailingEmit());
+
+        // an event far enough away is sent right away and replaces the held back one
+        policy.onEvent(0, 0.01, 10);
+        assertEquals(2, emitter.mCount);
+        assertFalse(policy.hasTrailingEmit());
+    }
+
+    @Test
+    public void eitherThresholdIsEnough() {
+        CountingEmitter emitter = new CountingEmitter();
+        MapChangeEventPolicy policy = new MapChangeEventPolicy("regionIsChanging",
+                JavaOnlyMap.of("minDistance", 1000.0, "minZoomDelta", 0.5), emitter);
+
+        policy.onEvent(0, 0, 10);
+        policy.onEvent(0, 0, 10.25);
+        assertEquals(1, emitter.mCount);
+
+        policy.onEvent(0, 0, 10.5);
+        assertEquals(2, emitter.mCount);
+
+        policy.onEvent(0, 0.01, 10.5);
+        assertEquals(3, emitter.mCount);
+    }
+
+    @Test
+    public void maxRateDefersEventsWithinTheInterval() {
+        CountingEmitter emitter = new CountingEmitter();
+        MapChangeEventPolicy policy = new MapChangeEventPolicy("regionIsChanging",
+                JavaOnlyMap.of("maxRate", 10.0), emitter);
+
+        policy.onEvent(0, 0, 10);
+        policy.onEvent(0, 0.01, 10);
+        policy.onEvent(0, 0.02, 10);
+        assertEquals(1, emitter.mCount);
+    }
+
+    @Test
+    public void trailingOnlyDefersEveryEvent() {
+        CountingEmitter emitter = new CountingEmitter();
+        MapChangeEventPolicy policy = new MapChangeEventPolicy("regionIsChanging",
+                JavaOnlyMap.of("trailingOnly", true), emitter);
+
+        policy.onEvent(0, 0, 10);
+        policy.onEvent(0, 0.01, 10);
+        assertEquals(0, emitter.mCount);
+        assertTrue(policy.hasTrailingEmit());
+    }
+}
@@ -0,0 +1,122 @@
+package com.mapbox.rctmgl.components.styles;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableArray;
+import com.mapbox.rctmgl.utils.Microbenchmark;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RCTMGLStyleValueTest {
+    // counts the reads made on it, each one is a JNI call on a ReadableNativeMap
+    private static class CountingMap extends JavaOnlyMap {
+        private int mReads;
+
+        @Override
+        public ReadableType getType(String name) {
+            mReads++;
+            return super.getType(name);
+        }
+
+        @Override
+        public double getDouble(String name) {
+            mReads++;
+            return super.getDouble(name);
+        }
+
+        @Override
+        public String getString(String name) {
+            mReads++;
+            return super.getString(name);
+        }
+
+        @Override
+        public ReadableArray getArray(String name) {
+            mReads++;
+            return super.getArray(name);
+        }
+    }
+
+    @Test
+    public void accessorsDoNotGoBackToThePayload() {
+        CountingMap opacity = payload("number", 0.5);
+        RCTMGLStyleValue opacityValue = new RCTMGLStyleValue(constant(opacity));
+        CountingMap anchor = payload("string", "viewport");
+        RCTMGLStyleValue anchorValue = new RCTMGLStyleValue(constant(anchor));
+        CountingMap translate = payload("array", JavaOnlyArray.of(typed("number", 4.0), typed("number", 2.0)));
+        RCTMGLStyleValue translateValue = new RCTMGLStyleValue(constant(translate));
+
+        int decodeReads = opacity.mReads + anchor.mReads + translate.mReads;
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0.5, opacityValue.getDouble("value"), 0);
+            assertEquals(0.5f, opacityValue.getFloat("value"), 0);
+            assertEquals("VIEWPORT", anchorValue.getEnumName());
+            assertEquals(2, translateValue.getArray("value").size());
+            assertFalse(translateValue.isExpression());
+        }
+
+        // everything was read while decoding, 100 applies of the same values read nothing more
+        assertEquals(decodeReads, opacity.mReads + anchor.mReads + translate.mReads);
+    }
+
+    @Test
+    public void isDecodedFromEqualConfigs() {
+        RCTMGLStyleValue value = new RCTMGLStyleValue(translate(4.0, 2.0));
+
+        assertTrue(value.isDecodedFrom(translate(4.0, 2.0)));
+        assertFalse(value.isDecodedFrom(translate(4.0, 3.0)));
+    }
+
+    @Test
+    public void benchmarkHeavyStyleDecode() throws Exception {
+        final List<ReadableMap> configs = new ArrayList<>();
+        for (int i = 0; i < 14; i++) {
+            configs.add(constant(payload("number", i * 0.125)));
+            configs.add(constant(payload("string", "#00ff0" + (i % 10))));
+            configs.add(translate(i, -i));
+        }
+
+        Microbenchmark.nanosPerOp("decode a 42 property style", 2000, () -> {
+            List<RCTMGLStyleValue> values = new ArrayList<>(configs.size());
+            for (ReadableMap config : configs) {
+                values.add(new RCTMGLStyleValue(config));
+            }
+            return values;
+        });
+    }
+
+    private static ReadableMap translate(double x, double y) {
+        return constant(payload("array", JavaOnlyArray.of(typed("number", x), typed("number", y))));
+    }
+
+    private static ReadableMap constant(ReadableMap payload) {
+        return JavaOnlyMap.of("styletype", "constant", "stylevalue", payload);
+    }
+
+    private static CountingMap payload(String type, Object value) {
+        CountingMap payload = new CountingMap();
+        payload.putString("type", type);
+        if (value instanceof Double) {
+            payload.putDouble("value", (Double) value);
+        } else if (value instanceof String) {
+            payload.putString("value", (String) value);
+        } else {
+            payload.putArray("value", (WritableArray) value);
+        }
+        return payload;
+    }
+
+    private static ReadableMap typed(String type, Object value) {
+        return JavaOnlyMap.of("type", type, "value", value);
+    }
+}
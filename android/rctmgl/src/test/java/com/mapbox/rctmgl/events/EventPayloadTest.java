@@ -0,0 +1,141 @@
+package com.mapbox.rctmgl.events;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.mapbox.rctmgl.utils.Microbenchmark;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class EventPayloadTest {
+    @Test
+    public void storedPayloadsAreHandedOutOnce() {
+        WritableMap payload = new JavaOnlyMap();
+        assertHandedOutOnce(new OfflineEvent("offline", "offlinestatus", payload), payload);
+
+        payload = new JavaOnlyMap();
+        assertHandedOutOnce(new AndroidCallbackEvent(null, "callback-1", payload), payload);
+
+        payload = new JavaOnlyMap();
+        assertHandedOutOnce(new MapChangeEvent(null, "regiondidchange", payload), payload);
+    }
+
+    private static void assertHandedOutOnce(IEvent event, WritableMap payload) {
+        // no copy is made, the dispatcher gets the map the event was created with
+        assertSame(payload, event.getPayload());
+        try {
+            event.getPayload();
+            fail("payload was handed out twice");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void benchmarkClickPayloadHandOff() throws Exception {
+        final WritableMap payload = clickPayload(500);
+
+        // toJSON used to copy the payload into a fresh map before dispatching it, now the map
+        // getPayload built is put into the event map as is
+        Microbenchmark.nanosPerOp("500 feature payload, copied", 200, () -> {
+            WritableMap map = new JavaOnlyMap();
+            map.putString("type", "press");
+            map.putMap("payload", copyMap(payload));
+            return map;
+        });
+        Microbenchmark.nanosPerOp("500 feature payload, handed off", 200, () -> {
+            WritableMap map = new JavaOnlyMap();
+            map.putString("type", "press");
+            map.putMap("payload", new AndroidCallbackEvent(null, "callback-1", payload).getPayload());
+            return map;
+        });
+    }
+
+    private static WritableMap clickPayload(int featureCount) {
+        WritableArray features = new JavaOnlyArray();
+        for (int i = 0; i < featureCount; i++) {
+            WritableArray ring = new JavaOnlyArray();
+            for (int j = 0; j < 16; j++) {
+                ring.pushArray(JavaOnlyArray.of(13.4 + j * 0.001, 52.5 + i * 0.001));
+            }
+            WritableArray rings = new JavaOnlyArray();
+            rings.pushArray(ring);
+
+            WritableMap feature = new JavaOnlyMap();
+            feature.putString("type", "Feature");
+            feature.putString("id", "feature-" + i);
+            feature.putMap("geometry", JavaOnlyMap.of("type", "Polygon", "coordinates", rings));
+            feature.putMap("properties", JavaOnlyMap.of("name", "building " + i, "height", 12.0, "visible", true));
+            features.pushMap(feature);
+        }
+
+        WritableMap payload = new JavaOnlyMap();
+        payload.putArray("features", features);
+        payload.putMap("coordinates", JavaOnlyMap.of("latitude", 52.5, "longitude", 13.4));
+        payload.putMap("point", JavaOnlyMap.of("x", 120.0, "y", 240.0));
+        return payload;
+    }
+
+    // the deep copy WritableNativeMap.merge makes
+    private static WritableMap copyMap(ReadableMap map) {
+        WritableMap copy = new JavaOnlyMap();
+        ReadableMapKeySetIterator it = map.keySetIterator();
+        while (it.hasNextKey()) {
+            String key = it.nextKey();
+            switch (map.getType(key)) {
+                case Map:
+                    copy.putMap(key, copyMap(map.getMap(key)));
+                    break;
+                case Array:
+                    copy.putArray(key, copyArray(map.getArray(key)));
+                    break;
+                case String:
+                    copy.putString(key, map.getString(key));
+                    break;
+                case Number:
+                    copy.putDouble(key, map.getDouble(key));
+                    break;
+                case Boolean:
+                    copy.putBoolean(key, map.getBoolean(key));
+                    break;
+                default:
+                    copy.putNull(key);
+                    break;
+            }
+        }
+        return copy;
+    }
+
+    private static WritableArray copyArray(ReadableArray array) {
+        WritableArray copy = new JavaOnlyArray();
+        for (int i = 0; i < array.size(); i++) {
+            switch (array.getType(i)) {
+                case Map:
+                    copy.pushMap(copyMap(array.getMap(i)));
+                    break;
+                case Array:
+                    copy.pushArray(copyArray(array.getArray(i)));
+                    break;
+                case String:
+                    copy.pushString(array.getString(i));
+                    break;
+                case Number:
+                    copy.pushDouble(array.getDouble(i));
+                    break;
+                case Boolean:
+                    copy.pushBoolean(array.getBoolean(i));
+                    break;
+                default:
+                    copy.pushNull();
+                    break;
+            }
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,123 @@
+package com.mapbox.rctmgl.utils;
+
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.Point;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ClusterIndexTest {
+    // a and b are 0.0001 degrees apart and cluster up to zoom 11 with the default radius, d joins them
+    // below zoom 9, c is far away from all of them
+    private static final List<Feature> FEATURES = Arrays.asList(
+            point("a", 0, 0),
+            point("b", 0.0001, 0),
+            point("d", 0.1, 0),
+            point("c", 100, 40));
+
+    @Test
+    public void maxZoomDefaultsToTheRenderers() {
+        // the renderer clusters up to one below the source max zoom, which defaults to 18
+        assertEquals(17, ClusterIndex.getMaxZoom(null, null));
+        assertEquals(11, ClusterIndex.getMaxZoom(null, 12));
+        assertEquals(14, ClusterIndex.getMaxZoom(14, 12));
+    }
+
+    @Test
+    public void clusterIdsFollowSourceMaxZoom() {
+        // ids encode the zoom a cluster is made at, so an index built with another max zoom than
+        // the renderer's would not know the ids of the renderer's clusters
+        ClusterIndex index = new ClusterIndex(FEATURES, ClusterIndex.DEFAULT_RADIUS, ClusterIndex.getMaxZoom(null, 12));
+        assertEquals(Arrays.asList("a", "b"), ids(index.getLeaves(12, 10, 0)));
+        assertNull(index.getLeaves(18, 10, 0));
+
+        index = new ClusterIndex(FEATURES, ClusterIndex.DEFAULT_RADIUS, ClusterIndex.getMaxZoom(null, null));
+        assertEquals(Arrays.asList("a", "b"), ids(index.getLeaves(18, 10, 0)));
+    }
+
+    @Test
+    public void resolvesNestedClusters() {
+        ClusterIndex index = new ClusterIndex(FEATURES, ClusterIndex.DEFAULT_RADIUS, 11);
+
+        // a and b merge at zoom 11 into (0 << 5) + 12, d joins at zoom 8 into (0 << 5) + 9
+        List<Feature> children = index.getChildren(9);
+        assertEquals(2, children.size());
+        Feature cluster = children.get(0).id().equals("d") ? children.get(1) : children.get(0);
+        assertEquals(12, ClusterIndex.getClusterId(cluster));
+        assertEquals(2, cluster.getProperty("point_count").getAsInt());
+        assertEquals("2", cluster.getProperty("point_count_abbreviated").getAsString());
+
+        assertEquals(Arrays.asList("a", "b", "d"), ids(index.getLeaves(9, 10, 0)));
+        assertEquals(1, index.getLeaves(9, 1, 2).size());
+        assertEquals(9, index.getExpansionZoom(9));
+        assertEquals(12, index.getExpansionZoom(12));
+    }
+
+    @Test
+    public void unknownIdsAreNotResolved() {
+        ClusterIndex index = new ClusterIndex(FEATURES, ClusterIndex.DEFAULT_RADIUS, 11);
+
+        assertNull(index.getChildren(-1));
+        assertNull(index.getChildren(0));
+        assertNull(index.getChildren((100 << 5) + 12));
+        assertNull(index.getLeaves(13, 10, 0));
+        assertEquals(-1, index.getExpansionZoom((1 << 5) + 12));
+        assertEquals(-1, ClusterIndex.getClusterId(FEATURES.get(0)));
+    }
+
+    @Test
+    public void leavesCoverEveryPointOnce() {
+        Random random = new Random(42);
+        List<Feature> features = new ArrayList<>();
+        features.add(point("0", 20, 20));
+        for (int i = 1; i < 2000; i++) {
+            features.add(point(Integer.toString(i), random.nextDouble() * 40, random.nextDouble() * 40));
+        }
+
+        // the box is wider than the radius at zoom 1 and narrower than it at zoom 0, so the
+        // cluster of the first point, in the middle, takes in all others at zoom 0 as (0 << 5) + 1
+        ClusterIndex index = new ClusterIndex(features, ClusterIndex.DEFAULT_RADIUS, 16);
+        List<String> leaves = ids(index.getLeaves(1, Integer.MAX_VALUE, 0));
+        assertEquals(features.size(), leaves.size());
+        assertEquals(features.size(), new HashSet<>(leaves).size());
+
+        int pointCount = 0;
+        for (Feature child : index.getChildren(1)) {
+            pointCount += child.hasProperty("point_count") ? child.getProperty("point_count").getAsInt() : 1;
+            int clusterId = ClusterIndex.getClusterId(child);
+            assertTrue(clusterId == -1 || clusterId % 32 <= 17);
+        }
+        assertEquals(features.size(), pointCount);
+
+        // pages of leaves add up to all of them
+        List<String> paged = new ArrayList<>();
+        for (int offset = 0; offset < features.size(); offset += 300) {
+            paged.addAll(ids(index.getLeaves(1, 300, offset)));
+        }
+        Collections.sort(paged);
+        assertEquals(leaves, paged);
+    }
+
+    private static Feature point(String id, double lng, double lat) {
+        return Feature.fromGeometry(Point.fromLngLat(lng, lat), null, id);
+    }
+
+    private static List<String> ids(List<Feature> features) {
+        List<String> ids = new ArrayList<>();
+        for (Feature feature : features) {
+            ids.add(feature.id());
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,230 @@
+package com.mapbox.rctmgl.utils;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.mapbox.geojson.Feature;
+import com.mapbox.geojson.Geometry;
+import com.mapbox.geojson.GeometryCollection;
+import com.mapbox.geojson.MultiPoint;
+import com.mapbox.geojson.MultiPolygon;
+import com.mapbox.geojson.Point;
+import com.mapbox.geojson.Polygon;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GeoJSONWriterTest {
+    private static final GeoJSONWriter.Containers JAVA_ONLY = new GeoJSONWriter.Containers() {
+        @Override
+        public WritableMap createMap() {
+            return new JavaOnlyMap();
+        }
+
+        @Override
+        public WritableArray createArray() {
+            return new JavaOnlyArray();
+        }
+    };
+
+    private final GeoJSONWriter mWriter = new GeoJSONWriter(JAVA_ONLY);
+
+    @Test
+    public void writesMultiGeometries() {
+        Point a = Point.fromLngLat(1, 2);
+        Point b = Point.fromLngLat(3, 4);
+        List<List<Point>> ring = Collections.singletonList(Arrays.asList(a, b, a));
+
+        WritableMap multiPolygon = mWriter.writeGeometry(MultiPolygon.fromLngLats(Arrays.asList(ring, ring)));
+        assertEquals("MultiPolygon", multiPolygon.getString("type"));
+        assertEquals(2, multiPolygon.getArray("coordinates").size());
+        assertEquals(3, multiPolygon.getArray("coordinates").getArray(1).getArray(0).size());
+
+        List<Geometry> geometries = Arrays.<Geometry>asList(a, Polygon.fromLngLats(ring));
+        WritableMap collection = mWriter.writeGeometry(GeometryCollection.fromGeometries(geometries));
+        assertEquals("GeometryCollection", collection.getString("type"));
+        assertEquals("Polygon", collection.getArray("geometries").getMap(1).getString("type"));
+    }
+
+    @Test
+    public void skipsNullPointsInsteadOfInventingCoordinates() {
+        Point a = Point.fromLngLat(1, 2);
+
+        WritableMap multiPoint = mWriter.writeGeometry(MultiPoint.fromLngLats(Arrays.asList(a, null, a)));
+        assertEquals(2, multiPoint.getArray("coordinates").size());
+
+        WritableMap collection = mWriter.writeGeometry(GeometryCollection.fromGeometries(Arrays.<Geometry>asList(null, a)));
+        assertEquals(1, collection.getArray("geometries").size());
+
+        WritableMap feature = mWriter.writeFeature(Feature.fromGeometry(null));
+        assertTrue(feature.hasKey("geometry"));
+        assertTrue(feature.isNull("geometry"));
+        assertNull(mWriter.writeCoordinates(null));
+    }
+
+    @Test
+    public void writesPropertiesInOnePass() {
+        JsonObject nested = new JsonObject();
+        nested.addProperty("on", true);
+        JsonArray list = new JsonArray();
+        list.add(1);
+        list.add("two");
+        list.add(nested);
+
+        JsonObject properties = new JsonObject();
+        properties.addProperty("name", "park");
+        properties.addProperty("area", 12.5);
+        properties.add("missing", null);
+        properties.add("list", list);
+
+        ReadableMap written = mWriter.writeFeature(Feature.fromGeometry(Point.fromLngLat(1, 2), properties, "a"))
+                .getMap("properties");
+        assertEquals("park", written.getString("name"));
+        assertEquals(12.5, written.getDouble("area"), 0);
+        assertTrue(written.isNull("missing"));
+        assertEquals(1.0, written.getArray("list").getDouble(0), 0);
+        assertEquals("two", written.getArray("list").getString(1));
+        assertTrue(written.getArray("list").getMap(2).getBoolean("on"));
+    }
+
+    @Test
+    public void benchmarkAgainstPerPointArrays() throws Exception {
+        final Feature feature = denseFeature(20000);
+
+        // same output as the encoder it replaced, for the geometry types that one supported
+        assertEquals(BaselineEncoder.fromFeature(feature), mWriter.writeFeature(feature));
+
+        double baseline = Microbenchmark.nanosPerOp("fromFeature, double[] per point", 50,
+                () -> BaselineEncoder.fromFeature(feature));
+        double writer = Microbenchmark.nanosPerOp("GeoJSONWriter.writeFeature", 50,
+                () -> mWriter.writeFeature(feature));
+        System.out.println(String.format(Locale.US, "GeoJSONWriter speedup: %.2fx", baseline / writer));
+    }
+
+    private static Feature denseFeature(int vertices) {
+        List<Point> ring = new ArrayList<>(vertices + 1);
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            ring.add(Point.fromLngLat(13.4 + Math.cos(angle), 52.5 + Math.sin(angle)));
+        }
+        ring.add(ring.get(0));
+
+        JsonObject properties = new JsonObject();
+        properties.addProperty("name", "district");
+        properties.addProperty("population", 380000);
+        JsonArray tags = new JsonArray();
+        for (int i = 0; i < 32; i++) {
+            tags.add("tag" + i);
+        }
+        properties.add("tags", tags);
+
+        return Feature.fromGeometry(Polygon.fromLngLats(Collections.singletonList(ring)), properties, "district-1");
+    }
+
+    // The encoder before GeoJSONWriter: a double[] plus a copied array per point, and properties
+    // through ConvertUtils.toWritableMap.
+    private static class BaselineEncoder {
+        static WritableMap fromFeature(Feature feature) {
+            WritableMap map = new JavaOnlyMap();
+            map.putString("type", "Feature");
+            map.putString("id", feature.id());
+            map.putMap("geometry", fromPolygon((Polygon) feature.geometry()));
+            map.putMap("properties", toWritableMap(feature.properties()));
+            return map;
+        }
+
+        static WritableMap fromPolygon(Polygon polygon) {
+            WritableMap map = new JavaOnlyMap();
+            map.putString("type", "Polygon");
+
+            WritableArray array = new JavaOnlyArray();
+            for (List<Point> curPoint : polygon.coordinates()) {
+                WritableArray innerArray = new JavaOnlyArray();
+                for (Point point : curPoint) {
+                    innerArray.pushArray(fromArray(pointToDoubleArray(point)));
+                }
+                array.pushArray(innerArray);
+            }
+            map.putArray("coordinates", array);
+            return map;
+        }
+
+        static double[] pointToDoubleArray(Point point) {
+            if (point == null) {
+                return new double[] { 0.0, 0.0 };
+            }
+            return new double[] { point.longitude(), point.latitude() };
+        }
+
+        // mirrors Arguments.fromArray, which type checks the array before copying it
+        static WritableArray fromArray(Object array) {
+            WritableArray catalystArray = new JavaOnlyArray();
+            if (array instanceof String[]) {
+                for (String v : (String[]) array) {
+                    catalystArray.pushString(v);
+                }
+            } else if (array instanceof int[]) {
+                for (int v : (int[]) array) {
+                    catalystArray.pushDouble(v);
+                }
+            } else if (array instanceof double[]) {
+                for (double v : (double[]) array) {
+                    catalystArray.pushDouble(v);
+                }
+            }
+            return catalystArray;
+        }
+
+        static WritableMap toWritableMap(JsonObject object) {
+            WritableMap map = new JavaOnlyMap();
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                JsonElement jsonElement = entry.getValue();
+                if (jsonElement.isJsonPrimitive()) {
+                    JsonPrimitive primitive = jsonElement.getAsJsonPrimitive();
+                    if (primitive.isBoolean()) {
+                        map.putBoolean(entry.getKey(), primitive.getAsBoolean());
+                    } else if (primitive.isNumber()) {
+                        map.putDouble(entry.getKey(), primitive.getAsDouble());
+                    } else {
+                        map.putString(entry.getKey(), primitive.getAsString());
+                    }
+                } else if (jsonElement.isJsonArray()) {
+                    map.putArray(entry.getKey(), toWritableArray(jsonElement.getAsJsonArray()));
+                } else if (jsonElement.isJsonObject()) {
+                    map.putMap(entry.getKey(), toWritableMap(jsonElement.getAsJsonObject()));
+                }
+            }
+            return map;
+        }
+
+        static ReadableArray toWritableArray(JsonArray jsonArray) {
+            WritableArray array = new JavaOnlyArray();
+            for (int i = 0; i < jsonArray.size(); i++) {
+                JsonPrimitive primitive = jsonArray.get(i).getAsJsonPrimitive();
+                if (primitive.isNumber()) {
+                    array.pushDouble(primitive.getAsDouble());
+                } else {
+                    array.pushString(primitive.getAsString());
+                }
+            }
+            return array;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.mapbox.rctmgl.utils;
+
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * Times a task after a warmup so a test can compare an implementation with the one it replaced.
+ * Results are printed rather than asserted, JVM timings on shared CI machines are too noisy to gate
+ * a build on.
+ */
+public final class Microbenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+
+    // keeps the results reachable so the JIT can't drop the work
+    private static volatile Object sSink;
+
+    private Microbenchmark() {
+    }
+
+    public static double nanosPerOp(String name, int iterations, Callable<?> task) throws Exception {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (int i = 0; i < iterations; i++) {
+                sSink = task.call();
+            }
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sSink = task.call();
+        }
+        double nanosPerOp = (System.nanoTime() - start) / (double) iterations;
+
+        System.out.println(String.format(Locale.US, "%s: %.1f us/op", name, nanosPerOp / 1000));
+        return nanosPerOp;
+    }
+}
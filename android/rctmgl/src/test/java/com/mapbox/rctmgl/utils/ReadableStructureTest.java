@@ -0,0 +1,73 @@
+package com.mapbox.rctmgl.utils;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ReadableStructureTest {
+    // counts the values read from it, nested values are not counted
+    private static class CountingArray extends JavaOnlyArray {
+        private int mReads;
+
+        @Override
+        public double getDouble(int index) {
+            mReads++;
+            return super.getDouble(index);
+        }
+    }
+
+    @Test
+    public void equalValuesHashEqual() {
+        JavaOnlyArray a = JavaOnlyArray.of("all",
+                JavaOnlyArray.of("==", JavaOnlyArray.of("get", "kind"), "park"),
+                JavaOnlyArray.of(">=", JavaOnlyArray.of("zoom"), 12.0),
+                JavaOnlyMap.of("x", 1.0, "y", true));
+        JavaOnlyArray b = JavaOnlyArray.of("all",
+                JavaOnlyArray.of("==", JavaOnlyArray.of("get", "kind"), "park"),
+                JavaOnlyArray.of(">=", JavaOnlyArray.of("zoom"), 12.0),
+                JavaOnlyMap.of("y", true, "x", 1.0));
+
+        assertEquals(ReadableStructure.hash(a), ReadableStructure.hash(b));
+        assertTrue(ReadableStructure.equal(a, b));
+        assertNotEquals(ReadableStructure.hash(a),
+                ReadableStructure.hash(JavaOnlyArray.of("all", JavaOnlyArray.of("==", "a", "b"))));
+    }
+
+    @Test
+    public void hashReadsBoundedValues() {
+        CountingArray literal = new CountingArray();
+        for (int i = 0; i < 10000; i++) {
+            literal.pushDouble(i);
+        }
+        JavaOnlyArray expression = JavaOnlyArray.of("in", JavaOnlyArray.of("get", "id"), JavaOnlyArray.of("literal", literal));
+
+        ReadableStructure.hash(expression);
+        assertTrue(literal.mReads < 64);
+    }
+
+    @Test
+    public void collisionsPastTheBudgetAreSettledByEqual() {
+        JavaOnlyArray a = new JavaOnlyArray();
+        JavaOnlyArray b = new JavaOnlyArray();
+        for (int i = 0; i < 1000; i++) {
+            a.pushDouble(i);
+            b.pushDouble(i == 999 ? -1 : i);
+        }
+
+        // the values differ past what's hashed, so only equal() can tell them apart
+        assertEquals(ReadableStructure.hash(a), ReadableStructure.hash(b));
+        assertFalse(ReadableStructure.equal(a, b));
+
+        ExpressionCache<String> cache = new ExpressionCache<>(4);
+        cache.put(ExpressionCache.keyOf(a), "a");
+        assertNull(cache.get(ExpressionCache.keyOf(b)));
+        assertEquals("a", cache.get(ExpressionCache.keyOf(a)));
+    }
+}
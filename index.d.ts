@@ -109,6 +109,16 @@ declare namespace MapboxGL {
   function setTelemetryEnabled(telemetryEnabled: boolean): void;
   function setConnected(connected: boolean): void;
   function requestAndroidLocationPermissions(): Promise<boolean>;
+  function getImageCacheStats(): Promise<{
+    hits: number;
+    misses: number;
+    hitRate: number;
+    frescoHits: number;
+    frescoMisses: number;
+    evictions: number;
+    size: number;
+    maxSize: number;
+  }>;
 
   const offlineManager: OfflineManager;
   const snapshotManager: SnapshotManager;
@@ -218,6 +228,8 @@ declare namespace MapboxGL {
   export class MapView extends Component<MapViewProps> {
     getPointInView(coordinate: GeoJSON.Position): Promise<GeoJSON.Position>;
     getCoordinateFromView(point: GeoJSON.Position): Promise<GeoJSON.Position>;
+    getPointsInView(coordinates: number[]): Promise<number[]>;
+    getCoordinatesFromView(points: number[]): Promise<number[]>;
     getVisibleBounds(): Promise<GeoJSON.Position[]>;
     queryRenderedFeaturesAtPoint(
       coordinate: GeoJSON.Position,
@@ -361,6 +373,31 @@ declare namespace MapboxGL {
     getClusterChildren: (
       feature: Feature<Geometry, Properties> | number,
     ) => Promise<FeatureCollection<Geometry, Properties>>;
+    /**
+     * [Android only] Adds features to the source, replacing features with the same id.
+     * @param features features to add
+     */
+    addFeatures: (
+      features:
+        | Feature<Geometry, Properties>
+        | Feature<Geometry, Properties>[]
+        | FeatureCollection<Geometry, Properties>,
+    ) => Promise<number>;
+    /**
+     * [Android only] Replaces features of the source by their id.
+     * @param features features to update
+     */
+    updateFeatures: (
+      features:
+        | Feature<Geometry, Properties>
+        | Feature<Geometry, Properties>[]
+        | FeatureCollection<Geometry, Properties>,
+    ) => Promise<number>;
+    /**
+     * [Android only] Removes features from the source by their id.
+     * @param ids ids of the features to remove
+     */
+    removeFeatures: (ids: (string | number)[]) => Promise<number>;
   }
   class RasterSource extends Component<RasterSourceProps> {}
   class RasterDemSource extends Component<RasterSourceProps> {}
@@ -518,6 +555,13 @@ export interface MapState {
   };
 }
 
+export interface MapChangeEventPolicy {
+  maxRate?: number;
+  trailingOnly?: boolean;
+  minDistance?: number;
+  minZoomDelta?: number;
+}
+
 export interface MapViewProps extends ViewProps {
   animated?: boolean;
   userTrackingMode?: MapboxGL.UserTrackingModes;
@@ -545,6 +589,10 @@ export interface MapViewProps extends ViewProps {
   surfaceView?: boolean;
   regionWillChangeDebounceTime?: number;
   regionDidChangeDebounceTime?: number;
+  mapChangeEventPolicies?: {
+    [eventName: string]: MapChangeEventPolicy;
+  };
+  projectedCoordinates?: number[];
   tintColor?: string;
 
   onPress?: (feature: GeoJSON.Feature) => void;
@@ -571,6 +619,7 @@ export interface MapViewProps extends ViewProps {
   onDidFinishRenderingMap?: () => void;
   onDidFinishRenderingMapFully?: () => void;
   onDidFinishLoadingStyle?: () => void;
+  onProjectedPointsChange?: (event: { points: number[] }) => void;
   onUserTrackingModeChange?: () => void;
 }
 
@@ -925,15 +974,19 @@ export interface ShapeSourceProps extends ViewProps {
     | GeoJSON.Feature
     | GeoJSON.FeatureCollection
     | GeoJSON.Geometry;
+  packed?: boolean;
   cluster?: boolean;
   clusterRadius?: number;
   clusterMaxZoomLevel?: number;
   clusterProperties?: object;
+  nativeClusterIndex?: boolean;
   maxZoomLevel?: number;
   buffer?: number;
   tolerance?: number;
   lineMetrics?: boolean;
-  images?: { assets?: string[] } & { [key: string]: ImageSourcePropType };
+  images?: { assets?: string[] } & {
+    [key: string]: ImageSourcePropType | DecodedImageSource;
+  };
   onPress?: (event: OnPressEvent) => void;
   hitbox?: {
     width: number;
@@ -990,9 +1043,24 @@ export interface HeatmapLayerProps extends LayerBaseProps {
   style?: StyleProp<HeatmapLayerStyle>;
 }
 
+/**
+ * [Android only] decode policy of an image, `maxSize` downsamples it, `opaque` drops its alpha channel
+ */
+export interface DecodedImageSource {
+  uri: string;
+  scale?: number;
+  maxSize?: number;
+  opaque?: boolean;
+}
+
 export interface ImagesProps extends ViewProps {
-  images?: { assets?: string[] } & { [key: string]: ImageSourcePropType };
+  images?: { assets?: string[] } & {
+    [key: string]: ImageSourcePropType | DecodedImageSource;
+  };
   nativeAssetImages?: string[];
+  lazy?: boolean;
+  prefetch?: { minZoom: number; images: string[] }[];
+  maxImages?: number;
   onImageMissing?: (imageKey: string) => void;
 }
 
@@ -34,6 +34,10 @@ class Images extends React.Component {
      * Specifies the external images in key-value pairs required for the shape source.
      * Keys are names - see iconImage expressions, values can be either urls-s objects
      * with format {uri: 'http://...'}` or `require('image.png')` or `import 'image.png'`
+     * [Android only] Url objects can set a decode policy, `{uri, maxSize: 256, opaque: true}`
+     * scales the image down to at most 256 pixels on its larger side and decodes it without alpha
+     * channel, except on v10. The alpha channel is only dropped from the decoded image kept in the cache,
+     * styles store their images with it.
      */
     images: PropTypes.object,
 
@@ -43,6 +47,29 @@ class Images extends React.Component {
      */
     nativeAssetImages: PropTypes.arrayOf(PropTypes.string),
 
+    /**
+     * [Android only] Only load images of `images` once a layer needs them, instead of adding all of them
+     * to the style up front.
+     */
+    lazy: PropTypes.bool,
+
+    /**
+     * [Android only] In lazy mode, images to load ahead of the renderer asking for them once the map
+     * is zoomed in to `minZoom`, like `[{minZoom: 14, images: ['poi-cafe', 'poi-bar']}]`.
+     */
+    prefetch: PropTypes.arrayOf(
+      PropTypes.shape({
+        minZoom: PropTypes.number,
+        images: PropTypes.arrayOf(PropTypes.string),
+      }),
+    ),
+
+    /**
+     * [Android only] In lazy mode, the number of images kept in the style, the least recently requested
+     * ones are removed beyond it. Should exceed the number of images visible at once.
+     */
+    maxImages: PropTypes.number,
+
     /**
      * Gets called when a Layer is trying to render an image whose key is not present in
      * any of the `Images` component of the Map.
@@ -101,6 +128,9 @@ class Images extends React.Component {
     const props = {
       id: this.props.id,
       hasOnImageMissing: !!this.props.onImageMissing,
+      lazy: this.props.lazy,
+      prefetch: this.props.prefetch,
+      maxImages: this.props.maxImages,
       onImageMissing: this._onImageMissing.bind(this),
       ...this._getImages(),
     };
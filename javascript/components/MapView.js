@@ -293,6 +293,37 @@ class MapView extends NativeBridgeComponent(React.Component) {
      * The emitted frequency of regiondidchange events
      */
     regionDidChangeDebounceTime: PropTypes.number,
+
+    /**
+     * [Android only]
+     * Throttles map change events natively, before their payload is built. Keys are event names as
+     * used by the handler props (eg. `RegionIsChanging`), values are policies of the form
+     * `{ maxRate, trailingOnly, minDistance, minZoomDelta }`:
+     *  `maxRate` sends at most that many events per second, the latest state is sent once the interval is over
+     *  `trailingOnly` only sends an event once a burst of them is over
+     *  `minDistance` and `minZoomDelta` only send region events once the center moved that many meters
+     *  or the zoom changed that much since the last sent event, where the camera comes to rest is still sent
+     *  once a burst of events is over
+     *
+     * Example: `{ RegionIsChanging: { maxRate: 10 }, DidFinishRenderingFrame: { trailingOnly: true } }`
+     */
+    mapChangeEventPolicies: PropTypes.object,
+
+    /**
+     * [Android only]
+     * Coordinates packed as `[lng0, lat0, lng1, lat1, ...]` which are projected to the view natively
+     * whenever the camera changes, see `onProjectedPointsChange`.
+     */
+    projectedCoordinates: PropTypes.arrayOf(PropTypes.number),
+
+    /**
+     * [Android only]
+     * This event is triggered at most once per frame while the camera changes, with the
+     * `projectedCoordinates` projected to the view.
+     *
+     * @param {Object} event - `{ points }`, the points packed as `[x0, y0, x1, y1, ...]`
+     */
+    onProjectedPointsChange: PropTypes.func,
   };
 
   static defaultProps = {
@@ -385,6 +416,7 @@ class MapView extends NativeBridgeComponent(React.Component) {
       addIfHasHandler('DidFinishRenderingMap');
       addIfHasHandler('DidFinishRenderingMapFully');
       addIfHasHandler('DidFinishLoadingStyle');
+      addIfHasHandler('ProjectedPointsChange');
 
       if (addIfHasHandler('MapIdle')) {
         if (props.onRegionDidChange) {
@@ -443,6 +475,44 @@ class MapView extends NativeBridgeComponent(React.Component) {
     return res.coordinateFromView;
   }
 
+  /**
+   * [Android only]
+   * Converts many geographic coordinates to points in the view’s coordinate system in one call.
+   *
+   * @example
+   * const points = await this._map.getPointsInView([144.949901, -37.81707, 144.96, -37.82]);
+   *
+   * @param {Array<Number>} coordinates - Coordinates packed as `[lng0, lat0, lng1, lat1, ...]`.
+   * @return {Array} Points packed as `[x0, y0, x1, y1, ...]`.
+   */
+  async getPointsInView(coordinates) {
+    const res = await this._runNativeCommand(
+      'getPointsInView',
+      this._nativeRef,
+      [coordinates],
+    );
+    return res.pointsInView;
+  }
+
+  /**
+   * [Android only]
+   * Converts many points in the view’s coordinate system to geographic coordinates in one call.
+   *
+   * @example
+   * const coordinates = await this._map.getCoordinatesFromView([100, 100, 200, 200]);
+   *
+   * @param {Array<Number>} points - Points packed as `[x0, y0, x1, y1, ...]`.
+   * @return {Array} Coordinates packed as `[lng0, lat0, lng1, lat1, ...]`.
+   */
+  async getCoordinatesFromView(points) {
+    const res = await this._runNativeCommand(
+      'getCoordinatesFromView',
+      this._nativeRef,
+      [points],
+    );
+    return res.coordinatesFromView;
+  }
+
   /**
    * The coordinate bounds(ne, sw) visible in the users’s viewport.
    *
@@ -731,6 +801,9 @@ class MapView extends NativeBridgeComponent(React.Component) {
       case MapboxGL.EventTypes.DidFinishLoadingStyle:
         propName = 'onDidFinishLoadingStyle';
         break;
+      case MapboxGL.EventTypes.ProjectedPointsChange:
+        propName = 'onProjectedPointsChange';
+        break;
       default:
         console.warn('Unhandled event callback type', type);
     }
@@ -785,6 +858,24 @@ class MapView extends NativeBridgeComponent(React.Component) {
     return this.props.contentInset;
   }
 
+  _getMapChangeEventPolicies() {
+    const { mapChangeEventPolicies } = this.props;
+    if (!mapChangeEventPolicies) {
+      return;
+    }
+
+    const policies = {};
+    for (const name of Object.keys(mapChangeEventPolicies)) {
+      const eventType = MapboxGL.EventTypes[name];
+      if (eventType == null) {
+        console.warn(`rnmapbox maps: ${name} is not supported`);
+      } else {
+        policies[eventType] = mapChangeEventPolicies[name];
+      }
+    }
+    return policies;
+  }
+
   _setNativeRef(nativeRef) {
     this._nativeRef = nativeRef;
     super._runPendingNativeCommands(nativeRef);
@@ -818,6 +909,7 @@ class MapView extends NativeBridgeComponent(React.Component) {
     const props = {
       ...this.props,
       contentInset: this._getContentInset(),
+      mapChangeEventPolicies: this._getMapChangeEventPolicies(),
       style: styles.matchParent,
     };
 
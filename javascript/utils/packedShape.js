@@ -0,0 +1,327 @@
+// Packed binary representation of a GeoJSON shape, decoded natively by PackedShapeDecoder.
+//
+// All values are little-endian:
+//
+//   uint32   version
+//   uint32   featureCount
+//   uint32   positionCount
+//   uint32   reserved
+//   float64  coordinates[positionCount * 2] (lng, lat)
+//   per feature:
+//     uint32 geometryType
+//     uint32 partCount
+//     uint32 partLengths[partCount] (in positions)
+//   uint32   stringCount
+//   per string:
+//     uint32 byteLength
+//     uint8  utf8[byteLength]
+//   uint32   keyCount
+//   uint32   keys[keyCount] (string table indices)
+//   per feature:
+//     uint8  id tag, followed by a float64 for numeric ids or a uint32 string index for string ids
+//     per key:
+//       uint8 tag, followed by a float64 for numbers or a uint32 string index for strings and json
+
+export const PACKED_SHAPE_VERSION = 2;
+
+export const GeometryType = {
+  Point: 1,
+  MultiPoint: 2,
+  LineString: 3,
+  MultiLineString: 4,
+  Polygon: 5,
+};
+
+export const ValueTag = {
+  Absent: 0,
+  Null: 1,
+  Number: 2,
+  String: 3,
+  True: 4,
+  False: 5,
+  JSON: 6,
+};
+
+const HEADER_BYTES = 16;
+
+const BASE64_CHARS =
+  'ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/';
+
+function toFeatures(shape) {
+  if (!shape || typeof shape !== 'object') {
+    return null;
+  }
+
+  if (shape.type === 'FeatureCollection') {
+    return shape.features;
+  }
+
+  if (shape.type === 'Feature') {
+    return [shape];
+  }
+
+  return [{ type: 'Feature', geometry: shape, properties: {} }];
+}
+
+function toParts(geometry) {
+  switch (geometry.type) {
+    case 'Point':
+      return [[geometry.coordinates]];
+    case 'MultiPoint':
+    case 'LineString':
+      return [geometry.coordinates];
+    case 'MultiLineString':
+    case 'Polygon':
+      return geometry.coordinates;
+    default:
+      return null;
+  }
+}
+
+function utf8Encode(str) {
+  const bytes = [];
+  for (let i = 0; i < str.length; i++) {
+    let code = str.charCodeAt(i);
+
+    if (code >= 0xd800 && code <= 0xdbff && i + 1 < str.length) {
+      const next = str.charCodeAt(i + 1);
+      if (next >= 0xdc00 && next <= 0xdfff) {
+        code = 0x10000 + ((code - 0xd800) << 10) + (next - 0xdc00);
+        i += 1;
+      }
+    }
+
+    if (code < 0x80) {
+      bytes.push(code);
+    } else if (code < 0x800) {
+      bytes.push(0xc0 | (code >> 6), 0x80 | (code & 0x3f));
+    } else if (code < 0x10000) {
+      bytes.push(
+        0xe0 | (code >> 12),
+        0x80 | ((code >> 6) & 0x3f),
+        0x80 | (code & 0x3f),
+      );
+    } else {
+      bytes.push(
+        0xf0 | (code >> 18),
+        0x80 | ((code >> 12) & 0x3f),
+        0x80 | ((code >> 6) & 0x3f),
+        0x80 | (code & 0x3f),
+      );
+    }
+  }
+  return bytes;
+}
+
+export function toBase64(bytes) {
+  let result = '';
+  const length = bytes.length;
+  let i = 0;
+
+  for (; i + 2 < length; i += 3) {
+    const n = (bytes[i] << 16) | (bytes[i + 1] << 8) | bytes[i + 2];
+    result +=
+      BASE64_CHARS[(n >> 18) & 63] +
+      BASE64_CHARS[(n >> 12) & 63] +
+      BASE64_CHARS[(n >> 6) & 63] +
+      BASE64_CHARS[n & 63];
+  }
+
+  if (i < length) {
+    const n = (bytes[i] << 16) | (i + 1 < length ? bytes[i + 1] << 8 : 0);
+    result += BASE64_CHARS[(n >> 18) & 63] + BASE64_CHARS[(n >> 12) & 63];
+    result += i + 1 < length ? BASE64_CHARS[(n >> 6) & 63] : '=';
+    result += '=';
+  }
+
+  return result;
+}
+
+function writeValue(view, offset, [tag, value]) {
+  view.setUint8(offset, tag);
+  offset += 1;
+
+  if (tag === ValueTag.Number) {
+    view.setFloat64(offset, value, true);
+    offset += 8;
+  } else if (tag === ValueTag.String || tag === ValueTag.JSON) {
+    view.setUint32(offset, value, true);
+    offset += 4;
+  }
+  return offset;
+}
+
+/**
+ * Packs a GeoJSON shape into the binary transport used by ShapeSource's `packed` mode.
+ * Returns null when the shape contains geometries the packed format does not support,
+ * so callers can fall back to sending the shape as a JSON string.
+ *
+ * @param {Object} shape - GeoJSON geometry, feature or feature collection
+ * @return {String|null} base64 encoded payload
+ */
+export function packShape(shape) {
+  const features = toFeatures(shape);
+  if (!features) {
+    return null;
+  }
+
+  const featureParts = new Array(features.length);
+  let positionCount = 0;
+  let structureBytes = 0;
+
+  const strings = [];
+  const stringIndices = new Map();
+  const internString = (str) => {
+    let index = stringIndices.get(str);
+    if (index === undefined) {
+      index = strings.length;
+      strings.push(utf8Encode(str));
+      stringIndices.set(str, index);
+    }
+    return index;
+  };
+
+  const keys = [];
+  const keyIndices = new Map();
+
+  for (let i = 0; i < features.length; i++) {
+    const feature = features[i];
+    const parts = feature.geometry ? toParts(feature.geometry) : null;
+    if (!parts) {
+      return null;
+    }
+
+    featureParts[i] = parts;
+    structureBytes += 8 + parts.length * 4;
+    for (let j = 0; j < parts.length; j++) {
+      positionCount += parts[j].length;
+    }
+
+    const properties = feature.properties || {};
+    for (const key of Object.keys(properties)) {
+      if (!keyIndices.has(key)) {
+        keyIndices.set(key, keys.length);
+        keys.push(key);
+      }
+    }
+  }
+
+  const keyStringIndices = keys.map(internString);
+
+  let propertyBytes = 0;
+  const values = new Array(features.length);
+  for (let i = 0; i < features.length; i++) {
+    const feature = features[i];
+    const properties = feature.properties || {};
+    const row = new Array(keys.length);
+
+    propertyBytes += 1 + keys.length;
+    for (let k = 0; k < keys.length; k++) {
+      const value = properties[keys[k]];
+
+      if (value === undefined) {
+        row[k] = [ValueTag.Absent];
+      } else if (value === null) {
+        row[k] = [ValueTag.Null];
+      } else if (typeof value === 'number') {
+        row[k] = [ValueTag.Number, value];
+        propertyBytes += 8;
+      } else if (typeof value === 'boolean') {
+        row[k] = [value ? ValueTag.True : ValueTag.False];
+      } else if (typeof value === 'string') {
+        row[k] = [ValueTag.String, internString(value)];
+        propertyBytes += 4;
+      } else {
+        row[k] = [ValueTag.JSON, internString(JSON.stringify(value))];
+        propertyBytes += 4;
+      }
+    }
+
+    // numeric ids are sent as numbers, like the JSON path does, instead of as strings
+    let id;
+    if (feature.id === undefined || feature.id === null) {
+      id = [ValueTag.Absent];
+    } else if (typeof feature.id === 'number') {
+      id = [ValueTag.Number, feature.id];
+      propertyBytes += 8;
+    } else {
+      id = [ValueTag.String, internString(String(feature.id))];
+      propertyBytes += 4;
+    }
+    values[i] = { id, row };
+  }
+
+  let stringBytes = 4;
+  for (let i = 0; i < strings.length; i++) {
+    stringBytes += 4 + strings[i].length;
+  }
+
+  const byteLength =
+    HEADER_BYTES +
+    positionCount * 16 +
+    structureBytes +
+    stringBytes +
+    4 +
+    keys.length * 4 +
+    propertyBytes;
+
+  const buffer = new ArrayBuffer(byteLength);
+  const view = new DataView(buffer);
+  const bytes = new Uint8Array(buffer);
+
+  view.setUint32(0, PACKED_SHAPE_VERSION, true);
+  view.setUint32(4, features.length, true);
+  view.setUint32(8, positionCount, true);
+  view.setUint32(12, 0, true);
+
+  let offset = HEADER_BYTES;
+  for (let i = 0; i < featureParts.length; i++) {
+    const parts = featureParts[i];
+    for (let j = 0; j < parts.length; j++) {
+      const positions = parts[j];
+      for (let p = 0; p < positions.length; p++) {
+        view.setFloat64(offset, positions[p][0], true);
+        view.setFloat64(offset + 8, positions[p][1], true);
+        offset += 16;
+      }
+    }
+  }
+
+  for (let i = 0; i < featureParts.length; i++) {
+    const parts = featureParts[i];
+    view.setUint32(offset, GeometryType[features[i].geometry.type], true);
+    view.setUint32(offset + 4, parts.length, true);
+    offset += 8;
+    for (let j = 0; j < parts.length; j++) {
+      view.setUint32(offset, parts[j].length, true);
+      offset += 4;
+    }
+  }
+
+  view.setUint32(offset, strings.length, true);
+  offset += 4;
+  for (let i = 0; i < strings.length; i++) {
+    view.setUint32(offset, strings[i].length, true);
+    offset += 4;
+    bytes.set(strings[i], offset);
+    offset += strings[i].length;
+  }
+
+  view.setUint32(offset, keys.length, true);
+  offset += 4;
+  for (let k = 0; k < keyStringIndices.length; k++) {
+    view.setUint32(offset, keyStringIndices[k], true);
+    offset += 4;
+  }
+
+  for (let i = 0; i < values.length; i++) {
+    const { id, row } = values[i];
+    offset = writeValue(view, offset, id);
+
+    for (let k = 0; k < row.length; k++) {
+      offset = writeValue(view, offset, row[k]);
+    }
+  }
+
+  return toBase64(bytes);
+}
@@ -39,6 +39,7 @@ NativeModules.MGLModule = {
     'DidFinishRenderingFrame',
     'DidFinishRenderingFrameFully',
     'DidFinishLoadingStyle',
+    'ProjectedPointsChange',
     'SetCameraComplete',
   ]),
   CameraModes: keyMirror(['Flight', 'Ease', 'Linear', 'None', 'Move']),